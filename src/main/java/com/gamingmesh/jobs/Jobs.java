@@ -21,13 +21,16 @@ package com.gamingmesh.jobs;
 import java.io.File;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.WeakHashMap;
 import java.util.logging.Logger;
@@ -38,15 +41,20 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredListener;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import com.gamingmesh.jobs.Gui.GuiManager;
 import com.gamingmesh.jobs.Placeholders.Placeholder;
 import com.gamingmesh.jobs.Placeholders.PlaceholderAPIHook;
 import com.gamingmesh.jobs.Signs.SignUtil;
+import com.gamingmesh.jobs.actions.BlockActionInfo;
+import com.gamingmesh.jobs.api.EventListenerChecks;
+import com.gamingmesh.jobs.api.JobsChunkChangeEvent;
 import com.gamingmesh.jobs.api.JobsExpGainEvent;
 import com.gamingmesh.jobs.api.JobsInstancePaymentEvent;
 import com.gamingmesh.jobs.api.JobsPrePaymentEvent;
@@ -67,6 +75,7 @@ import com.gamingmesh.jobs.config.ShopManager;
 import com.gamingmesh.jobs.config.TitleManager;
 import com.gamingmesh.jobs.config.YmlMaker;
 import com.gamingmesh.jobs.container.ActionInfo;
+import com.gamingmesh.jobs.container.ActionKey;
 import com.gamingmesh.jobs.container.ActionType;
 import com.gamingmesh.jobs.container.ArchivedJobs;
 import com.gamingmesh.jobs.container.BlockProtection;
@@ -75,17 +84,21 @@ import com.gamingmesh.jobs.container.Convert;
 import com.gamingmesh.jobs.container.CurrencyLimit;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.FastPayment;
+import com.gamingmesh.jobs.container.FastPaymentCache;
 import com.gamingmesh.jobs.container.Job;
 import com.gamingmesh.jobs.container.JobInfo;
 import com.gamingmesh.jobs.container.JobProgression;
+import com.gamingmesh.jobs.container.JobsMobSpawner;
 import com.gamingmesh.jobs.container.JobsPlayer;
+import com.gamingmesh.jobs.container.JobsTop;
+import com.gamingmesh.jobs.container.JobsTopSnapshot;
 import com.gamingmesh.jobs.container.JobsWorld;
 import com.gamingmesh.jobs.container.LoadStatus;
 import com.gamingmesh.jobs.container.Log;
+import com.gamingmesh.jobs.container.PaymentVector;
 import com.gamingmesh.jobs.container.PlayerInfo;
 import com.gamingmesh.jobs.container.PlayerPoints;
 import com.gamingmesh.jobs.container.Quest;
-import com.gamingmesh.jobs.container.QuestProgression;
 import com.gamingmesh.jobs.container.blockOwnerShip.BlockOwnerShip;
 import com.gamingmesh.jobs.container.blockOwnerShip.BlockTypes;
 import com.gamingmesh.jobs.dao.JobsClassLoader;
@@ -98,19 +111,25 @@ import com.gamingmesh.jobs.economy.Economy;
 import com.gamingmesh.jobs.economy.PaymentData;
 import com.gamingmesh.jobs.hooks.JobsHook;
 import com.gamingmesh.jobs.i18n.Language;
+import com.gamingmesh.jobs.listeners.BlockProtectionListener;
+import com.gamingmesh.jobs.listeners.JobsChunkChangeListener;
 import com.gamingmesh.jobs.listeners.JobsDefaultFishPaymentListener;
+import com.gamingmesh.jobs.listeners.JobsInventoryMoveListener;
 import com.gamingmesh.jobs.listeners.JobsListener;
 import com.gamingmesh.jobs.listeners.JobsPayment1_14Listener;
 import com.gamingmesh.jobs.listeners.JobsPayment1_16Listener;
 import com.gamingmesh.jobs.listeners.JobsPayment1_17Listener;
 import com.gamingmesh.jobs.listeners.JobsPayment1_20Listener;
 import com.gamingmesh.jobs.listeners.JobsPayment1_9Listener;
+import com.gamingmesh.jobs.listeners.JobsPayForAboveListener;
+import com.gamingmesh.jobs.listeners.JobsPlayerLocationListener;
 import com.gamingmesh.jobs.listeners.JobsPaymentListener;
 import com.gamingmesh.jobs.listeners.JobsPaymentVisualizationListener;
 import com.gamingmesh.jobs.listeners.PistonProtectionListener;
 import com.gamingmesh.jobs.listeners.PlayerSignEdit1_20Listeners;
 import com.gamingmesh.jobs.selection.SelectionManager;
 import com.gamingmesh.jobs.stuff.Loging;
+import com.gamingmesh.jobs.stuff.PlayerLocationIndex;
 import com.gamingmesh.jobs.stuff.TabComplete;
 import com.gamingmesh.jobs.stuff.ToggleBarHandling;
 import com.gamingmesh.jobs.stuff.Util;
@@ -120,6 +139,7 @@ import com.gamingmesh.jobs.stuff.complement.Complement1;
 import com.gamingmesh.jobs.stuff.complement.JobsChatEvent;
 import com.gamingmesh.jobs.tasks.BufferedPaymentThread;
 import com.gamingmesh.jobs.tasks.DatabaseSaveThread;
+import com.gamingmesh.jobs.tasks.InstancePaymentEventThread;
 
 import net.Zrips.CMILib.Items.CMIMaterial;
 import net.Zrips.CMILib.Locale.LC;
@@ -151,6 +171,9 @@ public final class Jobs extends JavaPlugin {
 	@Deprecated
 	private static BlockProtectionManager bpManager;
 	private static ExploitProtectionManager exploitManager;
+	private static FastPaymentCache fastPaymentCache;
+	private static PlayerLocationIndex playerLocationIndex;
+	private static WorkerCountManager workerCountManager;
 	private static JobsManager dbManager;
 	private static ConfigManager configManager;
 	private static GeneralConfigManager gConfigManager;
@@ -182,6 +205,7 @@ public final class Jobs extends JavaPlugin {
 
 	public static BufferedPaymentThread paymentThread;
 	private static DatabaseSaveThread saveTask;
+	private static InstancePaymentEventThread instancePaymentThread;
 
 	public static LoadStatus status = LoadStatus.Good;
 
@@ -189,12 +213,7 @@ public final class Jobs extends JavaPlugin {
 
 	public static boolean fullyLoaded = false;
 
-	private static final int MAX_ENTRIES = 20;
-	public static final LinkedHashMap<UUID, FastPayment> FASTPAYMENT = new LinkedHashMap<UUID, FastPayment>(MAX_ENTRIES + 1, .75F, false) {
-		protected boolean removeEldestEntry(Map.Entry<UUID, FastPayment> eldest) {
-			return size() > MAX_ENTRIES;
-		}
-	};
+	private static final List<Listener> optionalListeners = new ArrayList<>();
 
 	protected static VersionChecker versionCheckManager;
 	protected static SelectionManager smanager;
@@ -310,6 +329,24 @@ public final class Jobs extends JavaPlugin {
 		return bpManager;
 	}
 
+	public static FastPaymentCache getFastPaymentCache() {
+		if (fastPaymentCache == null)
+			fastPaymentCache = new FastPaymentCache();
+		return fastPaymentCache;
+	}
+
+	public static WorkerCountManager getWorkerCountManager() {
+		if (workerCountManager == null)
+			workerCountManager = new WorkerCountManager();
+		return workerCountManager;
+	}
+
+	public static PlayerLocationIndex getPlayerLocationIndex() {
+		if (playerLocationIndex == null)
+			playerLocationIndex = new PlayerLocationIndex();
+		return playerLocationIndex;
+	}
+
 	public static ExploitProtectionManager getExploitManager() {
 		if (exploitManager == null)
 			exploitManager = new ExploitProtectionManager();
@@ -589,7 +626,13 @@ public final class Jobs extends JavaPlugin {
 		reload(true);
 
 		// This goes in sync to avoid issues while loading data
-		loadAllPlayersData();
+		if (getGCManager().isPreloadPlayers()) {
+			loadAllPlayersData();
+		} else {
+			// Tops are available before players are loaded and brought up to date in the background
+			JobsTopSnapshot.load();
+			JobsTopSnapshot.reconcile();
+		}
 		for (Player online : Bukkit.getServer().getOnlinePlayers())
 			getPlayerManager().playerJoin(online);
 	}
@@ -656,36 +699,10 @@ public final class Jobs extends JavaPlugin {
 	 * @param jPlayer {@link JobsPlayer}
 	 * @param type    {@link ActionType}
 	 * @return true if the player have the given action
+	 * @see JobsPlayer#hasAction(ActionType)
 	 */
 	public static boolean isPlayerHaveAction(JobsPlayer jPlayer, ActionType type) {
-		if (jPlayer == null || type == null)
-			return false;
-
-		boolean found = false;
-
-		for (JobProgression prog : jPlayer.getJobProgression()) {
-			for (JobInfo info : prog.getJob().getJobInfo(type)) {
-				if (info.getActionType() == type) {
-					found = true;
-					break;
-				}
-			}
-
-			if (!found) {
-				for (Quest q : prog.getJob().getQuests()) {
-					if (q != null && q.hasAction(type)) {
-						found = true;
-						break;
-					}
-				}
-			}
-
-			if (found) {
-				break;
-			}
-		}
-
-		return found;
+		return jPlayer != null && type != null && jPlayer.hasAction(type);
 	}
 
 	/**
@@ -879,12 +896,10 @@ public final class Jobs extends JavaPlugin {
 			pm.registerEvents(new JobsPayment1_20Listener(), getInstance());
 		}
 
-		if (getGCManager().useBlockProtection) {
-			pm.registerEvents(new PistonProtectionListener(), getInstance());
-		}
-
 		pm.registerEvents(new JobsChatEvent(getInstance()), getInstance());
 
+		registerOptionalListeners();
+
 		JobsHook.PyroFishingPro.registerListener();
 		JobsHook.mcMMO.registerListener();
 		JobsHook.MythicMobs.registerListener();
@@ -892,17 +907,93 @@ public final class Jobs extends JavaPlugin {
 		CMIMessages.consoleMessage("&eListeners registered successfully");
 	}
 
+	/**
+	 * Registers the listeners of frequently fired events again, depending on
+	 * the loaded jobs, restricted areas and settings. Does nothing until the
+	 * plugin is fully loaded.
+	 */
+	public static void updateOptionalListeners() {
+		if (fullyLoaded)
+			registerOptionalListeners();
+	}
+
+	private static void registerOptionalListeners() {
+		for (Listener listener : optionalListeners) {
+			HandlerList.unregisterAll(listener);
+		}
+		optionalListeners.clear();
+
+		Set<ActionType> actions = getUsedActions();
+
+		if (getGCManager().useBlockProtection) {
+			optionalListeners.add(new PistonProtectionListener());
+			optionalListeners.add(new BlockProtectionListener(getInstance()));
+		}
+
+		if (actions.contains(ActionType.EXPLORE) || !getRestrictedAreaManager().getRestrictedAreas().isEmpty()
+			|| isListenedByOtherPlugin(JobsChunkChangeEvent.getHandlerList()))
+			optionalListeners.add(new JobsChunkChangeListener(getInstance()));
+
+		if (getGCManager().payForAbove && actions.contains(ActionType.BREAK))
+			optionalListeners.add(new JobsPayForAboveListener());
+
+		if (!getGCManager().blockOwnershipDisabled && (getGCManager().PreventHopperFillUps && actions.contains(ActionType.SMELT)
+			|| getGCManager().PreventBrewingStandFillUps && actions.contains(ActionType.BREW)))
+			optionalListeners.add(new JobsInventoryMoveListener(getInstance()));
+
+		// Closest player lookups of the TNT and breeder finders
+		boolean locationIndex = getGCManager().isUseTntFinder() && actions.contains(ActionType.TNTBREAK)
+			|| getGCManager().useBreederFinder && actions.contains(ActionType.BREED);
+		getPlayerLocationIndex().setActive(locationIndex);
+		if (locationIndex)
+			optionalListeners.add(new JobsPlayerLocationListener());
+
+		PluginManager pm = getInstance().getServer().getPluginManager();
+		for (Listener listener : optionalListeners) {
+			pm.registerEvents(listener, getInstance());
+		}
+	}
+
+	/**
+	 * @return action types paid by any loaded job or used by their quests
+	 */
+	private static Set<ActionType> getUsedActions() {
+		Set<ActionType> actions = EnumSet.noneOf(ActionType.class);
+
+		List<Job> all = new ArrayList<>(getJobs());
+		if (noneJob != null)
+			all.add(noneJob);
+
+		for (Job job : all) {
+			for (Map.Entry<ActionType, List<JobInfo>> one : job.getJobInfoList().entrySet()) {
+				if (!one.getValue().isEmpty())
+					actions.add(one.getKey());
+			}
+
+			if (getGCManager().DailyQuestsEnabled) {
+				for (Quest quest : job.getQuests()) {
+					actions.addAll(quest.getObjectives().keySet());
+				}
+			}
+		}
+
+		return actions;
+	}
+
+	private static boolean isListenedByOtherPlugin(HandlerList handlerList) {
+		for (RegisteredListener listener : handlerList.getRegisteredListeners()) {
+			if (listener.getPlugin() != getInstance())
+				return true;
+		}
+
+		return false;
+	}
+
 	public static void reload() {
 		reload(false);
 	}
 
 	public static void reload(boolean startup) {
-		// unregister all registered listeners by this plugin and register again
-		if (!startup) {
-			HandlerList.unregisterAll(getInstance());
-			registerListeners();
-		}
-
 		if (saveTask != null) {
 			saveTask.shutdown();
 		}
@@ -911,14 +1002,28 @@ public final class Jobs extends JavaPlugin {
 			paymentThread.shutdown();
 		}
 
+		if (instancePaymentThread != null) {
+			instancePaymentThread.shutdown();
+		}
+
 		smanager = new SelectionManager();
 
+		// Marked top changes belong to the jobs which are replaced now
+		JobsTop.stopUpdates();
+
 		getGCManager().reload();
 		getLanguage().reload();
 		getConfigManager().reload();
 
 		hasLimitedItems = Jobs.getJobs().stream().anyMatch(job -> !job.getLimitedItems().isEmpty());
 
+		// unregister all registered listeners by this plugin and register again,
+		// after the configs are loaded as they decide which listeners are needed
+		if (!startup) {
+			HandlerList.unregisterAll(getInstance());
+			registerListeners();
+		}
+
 		getDBManager().getDB().loadAllJobsWorlds();
 		getDBManager().getDB().loadAllJobsNames();
 
@@ -939,6 +1044,9 @@ public final class Jobs extends JavaPlugin {
 		for (Job job : jobs) {
 			usedSlots.put(job, dao.getSlotsTaken(job));
 		}
+
+		// Jobs were loaded again, so their worker counts are as well
+		getWorkerCountManager().start();
 		getPlayerManager().reload();
 		getPermissionHandler().registerPermissions();
 
@@ -950,6 +1058,11 @@ public final class Jobs extends JavaPlugin {
 		paymentThread = new BufferedPaymentThread(getGCManager().getEconomyBatchDelay());
 		paymentThread.start();
 
+		instancePaymentThread = new InstancePaymentEventThread();
+		instancePaymentThread.start();
+
+		JobsTopSnapshot.start(getGCManager().getTopSnapshotInterval());
+
 		dao.loadPlayerData();
 
 		// Load active boosts from file
@@ -995,6 +1108,20 @@ public final class Jobs extends JavaPlugin {
 		if (paymentThread != null)
 			paymentThread.shutdown();
 
+		if (instancePaymentThread != null)
+			instancePaymentThread.shutdown();
+
+		if (playerLocationIndex != null)
+			playerLocationIndex.stop();
+
+		if (workerCountManager != null)
+			workerCountManager.stop();
+
+		JobsTop.stopUpdates();
+
+		JobsTopSnapshot.stop();
+		JobsTopSnapshot.save();
+
 		if (pManager != null) {
 			pManager.removePlayerAdditions();
 			CMIMessages.consoleMessage("&eCleared boss bar cache");
@@ -1011,13 +1138,15 @@ public final class Jobs extends JavaPlugin {
 	}
 
 	private static void checkDailyQuests(JobsPlayer jPlayer, Job job, ActionInfo info) {
+		checkDailyQuests(jPlayer, job, info, 1);
+	}
+
+	private static void checkDailyQuests(JobsPlayer jPlayer, Job job, ActionInfo info, int amount) {
 		if (!Jobs.getGCManager().DailyQuestsEnabled) {
 			return;
 		}
 		if (!job.getQuests().isEmpty()) {
-			for (QuestProgression one : jPlayer.getQuestProgressions(job, info.getType())) {
-				one.processQuest(jPlayer, info);
-			}
+			jPlayer.processQuests(job, info, amount);
 		}
 	}
 
@@ -1102,10 +1231,15 @@ public final class Jobs extends JavaPlugin {
 
 		List<JobProgression> progression = jPlayer.getJobProgression();
 		int numjobs = progression.size();
+		int count = info.getCount();
 
 		if (!Jobs.getGCManager().useBlockProtectionBlockTracker && !Jobs.getExploitManager().isProtectionValidAddIfNotExists(jPlayer, info, block, true))
 			return;
 
+		// None of the jobs or quests pays for this action
+		if (!jPlayer.hasAction(info.getType()))
+			return;
+
 		// no job
 		if (numjobs == 0) {
 			if (noneJob == null || noneJob.isWorldBlackListed(block, ent, victim))
@@ -1113,70 +1247,57 @@ public final class Jobs extends JavaPlugin {
 
 			JobInfo jobinfo = noneJob.getJobInfo(info, 1);
 
-			checkDailyQuests(jPlayer, noneJob, info);
+			checkDailyQuests(jPlayer, noneJob, info, count);
 
 			if (jobinfo == null)
 				return;
 
-			double income = jobinfo.getIncome(1, numjobs, jPlayer.maxJobsEquation);
-			double pointAmount = jobinfo.getPoints(1, numjobs, jPlayer.maxJobsEquation);
+			double income = jobinfo.getIncome(1, numjobs, jPlayer.maxJobsEquation) * count;
+			double pointAmount = jobinfo.getPoints(1, numjobs, jPlayer.maxJobsEquation) * count;
 
 			if (income == 0D && pointAmount == 0D)
 				return;
 
 			Boost boost = getPlayerManager().getFinalBonus(jPlayer, noneJob);
 
-			JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), noneJob, income, 0, pointAmount, block, ent, victim, info);
-			Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
-			// If event is canceled, don't do anything
-			if (jobsPrePaymentEvent.isCancelled()) {
-				income = 0D;
-				pointAmount = 0D;
-			} else {
-				income = jobsPrePaymentEvent.getAmount();
-				pointAmount = jobsPrePaymentEvent.getPoints();
-			}
-
-			// Calculate income
-			if (income != 0D) {
-				income = boost.getFinalAmount(CurrencyType.MONEY, income);
-
-				if (gConfigManager.useMinimumOveralPayment && income > 0) {
-					double maxLimit = income * gConfigManager.MinimumOveralPaymentLimit;
-
-					if (income < maxLimit)
-						income = maxLimit;
+			if (EventListenerChecks.isPrePaymentListened()) {
+				JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), noneJob, income, 0, pointAmount, block, ent, victim, info);
+				Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
+				// If event is canceled, don't do anything
+				if (jobsPrePaymentEvent.isCancelled()) {
+					income = 0D;
+					pointAmount = 0D;
+				} else {
+					income = jobsPrePaymentEvent.getAmount();
+					pointAmount = jobsPrePaymentEvent.getPoints();
 				}
 			}
 
-			// Calculate points
-			if (pointAmount != 0D) {
-				pointAmount = boost.getFinalAmount(CurrencyType.POINTS, pointAmount);
+			// Calculate income and points
+			income = applyBoost(boost, CurrencyType.MONEY, income);
+			pointAmount = applyBoost(boost, CurrencyType.POINTS, pointAmount);
 
-				if (gConfigManager.useMinimumOveralPoints && pointAmount > 0) {
-					double maxLimit = pointAmount * gConfigManager.MinimumOveralPointsLimit;
-
-					if (pointAmount < maxLimit)
-						pointAmount = maxLimit;
-				}
-			}
-
-			if (!jPlayer.isUnderLimit(CurrencyType.MONEY, income)) {
-				if (gConfigManager.useMaxPaymentCurve) {
+			if (!gConfigManager.useMaxPaymentCurve) {
+				// Limits are checked for a single action, as if each of them was paid separately
+				PaymentVector limited = applyLimits(jPlayer, income / count, 0D, pointAmount / count, count);
+				income = limited.getMoney();
+				pointAmount = limited.getPoints();
+			} else {
+				// The curve scales the whole payment by how far over the limit the player already is
+				if (!jPlayer.isUnderLimit(CurrencyType.MONEY, income)) {
 					double percentOver = jPlayer.percentOverLimit(CurrencyType.MONEY);
 					double percentLoss = 100 / ((1 / gConfigManager.maxPaymentCurveFactor * percentOver * percentOver) + 1);
 
 					income = income - (income * percentLoss / 100);
-				} else
-					income = 0D;
-				if (gConfigManager.getLimit(CurrencyType.MONEY).getStopWith().contains(CurrencyType.POINTS))
-					pointAmount = 0D;
-			}
+					if (gConfigManager.getLimit(CurrencyType.MONEY).getStopWith().contains(CurrencyType.POINTS))
+						pointAmount = 0D;
+				}
 
-			if (!jPlayer.isUnderLimit(CurrencyType.POINTS, pointAmount)) {
-				pointAmount = 0D;
-				if (gConfigManager.getLimit(CurrencyType.POINTS).getStopWith().contains(CurrencyType.MONEY))
-					income = 0D;
+				if (!jPlayer.isUnderLimit(CurrencyType.POINTS, pointAmount)) {
+					pointAmount = 0D;
+					if (gConfigManager.getLimit(CurrencyType.POINTS).getStopWith().contains(CurrencyType.MONEY))
+						income = 0D;
+				}
 			}
 
 			if (income == 0D && pointAmount == 0D)
@@ -1193,23 +1314,39 @@ public final class Jobs extends JavaPlugin {
 				jPlayer.setSaved(false);
 			}
 
-			Map<CurrencyType, Double> payments = new HashMap<>();
-			if (income != 0D)
-				payments.put(CurrencyType.MONEY, income);
-			if (pointAmount != 0D)
-				payments.put(CurrencyType.POINTS, pointAmount);
+			PaymentVector payments = PaymentVector.of(income, 0D, pointAmount);
 
 			// FinalPayment event
-			CMIScheduler.runTaskAsynchronously(getInstance(), () -> Bukkit.getServer().getPluginManager().callEvent(new JobsInstancePaymentEvent(jPlayer.getPlayer(), payments)));
+			if (EventListenerChecks.isInstancePaymentListened())
+				callInstancePaymentEvent(jPlayer, payments);
 			payOut(jPlayer, payments);
 
 			if (gConfigManager.LoggingUse) {
-				Map<CurrencyType, Double> amounts = new HashMap<>();
-				amounts.put(CurrencyType.MONEY, income);
-				getLoging().recordToLog(jPlayer, info, amounts);
+				getLoging().recordToLog(jPlayer, info, PaymentVector.of(income, 0D, 0D), count);
 			}
 
 		} else {
+			// Versions are read before calculating so a change made meanwhile is not missed
+			int globalBoostVersion = getPlayerManager().getBoostVersion();
+			int playerBoostVersion = jPlayer.getBoostVersion();
+
+			boolean cacheable = count == 1 && getFastPaymentCache().isCached(info.getType()) && !EventListenerChecks.isPrePaymentListened()
+				&& canCachePayment(jPlayer, ent, victim);
+
+			if (cacheable) {
+				FastPayment fp = getFastPaymentCache().get(jPlayer, info);
+				if (fp != null) {
+					perform(jPlayer, fp, info, block, ent, victim);
+					return;
+				}
+			}
+
+			// Payment is cached only if every job paid without reaching a limit
+			Job[] paidJobs = cacheable ? new Job[numjobs] : null;
+			PaymentVector[] paidPayments = cacheable ? new PaymentVector[numjobs] : null;
+			double[] paidMinecraftExp = cacheable ? new double[numjobs] : null;
+			int paid = 0;
+
 			List<Job> expiredJobs = new ArrayList<>();
 			for (JobProgression prog : progression) {
 				if (prog.getJob().isWorldBlackListed(block, ent, victim))
@@ -1217,188 +1354,565 @@ public final class Jobs extends JavaPlugin {
 
 				if (jPlayer.isLeftTimeEnded(prog.getJob())) {
 					expiredJobs.add(prog.getJob());
+					cacheable = false;
 				}
 
 				JobInfo jobinfo = prog.getJob().getJobInfo(info, prog.getLevel());
 
-				checkDailyQuests(jPlayer, prog.getJob(), info);
+				checkDailyQuests(jPlayer, prog.getJob(), info, count);
 
 				if (jobinfo == null || (gConfigManager.disablePaymentIfMaxLevelReached && prog.getLevel() >= prog.getJob().getMaxLevel())) {
 					continue;
 				}
 
-				double income = jobinfo.getIncome(prog.getLevel(), numjobs, jPlayer.maxJobsEquation);
-				double pointAmount = jobinfo.getPoints(prog.getLevel(), numjobs, jPlayer.maxJobsEquation);
-				double expAmount = jobinfo.getExperience(prog.getLevel(), numjobs, jPlayer.maxJobsEquation);
+				double income = jobinfo.getIncome(prog.getLevel(), numjobs, jPlayer.maxJobsEquation) * count;
+				double pointAmount = jobinfo.getPoints(prog.getLevel(), numjobs, jPlayer.maxJobsEquation) * count;
+				double expAmount = jobinfo.getExperience(prog.getLevel(), numjobs, jPlayer.maxJobsEquation) * count;
 
 				if (income == 0D && pointAmount == 0D && expAmount == 0D)
 					continue;
 
-				if (gConfigManager.addXpPlayer()) {
-					Player player = jPlayer.getPlayer();
-					if (player != null) {
-						/*
-						 * Minecraft experience is calculated in whole numbers only. Calculate the
-						 * fraction of an experience point and perform a dice roll. That way jobs that
-						 * give fractions of experience points will slowly give experience in the
-						 * aggregate
-						 */
-						int expInt = (int) expAmount;
-						double remainder = expAmount - expInt;
-						if (Math.abs(remainder) > Math.random()) {
-							if (expAmount < 0)
-								expInt--;
-							else
-								expInt++;
-						}
-
-						if (expInt < 0 && getPlayerExperience(player) < -expInt) {
-							player.setLevel(0);
-							player.setTotalExperience(0);
-							player.setExp(0);
-						} else
-							player.giveExp(expInt);
-					}
-				}
+				double minecraftExp = expAmount;
+				if (gConfigManager.addXpPlayer())
+					giveMinecraftExp(jPlayer, minecraftExp);
 
 				Boost boost = getPlayerManager().getFinalBonus(jPlayer, prog.getJob(), ent, victim);
 
-				JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), prog.getJob(), CurrencyType.generate(income, expAmount, pointAmount), block, ent, victim, info);
+				if (EventListenerChecks.isPrePaymentListened()) {
+					JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), prog.getJob(), PaymentVector.of(income, expAmount, pointAmount), block, ent, victim, info);
 
-				Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
-				// If event is canceled, don't do anything
-				if (jobsPrePaymentEvent.isCancelled()) {
-					income = 0D;
-					pointAmount = 0D;
-					expAmount = 0D;
-				} else {
-					income = jobsPrePaymentEvent.getAmount();
-					pointAmount = jobsPrePaymentEvent.getPoints();
-					expAmount = jobsPrePaymentEvent.getExp();
+					Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
+					// If event is canceled, don't do anything
+					if (jobsPrePaymentEvent.isCancelled()) {
+						income = 0D;
+						pointAmount = 0D;
+						expAmount = 0D;
+					} else {
+						income = jobsPrePaymentEvent.getAmount();
+						pointAmount = jobsPrePaymentEvent.getPoints();
+						expAmount = jobsPrePaymentEvent.getExp();
+					}
 				}
 
-				// Calculate income
-				if (income != 0D) {
-					income = boost.getFinalAmount(CurrencyType.MONEY, income);
+				// Calculate income, points and exp
+				income = applyBoost(boost, CurrencyType.MONEY, income);
+				pointAmount = applyBoost(boost, CurrencyType.POINTS, pointAmount);
+				expAmount = applyBoost(boost, CurrencyType.EXP, expAmount);
+
+				// Limits are checked for a single action, as if each of them was paid separately
+				PaymentVector limited = applyLimits(jPlayer, income / count, expAmount / count, pointAmount / count, count);
+
+				if (cacheable) {
+					PaymentVector boosted = PaymentVector.of(income, expAmount, pointAmount);
+					if (limited.equals(boosted)) {
+						paidJobs[paid] = prog.getJob();
+						paidPayments[paid] = boosted;
+						paidMinecraftExp[paid] = minecraftExp;
+						paid++;
+					} else
+						cacheable = false;
+				}
 
-					if (gConfigManager.useMinimumOveralPayment && income > 0) {
-						double maxLimit = income * gConfigManager.MinimumOveralPaymentLimit;
+				if (!limited.containsPayment())
+					continue;
 
-						if (income < maxLimit)
-							income = maxLimit;
-					}
+				income = limited.getMoney();
+				pointAmount = limited.getPoints();
+				expAmount = limited.getExp();
+
+				// JobsPayment event
+				if (EventListenerChecks.isExpGainListened()) {
+					JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(jPlayer.getPlayer(), prog.getJob(), expAmount, block, ent, victim, info);
+					Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
+					// If event is canceled, don't do anything
+					expAmount = jobsExpGainEvent.isCancelled() ? 0D : jobsExpGainEvent.getExp();
 				}
 
-				// Calculate points
-				if (pointAmount != 0D) {
-					pointAmount = boost.getFinalAmount(CurrencyType.POINTS, pointAmount);
+				PaymentVector payments = PaymentVector.of(income, expAmount, pointAmount);
+
+				// FinalPayment event
+				if (EventListenerChecks.isInstancePaymentListened())
+					callInstancePaymentEvent(jPlayer, payments);
 
-					if (gConfigManager.useMinimumOveralPoints && pointAmount > 0) {
-						double maxLimit = pointAmount * gConfigManager.MinimumOveralPointsLimit;
+				payOut(jPlayer, payments);
 
-						if (pointAmount < maxLimit)
-							pointAmount = maxLimit;
-					}
+				int oldLevel = prog.getLevel();
+
+				if (gConfigManager.LoggingUse) {
+					getLoging().recordToLog(jPlayer, info, payments, count);
 				}
 
-				// Calculate exp
-				if (expAmount != 0D) {
-					expAmount = boost.getFinalAmount(CurrencyType.EXP, expAmount);
+				if (prog.addExperience(expAmount))
+					getPlayerManager().performLevelUp(jPlayer, prog.getJob(), oldLevel);
+			}
 
-					if (gConfigManager.useMinimumOveralExp && expAmount > 0) {
-						double maxLimit = expAmount * gConfigManager.minimumOveralExpLimit;
+			setPaid(block);
 
-						if (expAmount < maxLimit)
-							expAmount = maxLimit;
-					}
-				}
+			if (cacheable && paid == numjobs)
+				getFastPaymentCache().put(jPlayer, new FastPayment(info, paidJobs, paidPayments, paidMinecraftExp, globalBoostVersion, playerBoostVersion,
+					gConfigManager.getFastPaymentDuration()));
 
-				if (!jPlayer.isUnderLimit(CurrencyType.MONEY, income)) {
-					income = 0D;
+			expiredJobs.forEach(j -> getPlayerManager().leaveJob(jPlayer, j));
+		}
+	}
 
-					CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.MONEY);
+	/**
+	 * Pays the cached payments again for a repeated action.
+	 */
+	private static void perform(JobsPlayer jPlayer, FastPayment fp, ActionInfo info, Block block, Entity ent, LivingEntity victim) {
+		for (int i = 0; i < fp.size(); i++) {
+			Job job = fp.getJob(i);
+			if (job.isWorldBlackListed(block, ent, victim))
+				continue;
 
-					if (cLimit.getStopWith().contains(CurrencyType.EXP))
-						expAmount = 0D;
+			if (gConfigManager.addXpPlayer())
+				giveMinecraftExp(jPlayer, fp.getMinecraftExp(i));
 
-					if (cLimit.getStopWith().contains(CurrencyType.POINTS))
-						pointAmount = 0D;
-				}
+			perform(jPlayer, info, fp.getPayment(i), job, block, ent, victim);
+		}
 
-				if (!jPlayer.isUnderLimit(CurrencyType.EXP, expAmount)) {
-					expAmount = 0D;
+		setPaid(block);
+	}
 
-					CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.EXP);
+	/**
+	 * Boosts of pets, spawner mobs, mcMMO abilities and areas covering only part
+	 * of a chunk depend on the performed action or the exact location, so these
+	 * payments are not cached.
+	 */
+	private static boolean canCachePayment(JobsPlayer jPlayer, Entity ent, LivingEntity victim) {
+		if (JobsHook.mcMMO.isEnabled())
+			return false;
 
-					if (cLimit.getStopWith().contains(CurrencyType.MONEY))
-						income = 0D;
+		if (ent != null && !(ent instanceof Player))
+			return false;
 
-					if (cLimit.getStopWith().contains(CurrencyType.POINTS))
-						pointAmount = 0D;
+		if (victim != null && JobsMobSpawner.isSpawnerEntity(victim))
+			return false;
+
+		if (!getRestrictedAreaManager().getRestrictedAreas().isEmpty()) {
+			Player player = jPlayer.getPlayer();
+			return player != null && !getRestrictedAreaManager().hasAreasInChunk(player.getLocation());
+		}
+
+		return true;
+	}
+
+	// need to update bp
+	private static void setPaid(Block block) {
+		if (block == null || Jobs.getGCManager().useBlockProtectionBlockTracker)
+			return;
+
+		BlockProtection bp = null;
+		if (Jobs.getGCManager().useNewBlockProtection) {
+			getExploitManager().setPaid(block, true);
+		} else
+			bp = getBpManager().getBp(block.getLocation());
+		if (bp != null)
+			bp.setPaid(true);
+	}
+
+	/**
+	 * Perform the given action for every block of the collection at once, for
+	 * example for the blocks destroyed by an explosion or cut down by a tree
+	 * feller.
+	 * <p>
+	 * Blocks are grouped by their action name and sub type, so each group
+	 * resolves to a single {@link JobInfo}. Quests and log are processed once per
+	 * group and the payment once per job with the sum of its groups. Limits are
+	 * checked as if every block was paid separately. When the pre-payment or exp
+	 * gain event has listeners, they are called for every block with its
+	 * location.
+	 * <p>
+	 * Players without any job are processed block by block with
+	 * {@link #action(JobsPlayer, ActionInfo, Block)}.
+	 * 
+	 * @param jPlayer {@link JobsPlayer}
+	 * @param type    {@link ActionType} of every block, for example
+	 *                    {@link ActionType#TNTBREAK}
+	 * @param blocks  the blocks
+	 */
+	public static void actionBatch(JobsPlayer jPlayer, ActionType type, Collection<Block> blocks) {
+		if (jPlayer == null || blocks == null || blocks.isEmpty())
+			return;
+
+		List<JobProgression> progression = jPlayer.getJobProgression();
+		int numjobs = progression.size();
+
+		if (numjobs == 0) {
+			if (!jPlayer.hasAction(type))
+				return;
+
+			for (Block block : blocks) {
+				if (block != null)
+					action(jPlayer, new BlockActionInfo(block, type), block);
+			}
+			return;
+		}
+
+		Map<ActionKey, BlockGroup> grouped = new LinkedHashMap<>();
+		List<Block> accepted = new ArrayList<>(blocks.size());
+
+		for (Block block : blocks) {
+			if (block == null)
+				continue;
+
+			ActionInfo info = new BlockActionInfo(block, type);
+			if (!Jobs.getGCManager().useBlockProtectionBlockTracker && !Jobs.getExploitManager().isProtectionValidAddIfNotExists(jPlayer, info, block, true))
+				continue;
+
+			BlockGroup group = grouped.get(info.getNameWithSubKey());
+			if (group == null)
+				grouped.put(info.getNameWithSubKey(), group = new BlockGroup(info));
+
+			group.blocks.add(block);
+			accepted.add(block);
+		}
+
+		if (accepted.isEmpty() || !jPlayer.hasAction(type))
+			return;
+
+		List<BlockGroup> groups = new ArrayList<>(grouped.values());
+		double[] groupIncome = new double[groups.size()];
+		double[] groupPoints = new double[groups.size()];
+		double[] groupExp = new double[groups.size()];
+		int[] groupCount = new int[groups.size()];
+
+		// Events are fired for every block, so listeners still see the location of each of them
+		boolean perBlock = EventListenerChecks.isPrePaymentListened() || EventListenerChecks.isExpGainListened();
+
+		List<Job> expiredJobs = new ArrayList<>();
+		for (JobProgression prog : progression) {
+			Job job = prog.getJob();
+			int level = prog.getLevel();
+			boolean maxLevelReached = gConfigManager.disablePaymentIfMaxLevelReached && level >= job.getMaxLevel();
+			boolean performed = false;
+			Boost boost = null;
+
+			double income = 0D;
+			double pointAmount = 0D;
+			double expAmount = 0D;
+			double rawExp = 0D;
+
+			for (int i = 0; i < groups.size(); i++) {
+				BlockGroup group = groups.get(i);
+				groupIncome[i] = groupPoints[i] = groupExp[i] = 0D;
+				groupCount[i] = 0;
+
+				int count = 0;
+				for (Block block : group.blocks) {
+					if (!job.isWorldBlackListed(block, null, null))
+						count++;
 				}
 
-				if (!jPlayer.isUnderLimit(CurrencyType.POINTS, pointAmount)) {
-					pointAmount = 0D;
+				if (count == 0)
+					continue;
 
-					CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.POINTS);
+				performed = true;
 
-					if (cLimit.getStopWith().contains(CurrencyType.MONEY))
-						income = 0D;
+				JobInfo jobinfo = job.getJobInfo(group.info, level);
 
-					if (cLimit.getStopWith().contains(CurrencyType.EXP))
-						expAmount = 0D;
+				checkDailyQuests(jPlayer, job, group.info, count);
+
+				if (jobinfo == null || maxLevelReached)
+					continue;
+
+				double unitIncome = jobinfo.getIncome(level, numjobs, jPlayer.maxJobsEquation);
+				double unitPoints = jobinfo.getPoints(level, numjobs, jPlayer.maxJobsEquation);
+				double unitExp = jobinfo.getExperience(level, numjobs, jPlayer.maxJobsEquation);
+
+				if (unitIncome == 0D && unitPoints == 0D && unitExp == 0D)
+					continue;
+
+				rawExp += unitExp * count;
+
+				if (boost == null)
+					boost = getPlayerManager().getFinalBonus(jPlayer, job);
+
+				PaymentVector paid;
+				if (perBlock)
+					paid = payBlocks(jPlayer, job, group, boost, PaymentVector.of(unitIncome, unitExp, unitPoints));
+				else
+					// Limits clamp exactly where they would if every block was paid separately
+					paid = applyLimits(jPlayer, applyBoost(boost, CurrencyType.MONEY, unitIncome), applyBoost(boost, CurrencyType.EXP, unitExp),
+						applyBoost(boost, CurrencyType.POINTS, unitPoints), count);
+
+				groupCount[i] = count;
+				groupIncome[i] = paid.getMoney();
+				groupPoints[i] = paid.getPoints();
+				groupExp[i] = paid.getExp();
+
+				income += groupIncome[i];
+				pointAmount += groupPoints[i];
+				expAmount += groupExp[i];
+			}
+
+			if (!performed)
+				continue;
+
+			if (jPlayer.isLeftTimeEnded(job))
+				expiredJobs.add(job);
+
+			if (rawExp != 0D && gConfigManager.addXpPlayer())
+				giveMinecraftExp(jPlayer, rawExp);
+
+			PaymentVector payments = PaymentVector.of(income, expAmount, pointAmount);
+			if (!payments.containsPayment())
+				continue;
+
+			// FinalPayment event
+			if (EventListenerChecks.isInstancePaymentListened())
+				callInstancePaymentEvent(jPlayer, payments);
+
+			payOut(jPlayer, payments);
+
+			if (gConfigManager.LoggingUse) {
+				for (int i = 0; i < groups.size(); i++) {
+					if (groupCount[i] != 0)
+						getLoging().recordToLog(jPlayer, groups.get(i).info, PaymentVector.of(groupIncome[i], groupExp[i], groupPoints[i]), groupCount[i]);
 				}
+			}
 
-				if (income == 0D && pointAmount == 0D && expAmount == 0D)
+			int oldLevel = prog.getLevel();
+
+			if (prog.addExperience(expAmount))
+				getPlayerManager().performLevelUp(jPlayer, job, oldLevel);
+		}
+
+		// need to update bp
+		if (!Jobs.getGCManager().useBlockProtectionBlockTracker) {
+			for (Block block : accepted) {
+				if (Jobs.getGCManager().useNewBlockProtection) {
+					getExploitManager().setPaid(block, true);
+				} else {
+					BlockProtection bp = getBpManager().getBp(block.getLocation());
+					if (bp != null)
+						bp.setPaid(true);
+				}
+			}
+		}
+
+		expiredJobs.forEach(j -> getPlayerManager().leaveJob(jPlayer, j));
+	}
+
+	/**
+	 * Pays the blocks of the group one by one, firing the pre-payment and exp
+	 * gain events with the location of every block.
+	 *
+	 * @return the sum of the payments of the group
+	 */
+	private static PaymentVector payBlocks(JobsPlayer jPlayer, Job job, BlockGroup group, Boost boost, PaymentVector unit) {
+		double totalIncome = 0D;
+		double totalPoints = 0D;
+		double totalExp = 0D;
+
+		for (Block block : group.blocks) {
+			if (job.isWorldBlackListed(block, null, null))
+				continue;
+
+			double income = unit.getMoney();
+			double pointAmount = unit.getPoints();
+			double expAmount = unit.getExp();
+
+			if (EventListenerChecks.isPrePaymentListened()) {
+				JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), job, unit, block, null, null, group.info);
+
+				Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
+				// If event is canceled, this block is not paid
+				if (jobsPrePaymentEvent.isCancelled())
 					continue;
 
-				// JobsPayment event
-				JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(jPlayer.getPlayer(), prog.getJob(), expAmount, block, ent, victim, info);
+				income = jobsPrePaymentEvent.getAmount();
+				pointAmount = jobsPrePaymentEvent.getPoints();
+				expAmount = jobsPrePaymentEvent.getExp();
+			}
+
+			PaymentVector limited = applyLimits(jPlayer, applyBoost(boost, CurrencyType.MONEY, income), applyBoost(boost, CurrencyType.EXP, expAmount),
+				applyBoost(boost, CurrencyType.POINTS, pointAmount));
+			if (!limited.containsPayment())
+				continue;
+
+			expAmount = limited.getExp();
+
+			// JobsPayment event
+			if (EventListenerChecks.isExpGainListened()) {
+				JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(jPlayer.getPlayer(), job, expAmount, block, null, null, group.info);
 				Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
 				// If event is canceled, don't do anything
 				expAmount = jobsExpGainEvent.isCancelled() ? 0D : jobsExpGainEvent.getExp();
+			}
 
-				Map<CurrencyType, Double> payments = new HashMap<>();
-				if (income != 0D)
-					payments.put(CurrencyType.MONEY, income);
-				if (pointAmount != 0D)
-					payments.put(CurrencyType.POINTS, pointAmount);
-				if (expAmount != 0D)
-					payments.put(CurrencyType.EXP, expAmount);
+			totalIncome += limited.getMoney();
+			totalPoints += limited.getPoints();
+			totalExp += expAmount;
+		}
 
-				FASTPAYMENT.put(jPlayer.getUniqueId(), new FastPayment(jPlayer, info, new BufferedPayment(jPlayer.getPlayer(), payments), prog.getJob()));
+		return PaymentVector.of(totalIncome, totalExp, totalPoints);
+	}
 
-				// FinalPayment event
-				CMIScheduler.runTaskAsynchronously(getInstance(), () -> Bukkit.getServer().getPluginManager().callEvent(new JobsInstancePaymentEvent(jPlayer.getPlayer(), payments)));
+	/**
+	 * Applies the boost and the minimum overall payment of the given currency.
+	 */
+	private static double applyBoost(Boost boost, CurrencyType type, double amount) {
+		if (amount == 0D)
+			return amount;
+
+		amount = boost.getFinalAmount(type, amount);
+		if (amount <= 0)
+			return amount;
+
+		double maxLimit;
+		switch (type) {
+		case MONEY:
+			if (!gConfigManager.useMinimumOveralPayment)
+				return amount;
+			maxLimit = amount * gConfigManager.MinimumOveralPaymentLimit;
+			break;
+		case POINTS:
+			if (!gConfigManager.useMinimumOveralPoints)
+				return amount;
+			maxLimit = amount * gConfigManager.MinimumOveralPointsLimit;
+			break;
+		case EXP:
+			if (!gConfigManager.useMinimumOveralExp)
+				return amount;
+			maxLimit = amount * gConfigManager.minimumOveralExpLimit;
+			break;
+		default:
+			return amount;
+		}
 
-				payOut(jPlayer, payments);
+		return amount < maxLimit ? maxLimit : amount;
+	}
 
-				int oldLevel = prog.getLevel();
+	/**
+	 * Checks the payment limits of the player, zeroing the currencies which
+	 * reached their limit and the ones stopped with them.
+	 */
+	private static PaymentVector applyLimits(JobsPlayer jPlayer, double income, double expAmount, double pointAmount) {
+		if (!jPlayer.isUnderLimit(CurrencyType.MONEY, income)) {
+			income = 0D;
 
-				if (gConfigManager.LoggingUse) {
-					Map<CurrencyType, Double> amounts = new HashMap<>();
-					amounts.put(CurrencyType.MONEY, income);
-					amounts.put(CurrencyType.EXP, expAmount);
-					amounts.put(CurrencyType.POINTS, pointAmount);
-					getLoging().recordToLog(jPlayer, info, amounts);
-				}
+			CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.MONEY);
 
-				if (prog.addExperience(expAmount))
-					getPlayerManager().performLevelUp(jPlayer, prog.getJob(), oldLevel);
-			}
+			if (cLimit.getStopWith().contains(CurrencyType.EXP))
+				expAmount = 0D;
 
-			// need to update bp
-			if (block != null && !Jobs.getGCManager().useBlockProtectionBlockTracker) {
-				BlockProtection bp = null;
-				if (Jobs.getGCManager().useNewBlockProtection) {
-					getExploitManager().setPaid(block, true);
-				} else
-					bp = getBpManager().getBp(block.getLocation());
-				if (bp != null)
-					bp.setPaid(true);
+			if (cLimit.getStopWith().contains(CurrencyType.POINTS))
+				pointAmount = 0D;
+		}
+
+		if (!jPlayer.isUnderLimit(CurrencyType.EXP, expAmount)) {
+			expAmount = 0D;
+
+			CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.EXP);
+
+			if (cLimit.getStopWith().contains(CurrencyType.MONEY))
+				income = 0D;
+
+			if (cLimit.getStopWith().contains(CurrencyType.POINTS))
+				pointAmount = 0D;
+		}
+
+		if (!jPlayer.isUnderLimit(CurrencyType.POINTS, pointAmount)) {
+			pointAmount = 0D;
+
+			CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.POINTS);
+
+			if (cLimit.getStopWith().contains(CurrencyType.MONEY))
+				income = 0D;
+
+			if (cLimit.getStopWith().contains(CurrencyType.EXP))
+				expAmount = 0D;
+		}
+
+		return PaymentVector.of(income, expAmount, pointAmount);
+	}
+
+	/**
+	 * Checks the payment limits of the player for the given amount of equal
+	 * payments. Limits clamp exactly where they would if the payments were checked
+	 * one by one with {@link #applyLimits(JobsPlayer, double, double, double)}.
+	 *
+	 * @return the sum of the payments after the limits
+	 */
+	private static PaymentVector applyLimits(JobsPlayer jPlayer, double income, double expAmount, double pointAmount, int count) {
+		if (count <= 1)
+			return applyLimits(jPlayer, income, expAmount, pointAmount);
+
+		// Same order as the single payment checks
+		CurrencyType[] types = { CurrencyType.MONEY, CurrencyType.EXP, CurrencyType.POINTS };
+		double[] unit = { income, expAmount, pointAmount };
+
+		PaymentData data = jPlayer.getPlayer() == null ? null : jPlayer.getPaymentLimit();
+		PaymentLimiter limiter = new PaymentLimiter();
+
+		for (int t = 0; t < types.length; t++) {
+			CurrencyLimit cLimit = gConfigManager.getLimit(types[t]);
+			if (data == null || unit[t] == 0D || !cLimit.isEnabled())
+				continue;
+
+			limiter.limit(types[t], data.getCurrentAmount(types[t]), jPlayer.getLimit(types[t]), cLimit.getStopWith());
+		}
+
+		if (!limiter.clamps(unit, count)) {
+			for (int t = 0; t < types.length; t++) {
+				if (limiter.isLimited(types[t]))
+					data.addAmount(types[t], unit[t] * count);
 			}
 
-			expiredJobs.forEach(j -> getPlayerManager().leaveJob(jPlayer, j));
+			return PaymentVector.of(income * count, expAmount * count, pointAmount * count);
+		}
+
+		double[] total = limiter.pay(unit, count);
+
+		for (int t = 0; t < types.length; t++) {
+			if (!limiter.isLimited(types[t]))
+				continue;
+
+			data.addAmount(types[t], limiter.getAdded(types[t]));
+
+			// Informs the player about the reached limit
+			if (limiter.isReached(types[t]))
+				jPlayer.isUnderLimit(types[t], unit[t]);
+		}
+
+		return PaymentVector.of(total[0], total[1], total[2]);
+	}
+
+	private static void giveMinecraftExp(JobsPlayer jPlayer, double expAmount) {
+		Player player = jPlayer.getPlayer();
+		if (player == null)
+			return;
+
+		/*
+		 * Minecraft experience is calculated in whole numbers only. Calculate the
+		 * fraction of an experience point and perform a dice roll. That way jobs that
+		 * give fractions of experience points will slowly give experience in the
+		 * aggregate
+		 */
+		int expInt = (int) expAmount;
+		double remainder = expAmount - expInt;
+		if (Math.abs(remainder) > Math.random()) {
+			if (expAmount < 0)
+				expInt--;
+			else
+				expInt++;
+		}
+
+		if (expInt < 0 && getPlayerExperience(player) < -expInt) {
+			player.setLevel(0);
+			player.setTotalExperience(0);
+			player.setExp(0);
+		} else
+			player.giveExp(expInt);
+	}
+
+	private static final class BlockGroup {
+		private final ActionInfo info;
+		private final List<Block> blocks = new ArrayList<>();
+
+		private BlockGroup(ActionInfo info) {
+			this.info = info;
 		}
 	}
 
@@ -1443,67 +1957,93 @@ public final class Jobs extends JavaPlugin {
 	}
 
 	public static void perform(JobsPlayer jPlayer, ActionInfo info, BufferedPayment payment, Job job, Block block, Entity ent, LivingEntity victim) {
+		perform(jPlayer, info, payment.getVector(), job, block, ent, victim);
+	}
 
-		// Need to clone
-		payment = new BufferedPayment(jPlayer.getPlayer(), payment.getPayment());
+	private static void perform(JobsPlayer jPlayer, ActionInfo info, PaymentVector payment, Job job, Block block, Entity ent, LivingEntity victim) {
+		double income = payment.getMoney();
+		double pointAmount = payment.getPoints();
+		double expPayment = payment.getExp();
 
-		double expPayment = payment.get(CurrencyType.EXP);
+		if (EventListenerChecks.isPrePaymentListened()) {
+			JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), job, payment, block, ent, victim, info);
+			Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
+			// If event is canceled, don't do anything
+			if (jobsPrePaymentEvent.isCancelled())
+				return;
 
-		JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), job, payment.getPayment(), block, ent, victim, info);
-		Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
-		// If event is canceled, don't do anything
-		if (jobsPrePaymentEvent.isCancelled())
-			return;
+			income = jobsPrePaymentEvent.getAmount();
+			pointAmount = jobsPrePaymentEvent.getPoints();
+		}
 
-		payment.set(CurrencyType.MONEY, jobsPrePaymentEvent.getAmount());
-		payment.set(CurrencyType.POINTS, jobsPrePaymentEvent.getPoints());
+		if (EventListenerChecks.isExpGainListened()) {
+			JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(jPlayer.getPlayer(), job, expPayment, block, ent, victim, info);
+			Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
+			// If event is canceled, don't do anything
+			if (jobsExpGainEvent.isCancelled())
+				return;
 
-		JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(payment.getOfflinePlayer(), job, expPayment, block, ent, victim, info);
-		Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
-		// If event is canceled, don't do anything
-		if (jobsExpGainEvent.isCancelled())
-			return;
+			expPayment = jobsExpGainEvent.getExp();
+		}
 
 		checkDailyQuests(jPlayer, job, info);
 
-		payment.set(CurrencyType.EXP, jobsExpGainEvent.getExp());
+		PaymentVector limited = applyLimits(jPlayer, income, expPayment, pointAmount);
 
-		boolean limited = true;
-		for (CurrencyType one : CurrencyType.values()) {
-			if (jPlayer.isUnderLimit(one, payment.get(one))) {
-				limited = false;
-				break;
-			}
-		}
+		// Cached payment can not be reused once a limit is reached
+		if (!limited.equals(PaymentVector.of(income, expPayment, pointAmount)))
+			getFastPaymentCache().invalidate(jPlayer);
 
-		if (limited)
+		if (!limited.containsPayment())
 			return;
 
-		payOut(jPlayer, payment);
+		// FinalPayment event
+		if (EventListenerChecks.isInstancePaymentListened())
+			callInstancePaymentEvent(jPlayer, limited);
+
+		payOut(jPlayer, limited);
 
 		JobProgression prog = jPlayer.getJobProgression(job);
+		if (prog == null)
+			return;
+
 		int oldLevel = prog.getLevel();
 
 		if (gConfigManager.LoggingUse) {
-			getLoging().recordToLog(jPlayer, info, payment.getPayment());
+			getLoging().recordToLog(jPlayer, info, limited);
 		}
 
-		if (prog.addExperience(expPayment))
+		if (prog.addExperience(limited.getExp()))
 			getPlayerManager().performLevelUp(jPlayer, prog.getJob(), oldLevel);
 	}
 
-	private static void payOut(JobsPlayer jPlayer, BufferedPayment payment) {
-		if (getEconomy() == null || payment == null)
+	private static void payOut(JobsPlayer jPlayer, PaymentVector payments) {
+		if (getEconomy() == null || payments == null)
 			return;
 
-		payOut(jPlayer, payment.getPayment());
+		getEconomy().pay(jPlayer, payments);
 	}
 
-	private static void payOut(JobsPlayer jPlayer, Map<CurrencyType, Double> payments) {
-		if (getEconomy() == null || payments == null)
+	private static void callInstancePaymentEvent(JobsPlayer jPlayer, PaymentVector payments) {
+		JobsInstancePaymentEvent event = new JobsInstancePaymentEvent(jPlayer.getPlayer(), payments);
+
+		// Falls back to a separate task while the dispatcher thread is not running yet
+		if (instancePaymentThread == null) {
+			CMIScheduler.runTaskAsynchronously(getInstance(), () -> Bukkit.getServer().getPluginManager().callEvent(event));
 			return;
+		}
 
-		getEconomy().pay(jPlayer, payments);
+		instancePaymentThread.offer(event);
+	}
+
+	/**
+	 * Returns the thread firing {@link JobsInstancePaymentEvent}s, which holds the
+	 * queue depth and dropped event counters.
+	 *
+	 * @return {@link InstancePaymentEventThread} or null if not started yet
+	 */
+	public static InstancePaymentEventThread getInstancePaymentEventThread() {
+		return instancePaymentThread;
 	}
 
 	public static SelectionManager getSelectionManager() {
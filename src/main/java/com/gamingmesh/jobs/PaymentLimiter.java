@@ -0,0 +1,116 @@
+package com.gamingmesh.jobs;
+
+import java.util.Collection;
+
+import com.gamingmesh.jobs.container.CurrencyType;
+
+/**
+ * Pays a number of equal payments against the payment limits of a player,
+ * with the same result as checking the payments one after another. A payment
+ * is made while the collected amount is under the limit, so the last one can
+ * go over it. Once a currency reached its limit, it and the currencies it
+ * stops with are not paid anymore.
+ */
+final class PaymentLimiter {
+
+    private static final CurrencyType[] TYPES = CurrencyType.values();
+
+    private final double[] current = new double[TYPES.length];
+    private final int[] limit = new int[TYPES.length];
+    private final boolean[] limited = new boolean[TYPES.length];
+    private final boolean[][] stopWith = new boolean[TYPES.length][TYPES.length];
+
+    private final double[] added = new double[TYPES.length];
+    private final boolean[] reached = new boolean[TYPES.length];
+
+    /**
+     * Limits the currency, currencies which are not limited are always paid.
+     *
+     * @param type currency
+     * @param current amount collected so far
+     * @param limit amount which can be collected
+     * @param stopWith currencies which are not paid once this one reached its
+     *            limit
+     */
+    void limit(CurrencyType type, double current, int limit, Collection<CurrencyType> stopWith) {
+        int t = type.ordinal();
+
+        limited[t] = true;
+        this.current[t] = current;
+        this.limit[t] = limit;
+
+        for (CurrencyType other : TYPES)
+            this.stopWith[t][other.ordinal()] = stopWith.contains(other);
+    }
+
+    /**
+     * @param unit amount of a single payment for every currency, in
+     *            {@link CurrencyType} order
+     * @return false if all payments are under every limit
+     */
+    boolean clamps(double[] unit, int count) {
+        for (int t = 0; t < TYPES.length; t++) {
+            // With some margin, as the exact check is done by adding payments one after another
+            if (limited[t] && unit[t] != 0D && Math.max(current[t], current[t] + unit[t] * count) >= limit[t])
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Makes the payments one after another.
+     *
+     * @param unit amount of a single payment for every currency, in
+     *            {@link CurrencyType} order
+     * @return the sum of the payments for every currency
+     */
+    double[] pay(double[] unit, int count) {
+        double[] total = new double[TYPES.length];
+        double[] pay = new double[TYPES.length];
+
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(unit, 0, pay, 0, TYPES.length);
+
+            for (int t = 0; t < TYPES.length; t++) {
+                if (!limited[t] || pay[t] == 0D)
+                    continue;
+
+                if (current[t] >= limit[t]) {
+                    reached[t] = true;
+                    pay[t] = 0D;
+
+                    for (int o = 0; o < TYPES.length; o++) {
+                        if (stopWith[t][o])
+                            pay[o] = 0D;
+                    }
+                } else {
+                    current[t] += pay[t];
+                    added[t] += pay[t];
+                }
+            }
+
+            for (int t = 0; t < TYPES.length; t++)
+                total[t] += pay[t];
+        }
+
+        return total;
+    }
+
+    boolean isLimited(CurrencyType type) {
+        return limited[type.ordinal()];
+    }
+
+    /**
+     * @return amount which was added to the collected amount of the currency
+     */
+    double getAdded(CurrencyType type) {
+        return added[type.ordinal()];
+    }
+
+    /**
+     * @return true if a payment was not made because of the currency limit
+     */
+    boolean isReached(CurrencyType type) {
+        return reached[type.ordinal()];
+    }
+}
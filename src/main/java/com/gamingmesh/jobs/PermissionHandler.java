@@ -53,6 +53,8 @@ public class PermissionHandler {
 	if (player == null)
 	    return;
 
+	jPlayer.invalidateBoosts();
+
 	boolean changed = false;
 
 	// remove old permissions
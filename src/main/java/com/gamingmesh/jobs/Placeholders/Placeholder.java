@@ -23,6 +23,7 @@ import com.gamingmesh.jobs.container.JobProgression;
 import com.gamingmesh.jobs.container.JobsPlayer;
 import com.gamingmesh.jobs.container.JobsTop;
 import com.gamingmesh.jobs.container.JobsTop.topStats;
+import com.gamingmesh.jobs.container.PlayerInfo;
 import com.gamingmesh.jobs.container.Quest;
 import com.gamingmesh.jobs.container.QuestProgression;
 import com.gamingmesh.jobs.container.Title;
@@ -64,6 +65,7 @@ public class Placeholder {
 		user_quests,
 		user_seen,
 		user_totallevels,
+		user_grank,
 		user_issaved,
 		user_displayhonorific,
 		user_joinedjobcount,
@@ -91,6 +93,8 @@ public class Placeholder {
 		user_jexpunf_$1("jname/number"),
 		user_jmaxexpunf_$1("jname/number"),
 		user_jmaxlvl_$1("jname/number"),
+		user_jrank_$1("jname/number"),
+		user_jpercentile_$1("jname/number"),
 		user_job_$1("jname/number"),
 		user_jobfull_$1("jname/number"),
 		user_jobshort_$1("jname/number"),
@@ -111,6 +115,7 @@ public class Placeholder {
 		limit_$1("money/exp/points"),
 		plimit_$1("money/exp/points"),
 		plimit_tleft_$1("money/exp/points"),
+		plimit_left_$1("money/exp/points"),
 
 		name_$1("jname/number"),
 		shortname_$1("jname/number"),
@@ -459,6 +464,8 @@ public class Placeholder {
 				return CMITimeManager.to24hourShort(System.currentTimeMillis() - user.getSeen());
 			case user_totallevels:
 				return Integer.toString(user.getTotalLevels());
+			case user_grank:
+				return Integer.toString(JobsTop.getGlobalRank(user.getUniqueId()));
 			case user_points:
 				return dFormat.format(user.getPointsData().getCurrentPoints());
 			case user_points_fixed:
@@ -537,6 +544,18 @@ public class Placeholder {
 					return Double.toString(user.getPaymentLimit().getAmount(CurrencyType.getByName(keyValue)));
 				case plimit_tleft_$1:
 					return CMITimeManager.to24hourShort(user.getPaymentLimit().getLeftTime(CurrencyType.getByName(keyValue)));
+				case plimit_left_$1:
+					return Double.toString((int) (user.getRemainingLimit(CurrencyType.getByName(keyValue)) * 100) / 100D);
+				case user_jrank_$1:
+					return job == null ? "0" : Integer.toString(job.getTopRank(user.getUniqueId()));
+				case user_jpercentile_$1:
+					if (job == null)
+						return "0";
+
+					// Share of ranked players who are behind this player
+					int rank = job.getTopRank(user.getUniqueId());
+					int size = job.getTopSize();
+					return rank == 0 || size == 0 ? "0" : format.format((size - rank) * 100D / size);
 				case user_jlevel_$1:
 					return j == null ? archived != null ? JobProgression.getLevelFormatted(user.getLevelAfterRejoin(archived)) : "0" : j.getLevelFormatted();
 				case user_jexp_$1:
@@ -684,16 +703,17 @@ public class Placeholder {
 				if (uuid == null)
 					return "";
 
-				user = Jobs.getPlayerManager().getJobsPlayer(uuid);
+				// Not loaded players are still known by name
+				PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(uuid);
 
-				if (user == null)
+				if (info == null)
 					return "";
 
 				if (placeHolder.equals(JobsPlaceHolders.jtop_name_$1_$2))
-					return user.getName();
+					return info.getName();
 
 				if (placeHolder.equals(JobsPlaceHolders.jtop_displayname_$1_$2))
-					return user.getDisplayName();
+					return info.getDisplayName();
 
 				topStats stats = jo.getTopStats(uuid);
 
@@ -724,16 +744,16 @@ public class Placeholder {
 				if (uuid == null)
 					return "";
 
-				user = Jobs.getPlayerManager().getJobsPlayer(uuid);
+				info = Jobs.getPlayerManager().getPlayerInfo(uuid);
 
-				if (user == null)
+				if (info == null)
 					return "";
 
 				if (placeHolder.equals(JobsPlaceHolders.jtop_name_total_$1))
-					return user.getName();
+					return info.getName();
 
 				if (placeHolder.equals(JobsPlaceHolders.jtop_displayname_total_$1))
-					return user.getDisplayName();
+					return info.getDisplayName();
 
 				stats = JobsTop.getGlobalStats(uuid);
 
@@ -28,6 +28,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
@@ -48,6 +49,7 @@ import com.gamingmesh.jobs.api.JobsLevelUpEvent;
 import com.gamingmesh.jobs.container.ArchivedJobs;
 import com.gamingmesh.jobs.container.Boost;
 import com.gamingmesh.jobs.container.BoostMultiplier;
+import com.gamingmesh.jobs.container.BoostSnapshot;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.Job;
 import com.gamingmesh.jobs.container.JobCommands;
@@ -60,6 +62,7 @@ import com.gamingmesh.jobs.container.PlayerInfo;
 import com.gamingmesh.jobs.container.PlayerPoints;
 import com.gamingmesh.jobs.dao.JobsDAO;
 import com.gamingmesh.jobs.dao.JobsDAOData;
+import com.gamingmesh.jobs.dao.JobsSaveQueue;
 import com.gamingmesh.jobs.economy.PaymentData;
 import com.gamingmesh.jobs.hooks.JobsHook;
 import com.gamingmesh.jobs.i18n.Language;
@@ -255,7 +258,8 @@ public class PlayerManager {
                 JobsPlayer jobsPlayer = playersUUIDCache.get(player.getUniqueId());
                 jobsPlayer = jobsPlayer == null ? new JobsPlayer(player) : jobsPlayer;
 
-                return loadPlayer(jobsPlayer).join();
+                // Without preloading, players who were not cached yet need all of their data
+                return loadPlayer(jobsPlayer, jPlayer == null || Jobs.getGCManager().MultiServerCompatability()).join();
             });
 
             future.thenAccept(this::finalizeJoinPlayer);
@@ -264,14 +268,17 @@ public class PlayerManager {
         }
     }
 
-    private static CompletableFuture<JobsPlayer> loadPlayer(JobsPlayer old) {
+    private static CompletableFuture<JobsPlayer> loadPlayer(JobsPlayer old, boolean full) {
         return CompletableFuture.supplyAsync(() -> {
             JobsPlayer jPlayer = Jobs.getJobsDAO().loadFromDao(old);
 
-            if (Jobs.getGCManager().MultiServerCompatability()) {
+            if (full) {
                 jPlayer.setArchivedJobs(Jobs.getJobsDAO().getArchivedJobs(jPlayer));
                 jPlayer.setPaymentLimit(Jobs.getJobsDAO().getPlayersLimits(jPlayer));
                 jPlayer.setPoints(Jobs.getJobsDAO().getPlayerPoints(jPlayer));
+            } else if (!jPlayer.hasPaymentLimit()) {
+                // Load limits here so actions never have to wait for them
+                jPlayer.setPaymentLimit(Jobs.getJobsDAO().getPlayersLimits(jPlayer));
             }
 
             // Lets load quest progression
@@ -339,9 +346,14 @@ public class PlayerManager {
          * 3) Garbage collect the real list to remove any offline players with saved data
          */
         for (JobsPlayer jPlayer : new ArrayList<>(playersUUID.values()))
-            jPlayer.save();
+            jPlayer.save(true);
+
+        // Written in batches on this thread, so players are saved once this returns
+        JobsSaveQueue queue = Jobs.getJobsDAO().getSaveQueue();
+        queue.flush();
 
-        playersUUID.values().removeIf(jPlayer -> jPlayer.isSaved() && !jPlayer.isOnline());
+        // Players of a failed flush stay until they are written
+        playersUUID.values().removeIf(jPlayer -> jPlayer.isSaved() && !jPlayer.isOnline() && !queue.isPending(jPlayer.getUniqueId()));
 
         if (!Jobs.getGCManager().useNewBlockProtection)
             Jobs.getBpManager().saveCache();
@@ -472,8 +484,8 @@ public class PlayerManager {
         if (logs != null)
             jPlayer.setLog(logs);
 
-        if (limits != null)
-            jPlayer.setPaymentLimit(limits);
+        // All limits were loaded, players without any have nothing collected
+        jPlayer.setPaymentLimit(limits != null ? limits : new PaymentData());
 
         if (archivedJobs != null) {
             ArchivedJobs aj = new ArchivedJobs();
@@ -1014,12 +1026,15 @@ public class PlayerManager {
      * Perform reload for all jobs players.
      */
     public void reload() {
+        invalidateBoosts();
+
         for (JobsPlayer jPlayer : playersUUID.values()) {
             for (JobProgression progression : jPlayer.getJobProgression()) {
                 Job job = Jobs.getJob(progression.getJob().getName());
                 if (job != null)
                     progression.setJob(job);
             }
+            jPlayer.invalidateActions();
             if (jPlayer.isOnline()) {
                 jPlayer.reloadHonorific();
                 jPlayer.reloadLimits();
@@ -1029,9 +1044,14 @@ public class PlayerManager {
     }
 
     private final Map<UUID, Map<Job, BoostMultiplier>> cache = new HashMap<>();
+    private final AtomicInteger boostVersion = new AtomicInteger();
 
     public void resetItemBonusCache(UUID uuid) {
         cache.remove(uuid);
+
+        JobsPlayer jPlayer = getJobsPlayer(uuid);
+        if (jPlayer != null)
+            jPlayer.invalidateBoosts();
     }
 
     public BoostMultiplier getItemBoostNBT(Player player, Job prog) {
@@ -1145,15 +1165,15 @@ public class PlayerManager {
     }
 
     public Boost getFinalBonus(JobsPlayer player, Job job, Entity ent, LivingEntity victim, boolean force, boolean getall) {
-        Boost boost = new Boost();
-
         if (player == null || !player.isOnline() || job == null)
-            return boost;
+            return new Boost();
 
         Player pl = player.getPlayer();
 
+        BoostMultiplier mcMMO = null, petPayBoost = null, nearSpawner = null;
+
         if (JobsHook.mcMMO.isEnabled()) {
-            boost.add(BoostOf.McMMO, new BoostMultiplier().add(JobsHook.getMcMMOManager().getMultiplier(pl)));
+            mcMMO = new BoostMultiplier().add(JobsHook.getMcMMOManager().getMultiplier(pl));
         }
 
         double petPay = 0D;
@@ -1163,7 +1183,7 @@ public class PlayerManager {
             if (t.isTamed() && t.getOwner() instanceof Player) {
                 petPay = Jobs.getPermissionManager().getMaxPermission(player, "jobs.petpay", false, false);
                 if (petPay != 0D)
-                    boost.add(BoostOf.PetPay, new BoostMultiplier().add(petPay));
+                    petPayBoost = new BoostMultiplier().add(petPay);
             }
         }
 
@@ -1171,13 +1191,13 @@ public class PlayerManager {
             if (petPay == 0D)
                 petPay = Jobs.getPermissionManager().getMaxPermission(player, "jobs.petpay", false, false);
             if (petPay != 0D)
-                boost.add(BoostOf.PetPay, new BoostMultiplier().add(petPay));
+                petPayBoost = new BoostMultiplier().add(petPay);
         }
 
         if (victim != null && JobsMobSpawner.isSpawnerEntity(victim)) {
             double amount = Jobs.getPermissionManager().getMaxPermission(player, "jobs.nearspawner", false, false);
             if (amount != 0D)
-                boost.add(BoostOf.NearSpawner, new BoostMultiplier().add(amount));
+                nearSpawner = new BoostMultiplier().add(amount);
         }
 
         if (getall) {
@@ -1185,13 +1205,83 @@ public class PlayerManager {
                 petPay = Jobs.getPermissionManager().getMaxPermission(player, "jobs.petpay", force, false);
 
             if (petPay != 0D)
-                boost.add(BoostOf.PetPay, new BoostMultiplier().add(petPay));
+                petPayBoost = new BoostMultiplier().add(petPay);
 
             double amount = Jobs.getPermissionManager().getMaxPermission(player, "jobs.nearspawner", force);
             if (amount != 0D)
-                boost.add(BoostOf.NearSpawner, new BoostMultiplier().add(amount));
+                nearSpawner = new BoostMultiplier().add(amount);
         }
 
+        Boost boost = getJobBonus(player, job, pl, force, !force && !getall);
+
+        if (mcMMO == null && petPayBoost == null && nearSpawner == null)
+            return boost;
+
+        // The job bonus can be shared, so extras are added to a copy
+        boost = new Boost(boost);
+
+        if (mcMMO != null)
+            boost.add(BoostOf.McMMO, mcMMO);
+
+        if (petPayBoost != null)
+            boost.add(BoostOf.PetPay, petPayBoost);
+
+        if (nearSpawner != null)
+            boost.add(BoostOf.NearSpawner, nearSpawner);
+
+        return boost;
+    }
+
+    /**
+     * Marks the action types which can pay as outdated for every player the
+     * given job pays. Should be called when actions or quests of the job change.
+     *
+     * @param job {@link Job}
+     */
+    public void invalidateActions(Job job) {
+        boolean noneJob = job == Jobs.getNoneJob();
+
+        for (JobsPlayer jPlayer : playersUUID.values()) {
+            if (jPlayer.isInJob(job) || noneJob && jPlayer.getJobProgression().isEmpty())
+                jPlayer.invalidateActions();
+        }
+    }
+
+    /**
+     * Marks cached boosts of every player as outdated. Should be called when
+     * global, dynamic or scheduled boosts or restricted areas change.
+     */
+    public void invalidateBoosts() {
+        boostVersion.incrementAndGet();
+    }
+
+    /**
+     * @return version of global boosts, changed by {@link #invalidateBoosts()}
+     */
+    public int getBoostVersion() {
+        return boostVersion.get();
+    }
+
+    /**
+     * Returns boosts of the job which do not depend on the performed action.
+     * These are reused from the {@link BoostSnapshot} of the job progression
+     * while it is valid.
+     */
+    private Boost getJobBonus(JobsPlayer player, Job job, Player pl, boolean force, boolean useSnapshot) {
+        JobProgression prog = player.getJobProgression(job);
+
+        if (useSnapshot && prog != null) {
+            BoostSnapshot snapshot = prog.getBoostSnapshot();
+            if (snapshot != null && snapshot.isValid(boostVersion.get(), player.getBoostVersion()))
+                return snapshot.getBoost();
+        }
+
+        // Versions are read before calculating so a change made meanwhile is not missed
+        int globalVersion = boostVersion.get();
+        int playerVersion = player.getBoostVersion();
+
+        Boost boost = new Boost();
+
         boost.add(BoostOf.Permission, getBoost(player, job, force));
         boost.add(BoostOf.Global, job.getBoost());
 
@@ -1202,8 +1292,16 @@ public class PlayerManager {
             boost.add(BoostOf.Item, getItemBoostNBT(pl, job));
         }
 
-        if (!Jobs.getRestrictedAreaManager().getRestrictedAreas().isEmpty())
-            boost.add(BoostOf.Area, Jobs.getRestrictedAreaManager().getRestrictedMultipliers(player.getJobProgression(job), pl));
+        boolean areaDependent = false;
+        if (!Jobs.getRestrictedAreaManager().getRestrictedAreas().isEmpty()) {
+            boost.add(BoostOf.Area, Jobs.getRestrictedAreaManager().getRestrictedMultipliers(prog, pl));
+
+            // Areas can cover part of a chunk, so only chunks without them are cached
+            areaDependent = pl != null && Jobs.getRestrictedAreaManager().hasAreasInChunk(pl.getLocation());
+        }
+
+        if (useSnapshot && prog != null && !areaDependent)
+            prog.setBoostSnapshot(new BoostSnapshot(boost, globalVersion, playerVersion));
 
         return boost;
     }
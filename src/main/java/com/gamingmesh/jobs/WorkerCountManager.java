@@ -0,0 +1,152 @@
+package com.gamingmesh.jobs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.gamingmesh.jobs.container.Job;
+import com.gamingmesh.jobs.dao.JobsDAO;
+
+import net.Zrips.CMILib.Container.CMINumber;
+import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
+import net.Zrips.CMILib.Version.Schedulers.CMITask;
+
+/**
+ * Keeps the amount of players working in each job and in total in memory, so
+ * dynamic payment bonuses are calculated without querying the database.
+ * <p>
+ * Counts are changed when players join, leave or transfer jobs, and are
+ * reconciled with the database on a background thread every
+ * {@link #RECONCILE_PERIOD} ticks. Jobs joined or left while the counts are
+ * loading are added to the loaded counts.
+ */
+public final class WorkerCountManager {
+
+    private static final long RECONCILE_PERIOD = 5 * 60 * 20L;
+
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    private int total = 0;
+    // Changes by job name made while counts are loading, null when not loading
+    private Map<String, Integer> changes;
+
+    private CMITask task;
+
+    public void start() {
+        stop();
+
+        reconcile();
+        task = CMIScheduler.scheduleSyncRepeatingTask(Jobs.getInstance(), this::reconcile, RECONCILE_PERIOD, RECONCILE_PERIOD);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * @return the amount of players working in any job, a player is counted
+     *         once for every job
+     */
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    /**
+     * Changes the amount of players working in the given job.
+     *
+     * @param job {@link Job}
+     * @param change the amount to change
+     * @return the new amount of players in the job
+     */
+    public int modify(Job job, int change) {
+        int now;
+        synchronized (this) {
+            int old = job.getTotalPlayers();
+            now = CMINumber.clamp(old + change, 0, Integer.MAX_VALUE);
+            job.setTotalPlayers(now);
+            total += now - old;
+
+            if (changes != null && now != old)
+                changes.merge(job.getName(), now - old, Integer::sum);
+        }
+
+        if (change != 0)
+            updateBonuses();
+
+        return now;
+    }
+
+    /**
+     * Loads the amount of players of every job from the database on a
+     * background thread. Does nothing if the previous load is still running.
+     */
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true))
+            return;
+
+        synchronized (this) {
+            changes = new HashMap<>();
+        }
+
+        CMIScheduler.runTaskAsynchronously(Jobs.getInstance(), () -> {
+            try {
+                JobsDAO dao = Jobs.getJobsDAO();
+                if (dao == null)
+                    return;
+
+                // By name, as jobs can be reloaded meanwhile
+                Map<String, Integer> counts = new HashMap<>();
+                for (Job job : Jobs.getJobs()) {
+                    int count = dao.getTotalPlayerAmountByJobName(job.getName());
+                    if (count <= 0)
+                        count = dao.getTotalPlayerAmountByJobName(job.getJobFullName());
+
+                    counts.put(job.getName(), count);
+                }
+
+                if (apply(counts))
+                    updateBonuses();
+            } finally {
+                synchronized (this) {
+                    changes = null;
+                }
+                reconciling.set(false);
+            }
+        });
+    }
+
+    private synchronized boolean apply(Map<String, Integer> counts) {
+        boolean changed = false;
+        int sum = 0;
+
+        for (Job job : Jobs.getJobs()) {
+            Integer loaded = counts.get(job.getName());
+            if (loaded != null) {
+                // Jobs joined or left meanwhile
+                int count = CMINumber.clamp(loaded + changes.getOrDefault(job.getName(), 0), 0, Integer.MAX_VALUE);
+
+                if (count != job.getTotalPlayers()) {
+                    job.setTotalPlayers(count);
+                    changed = true;
+                }
+            }
+
+            sum += job.getTotalPlayers();
+        }
+
+        total = sum;
+        return changed;
+    }
+
+    private static void updateBonuses() {
+        if (!Jobs.getGCManager().useDynamicPayment)
+            return;
+
+        for (Job job : Jobs.getJobs()) {
+            job.updateBonus();
+        }
+    }
+}
@@ -18,12 +18,16 @@
 
 package com.gamingmesh.jobs.actions;
 
+import com.gamingmesh.jobs.container.ActionKey;
 import com.gamingmesh.jobs.container.ActionType;
 import com.gamingmesh.jobs.container.BaseActionInfo;
 
+import net.Zrips.CMILib.Enchants.CMIEnchantment;
+
 public class EnchantActionInfo extends BaseActionInfo {
     private String name;
     private int level;
+    private ActionKey enchantKey, enchantLevelKey;
 
     public EnchantActionInfo(String name, int level, ActionType type) {
 	super(type);
@@ -44,4 +48,24 @@ public class EnchantActionInfo extends BaseActionInfo {
     public int getLevel() {
 	return level;
     }
+
+    /**
+     * @return key of the enchantment name resolved to its CMI key name, e.g. silk_touch
+     */
+    public ActionKey getEnchantKey() {
+	if (enchantKey == null) {
+	    CMIEnchantment e = CMIEnchantment.getCMIByName(name);
+	    enchantKey = ActionKey.of(e != null ? e.getKeyName() : name);
+	}
+	return enchantKey;
+    }
+
+    /**
+     * @return key of the enchantment name with its level, e.g. fire_aspect:1
+     */
+    public ActionKey getEnchantLevelKey() {
+	if (enchantLevelKey == null)
+	    enchantLevelKey = ActionKey.of(getEnchantKey().getName() + ":" + level);
+	return enchantLevelKey;
+    }
 }
@@ -20,10 +20,16 @@ package com.gamingmesh.jobs.actions;
 
 import org.bukkit.Material;
 
+import com.gamingmesh.jobs.container.ActionKey;
 import com.gamingmesh.jobs.container.ActionType;
 import com.gamingmesh.jobs.container.BaseActionInfo;
 
 public abstract class MaterialActionInfo extends BaseActionInfo {
+
+    // Keys are shared by every action of the same material and data, indexed by material ordinal
+    private static final ActionKey[] NAME_KEYS = new ActionKey[Material.values().length];
+    private static final ActionKey[][] SUB_KEYS = new ActionKey[Material.values().length][];
+
     private Material material;
     private byte data;
 
@@ -40,7 +46,33 @@ public abstract class MaterialActionInfo extends BaseActionInfo {
 
     @Override
     public String getNameWithSub() {
-        return getName() + ":" + data;
+        return getMaterialSubKey().getName();
+    }
+
+    @Override
+    public ActionKey getNameKey() {
+        int ordinal = material.ordinal();
+        ActionKey key = NAME_KEYS[ordinal];
+        if (key == null)
+            NAME_KEYS[ordinal] = key = ActionKey.of(material.name());
+        return key;
+    }
+
+    @Override
+    public ActionKey getNameWithSubKey() {
+        return getMaterialSubKey();
+    }
+
+    private ActionKey getMaterialSubKey() {
+        int ordinal = material.ordinal();
+        ActionKey[] keys = SUB_KEYS[ordinal];
+        if (keys == null)
+            SUB_KEYS[ordinal] = keys = new ActionKey[256];
+
+        ActionKey key = keys[data & 0xFF];
+        if (key == null)
+            keys[data & 0xFF] = key = ActionKey.of(material.name() + ":" + data);
+        return key;
     }
 
 }
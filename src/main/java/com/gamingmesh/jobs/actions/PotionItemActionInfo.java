@@ -21,10 +21,12 @@ package com.gamingmesh.jobs.actions;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionType;
 
+import com.gamingmesh.jobs.container.ActionKey;
 import com.gamingmesh.jobs.container.ActionType;
 
 public class PotionItemActionInfo extends ItemActionInfo {
     private final PotionType potionType;
+    private ActionKey nameWithSubKey;
 
     public PotionItemActionInfo(ItemStack items, ActionType type, PotionType potionType) {
         super(items, type);
@@ -33,6 +35,14 @@ public class PotionItemActionInfo extends ItemActionInfo {
 
     @Override
     public String getNameWithSub() {
-        return getName() + ":" + potionType.toString();
+        return getNameWithSubKey().getName();
+    }
+
+    @Override
+    public ActionKey getNameWithSubKey() {
+        ActionKey key = nameWithSubKey;
+        if (key == null)
+            nameWithSubKey = key = ActionKey.of(getName() + ":" + potionType.toString());
+        return key;
     }
 }
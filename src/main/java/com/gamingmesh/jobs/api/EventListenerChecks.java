@@ -0,0 +1,43 @@
+package com.gamingmesh.jobs.api;
+
+import org.bukkit.event.HandlerList;
+
+/**
+ * Checks whether the events fired for every payment have any registered
+ * listener, so the payment process can skip creating and calling them when
+ * nobody would receive them.
+ * <p>
+ * The handler lists are read on every check. Bukkit keeps the baked listener
+ * array until a listener is registered or unregistered, so this is a field
+ * read and picks up listeners registered at any time.
+ */
+public final class EventListenerChecks {
+
+    private EventListenerChecks() {
+    }
+
+    private static boolean hasListeners(HandlerList handlerList) {
+        return handlerList.getRegisteredListeners().length != 0;
+    }
+
+    /**
+     * @return true if {@link JobsPrePaymentEvent} has any listener
+     */
+    public static boolean isPrePaymentListened() {
+        return hasListeners(JobsPrePaymentEvent.getHandlerList());
+    }
+
+    /**
+     * @return true if {@link JobsExpGainEvent} has any listener
+     */
+    public static boolean isExpGainListened() {
+        return hasListeners(JobsExpGainEvent.getHandlerList());
+    }
+
+    /**
+     * @return true if {@link JobsInstancePaymentEvent} has any listener
+     */
+    public static boolean isInstancePaymentListened() {
+        return hasListeners(JobsInstancePaymentEvent.getHandlerList());
+    }
+}
@@ -3,6 +3,7 @@ package com.gamingmesh.jobs.api;
 import org.bukkit.Chunk;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
 
 /**
  * Fired when there is a new chunk explored by player moving.
@@ -10,6 +11,8 @@ import org.bukkit.event.Cancellable;
  * <b>This is same behaviour when using {@link org.bukkit.event.player.PlayerMoveEvent}
  */
 public final class JobsChunkChangeEvent extends BaseEvent implements Cancellable {
+    // Own handler list, so listeners of this event can be checked separately
+    private static final HandlerList handlers = new HandlerList();
 
     private Player player;
     private Chunk oldChunk;
@@ -58,4 +61,13 @@ public final class JobsChunkChangeEvent extends BaseEvent implements Cancellable
     public void setCancelled(boolean cancelled) {
 	this.cancelled = cancelled;
     }
+
+    @Override
+    public HandlerList getHandlers() {
+	return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+	return handlers;
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
 
 import com.gamingmesh.jobs.container.ActionInfo;
 import com.gamingmesh.jobs.container.Job;
@@ -13,6 +14,8 @@ import com.gamingmesh.jobs.container.Job;
  * Called when a player gains experience from specific jobs.
  */
 public final class JobsExpGainEvent extends BaseEvent implements Cancellable {
+    // Own handler list, so listeners of this event can be checked separately
+    private static final HandlerList handlers = new HandlerList();
 
     private OfflinePlayer offlinePlayer;
     private double exp;
@@ -118,4 +121,13 @@ public final class JobsExpGainEvent extends BaseEvent implements Cancellable {
     public void setCancelled(boolean cancelled) {
         this.cancelled = cancelled;
     }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
 }
\ No newline at end of file
@@ -9,17 +9,28 @@ import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 
 import com.gamingmesh.jobs.container.CurrencyType;
+import com.gamingmesh.jobs.container.PaymentVector;
 
 public final class JobsInstancePaymentEvent extends BaseEvent {
 
+    // Own handler list, so listeners of this event can be checked separately
+    private static final HandlerList handlers = new HandlerList();
+
     private OfflinePlayer offlinePlayer;
 
-    private Map<CurrencyType, Double> payments = new HashMap<>();
+    private PaymentVector vector;
+    private Map<CurrencyType, Double> payments;
 
     public JobsInstancePaymentEvent(OfflinePlayer offlinePlayer, Map<CurrencyType, Double> payments) {
         super(true);
         this.offlinePlayer = offlinePlayer;
-        this.payments = payments;
+        this.payments = payments == null ? new HashMap<>() : payments;
+    }
+
+    public JobsInstancePaymentEvent(OfflinePlayer offlinePlayer, PaymentVector payments) {
+        super(true);
+        this.offlinePlayer = offlinePlayer;
+        this.vector = payments;
     }
 
     /**
@@ -39,7 +50,7 @@ public final class JobsInstancePaymentEvent extends BaseEvent {
      * @return the amount of payment from specific {@link CurrencyType}
      */
     public double get(CurrencyType type) {
-        return payments.getOrDefault(type, 0D);
+        return payments == null ? vector.get(type) : payments.getOrDefault(type, 0D);
     }
 
     /**
@@ -48,6 +59,17 @@ public final class JobsInstancePaymentEvent extends BaseEvent {
      * @return {@link Map}
      */
     public Map<CurrencyType, Double> getPayment() {
+        if (payments == null)
+            payments = vector.toMap();
         return payments;
     }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
 }
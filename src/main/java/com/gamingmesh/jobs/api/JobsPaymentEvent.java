@@ -9,6 +9,7 @@ import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 
 import com.gamingmesh.jobs.container.CurrencyType;
+import com.gamingmesh.jobs.container.PaymentVector;
 
 public final class JobsPaymentEvent extends Event implements Cancellable {
 
@@ -16,12 +17,14 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
     private OfflinePlayer offlinePlayer;
     private boolean cancelled = false;
 
-    private Map<CurrencyType, Double> payments = new HashMap<>();
+    private PaymentVector vector;
+    private Map<CurrencyType, Double> payments;
 
     @Deprecated
     public JobsPaymentEvent(OfflinePlayer offlinePlayer, double money, double points) {
 	super(true);
 	this.offlinePlayer = offlinePlayer;
+	payments = new HashMap<>();
 	payments.put(CurrencyType.MONEY, money);
 	payments.put(CurrencyType.POINTS, points);
     }
@@ -29,7 +32,13 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
     public JobsPaymentEvent(OfflinePlayer offlinePlayer, Map<CurrencyType, Double> payments) {
 	super(true);
 	this.offlinePlayer = offlinePlayer;
-	this.payments = payments;
+	this.payments = payments == null ? new HashMap<>() : payments;
+    }
+
+    public JobsPaymentEvent(OfflinePlayer offlinePlayer, PaymentVector payments) {
+	super(true);
+	this.offlinePlayer = offlinePlayer;
+	this.vector = payments;
     }
 
     /**
@@ -46,7 +55,7 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      */
     @Deprecated
     public Double getAmount() {
-	Double amount = this.payments.get(CurrencyType.MONEY);
+	Double amount = getPayment().get(CurrencyType.MONEY);
 	return amount == null ? 0 : amount;
     }
 
@@ -55,7 +64,7 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      */
     @Deprecated
     public double getPoints() {
-	Double amount = this.payments.get(CurrencyType.POINTS);
+	Double amount = getPayment().get(CurrencyType.POINTS);
 	return amount == null ? 0 : amount;
     }
 
@@ -64,7 +73,7 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      */
     @Deprecated
     public void setAmount(double amount) {
-	payments.put(CurrencyType.MONEY, amount);
+	getPayment().put(CurrencyType.MONEY, amount);
     }
 
     /**
@@ -72,7 +81,7 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      */
     @Deprecated
     public void setPoints(double points) {
-	this.payments.put(CurrencyType.POINTS, points);
+	getPayment().put(CurrencyType.POINTS, points);
     }
 
     /**
@@ -83,7 +92,7 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      * @return the amount of payment from specific {@link CurrencyType}
      */
     public double get(CurrencyType type) {
-	return payments.getOrDefault(type, 0D);
+	return payments == null ? vector.get(type) : payments.getOrDefault(type, 0D);
     }
 
     /**
@@ -95,7 +104,7 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      * more precisely {@link Map#put(Object, Object)}
      */
     public Double set(CurrencyType type, double amount) {
-	return payments.put(type, amount);
+	return getPayment().put(type, amount);
     }
 
     /**
@@ -104,9 +113,20 @@ public final class JobsPaymentEvent extends Event implements Cancellable {
      * @return {@link Map}
      */
     public Map<CurrencyType, Double> getPayment() {
+	if (payments == null)
+	    payments = vector.toMap();
 	return payments;
     }
 
+    /**
+     * Returns the payment amounts, including changes made by listeners.
+     * 
+     * @return {@link PaymentVector}
+     */
+    public PaymentVector getPaymentVector() {
+	return payments == null ? vector : PaymentVector.of(payments);
+    }
+
     @Override
     public boolean isCancelled() {
 	return cancelled;
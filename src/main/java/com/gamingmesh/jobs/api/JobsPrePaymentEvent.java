@@ -3,8 +3,8 @@ package com.gamingmesh.jobs.api;
 import com.gamingmesh.jobs.container.ActionInfo;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.Job;
+import com.gamingmesh.jobs.container.PaymentVector;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.bukkit.OfflinePlayer;
@@ -12,13 +12,17 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
 
 /**
  * Event fired, before the payment calculation process should beginning.
  */
 public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable {
+    // Own handler list, so listeners of this event can be checked separately
+    private static final HandlerList handlers = new HandlerList();
+
     private OfflinePlayer offlinePlayer;
-    Map<CurrencyType, Double> amounts = new HashMap<>();
+    private double money, exp, points;
     private Job job;
     private Block block;
     private Entity entity;
@@ -28,7 +32,7 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
 
     @Deprecated
     public JobsPrePaymentEvent(OfflinePlayer offlinePlayer, Job job, double money, double points) {        
-        this(offlinePlayer, job, CurrencyType.generate(money, null, points), null, null, null, null);
+        this(offlinePlayer, job, PaymentVector.of(money, 0D, points), null, null, null, null);
     }
 
     @Deprecated
@@ -38,13 +42,19 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
 
     @Deprecated
     public JobsPrePaymentEvent(OfflinePlayer offlinePlayer, Job job, double money, double exp, double points, Block block, Entity entity, LivingEntity living, ActionInfo info) {
-        this(offlinePlayer, job, CurrencyType.generate(money, exp, points), block, entity, living, info);
+        this(offlinePlayer, job, PaymentVector.of(money, exp, points), block, entity, living, info);
     }
 
     public JobsPrePaymentEvent(OfflinePlayer offlinePlayer, Job job, Map<CurrencyType, Double> payments, Block block, Entity entity, LivingEntity living, ActionInfo info) {
+        this(offlinePlayer, job, PaymentVector.of(payments), block, entity, living, info);
+    }
+
+    public JobsPrePaymentEvent(OfflinePlayer offlinePlayer, Job job, PaymentVector payments, Block block, Entity entity, LivingEntity living, ActionInfo info) {
         this.job = job;
         this.offlinePlayer = offlinePlayer;
-        amounts.putAll(payments);
+        this.money = payments.getMoney();
+        this.exp = payments.getExp();
+        this.points = payments.getPoints();
         this.block = block;
         this.entity = entity;
         this.living = living;
@@ -66,7 +76,7 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
      * @return expected income before calculations
      */
     public double getAmount() {
-        return amounts.getOrDefault(CurrencyType.MONEY, 0D);
+        return money;
     }
 
     /**
@@ -75,7 +85,7 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
      * @return expected points before calculations
      */
     public double getPoints() {
-        return amounts.getOrDefault(CurrencyType.POINTS, 0D);
+        return points;
     }
 
     /**
@@ -93,7 +103,7 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
      * @param money new amount
      */
     public void setAmount(double money) {
-        amounts.put(CurrencyType.MONEY, money);
+        this.money = money;
     }
 
     /**
@@ -102,7 +112,7 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
      * @param points
      */
     public void setPoints(double points) {
-        amounts.put(CurrencyType.POINTS, points);
+        this.points = points;
     }
 
     /**
@@ -159,7 +169,7 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
      * @return expected exp before calculations
      */
     public double getExp() {
-        return amounts.getOrDefault(CurrencyType.EXP, 0D);
+        return exp;
     }
 
     /**
@@ -168,6 +178,15 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
      * @param exp
      */
     public void setExp(double exp) {
-        amounts.put(CurrencyType.EXP, exp);
+        this.exp = exp;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
     }
 }
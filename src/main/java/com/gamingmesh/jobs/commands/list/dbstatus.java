@@ -0,0 +1,50 @@
+package com.gamingmesh.jobs.commands.list;
+
+import org.bukkit.command.CommandSender;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.commands.Cmd;
+import com.gamingmesh.jobs.dao.JobsConnectionPool;
+import com.gamingmesh.jobs.dao.JobsDAO;
+import com.gamingmesh.jobs.dao.JobsSaveQueue;
+import com.gamingmesh.jobs.i18n.Language;
+import com.gamingmesh.jobs.tasks.InstancePaymentEventThread;
+
+import net.Zrips.CMILib.Locale.LC;
+
+public class dbstatus implements Cmd {
+
+    @Override
+    public Boolean perform(Jobs plugin, final CommandSender sender, final String[] args) {
+        JobsDAO dao = Jobs.getJobsDAO();
+        JobsConnectionPool pool = dao == null ? null : dao.getConnectionPool();
+        if (pool == null) {
+            LC.info_NoInformation.sendMessage(sender);
+            return true;
+        }
+
+        LC.info_Spliter.sendMessage(sender);
+        Language.sendMessage(sender, "command.version.output.dbType", "[db]", Jobs.getDBManager().getDbType().toString());
+        Language.sendMessage(sender, "command.dbstatus.output.connections", "[active]", pool.getActiveConnections(), "[idle]", pool.getIdleConnections(),
+            "[total]", pool.getTotalConnections(), "[max]", pool.getMaxSize());
+        Language.sendMessage(sender, "command.dbstatus.output.borrowed", "[borrowed]", pool.getBorrowCount(), "[wait]", String.format("%.2f", pool.getAverageWaitTime()),
+            "[waiting]", pool.getWaitingThreads());
+        Language.sendMessage(sender, "command.dbstatus.output.problems", "[created]", pool.getCreatedCount(), "[timeouts]", pool.getTimeoutCount(), "[leaks]", pool.getLeakCount());
+        Language.sendMessage(sender, "command.dbstatus.output.statements", "[hits]", pool.getStatementCacheHits(), "[misses]", pool.getStatementCacheMisses());
+        Language.sendMessage(sender, "command.dbstatus.output.mainThread", "[amount]", dao.getMainThreadAccessCount());
+
+        JobsSaveQueue queue = dao.getSaveQueue();
+        Language.sendMessage(sender, "command.dbstatus.output.saves", "[pending]", queue.getPendingCount(), "[players]", queue.getSavedPlayerCount(),
+            "[flushes]", queue.getFlushCount(), "[failed]", queue.getFailedFlushCount());
+        Language.sendMessage(sender, "command.dbstatus.output.saveTime", "[last]", queue.getLastFlushTime(), "[average]", String.format("%.2f", queue.getAverageFlushTime()),
+            "[max]", queue.getMaxFlushTime(), "[waits]", queue.getWaitCount());
+        Language.sendMessage(sender, "command.dbstatus.output.fastPayment", "[hits]", Jobs.getFastPaymentCache().getHits(), "[misses]", Jobs.getFastPaymentCache().getMisses());
+
+        InstancePaymentEventThread events = Jobs.getInstancePaymentEventThread();
+        if (events != null)
+            Language.sendMessage(sender, "command.dbstatus.output.paymentEvents", "[queued]", events.getQueueDepth(), "[fired]", events.getDispatchedCount(),
+                "[dropped]", events.getDroppedCount());
+        LC.info_Spliter.sendMessage(sender);
+        return true;
+    }
+}
@@ -258,6 +258,10 @@ public class editjobs implements Cmd {
                     break;
                 }
 
+                // Cached payments hold the old amounts
+                Jobs.getPlayerManager().invalidateActions(job);
+                Jobs.updateOptionalListeners();
+
                 Jobs.getConfigManager().changeJobsSettings(args[1], jInfo.getConfigPath() + "/" + sType, value);
                 player.performCommand("jobs editjobs list " + job.getName() + " " + actionT.getName() + " " + jInfo.getName());
                 Util.getJobsEditorMap().remove(player.getUniqueId());
@@ -294,6 +298,9 @@ public class editjobs implements Cmd {
                 }
 
                 action.remove(jInfo);
+                job.updateJobInfoIndex(actionT);
+                Jobs.getPlayerManager().invalidateActions(job);
+                Jobs.updateOptionalListeners();
                 Jobs.getConfigManager().changeJobsSettings(args[1], jInfo.getConfigPath(), null);
                 player.performCommand("jobs editjobs list " + job.getName() + " " + actionT.getName() + " 1");
                 Util.getJobsEditorMap().remove(player.getUniqueId());
@@ -377,8 +384,8 @@ public class editjobs implements Cmd {
                 int fromlevel = 1;
                 int untilLevel = -1;
 
-                JobInfo jInfo = new JobInfo(actionT, id, meta, type + subType, income, job.getMoneyEquation(), experience, job.getXpEquation(), job.getPointsEquation(), points, fromlevel,
-                    untilLevel, job.getName() + "/" + actionT.getName() + "/" + (type + subType).replace(":", "-"));
+                JobInfo jInfo = new JobInfo(actionT, id, meta, type + subType, income, job.getCompiledMoneyEquation(), experience, job.getCompiledXpEquation(),
+                    job.getCompiledPointsEquation(), points, fromlevel, untilLevel, job.getName() + "/" + actionT.getName() + "/" + (type + subType).replace(":", "-"), null, null, null);
 
                 for (JobInfo info : job.getJobInfo(actionT)) {
                     if (info.getName().equalsIgnoreCase(jInfo.getName())) {
@@ -388,6 +395,9 @@ public class editjobs implements Cmd {
                 }
 
                 action.add(jInfo);
+                job.updateJobInfoIndex(actionT);
+                Jobs.getPlayerManager().invalidateActions(job);
+                Jobs.updateOptionalListeners();
                 player.performCommand("jobs editjobs list " + job.getName() + " " + actionT.getName() + " " + jInfo.getName());
 
                 Jobs.getConfigManager().changeJobsSettings(args[1], jInfo.getConfigPath() + "/income", 0);
@@ -118,6 +118,8 @@ public class editquests implements Cmd {
                     if (quest.getJob() != null) {
                         removeQuestInFile(quest.getConfigName(), quest.getJob().getName());
                         quest.getJob().getQuests().remove(quest);
+                        Jobs.getPlayerManager().invalidateActions(quest.getJob());
+                        Jobs.updateOptionalListeners();
                     }
                     listQuests(sender, page);
                 }
@@ -266,6 +268,10 @@ public class editquests implements Cmd {
 
         cfg.save();
 
+        // Objectives decide which actions can progress quests
+        Jobs.getPlayerManager().invalidateActions(quest.getJob());
+        Jobs.updateOptionalListeners();
+
         return true;
     }
 
@@ -430,6 +436,8 @@ public class editquests implements Cmd {
                             if (quest.getJob() != null) {
                                 removeQuestInFile(quest.getConfigName(), quest.getJob().getName());
                                 quest.getJob().getQuests().remove(quest);
+                                Jobs.getPlayerManager().invalidateActions(quest.getJob());
+                                Jobs.updateOptionalListeners();
                             }
                             j.getQuests().add(quest);
                             quest.setConfigName(null);
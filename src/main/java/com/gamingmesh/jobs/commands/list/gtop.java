@@ -10,9 +10,9 @@ import org.bukkit.scoreboard.DisplaySlot;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.commands.Cmd;
-import com.gamingmesh.jobs.container.JobsPlayer;
 import com.gamingmesh.jobs.container.JobsTop;
 import com.gamingmesh.jobs.container.JobsTop.topStats;
+import com.gamingmesh.jobs.container.PlayerInfo;
 import com.gamingmesh.jobs.i18n.Language;
 
 import net.Zrips.CMILib.Container.CMIList;
@@ -62,45 +62,41 @@ public class gtop implements Cmd {
 
         int amount = Jobs.getGCManager().JobsTopAmount;
 
-        List<UUID> fullList = JobsTop.getGlobalTopList(0);
+        int total = JobsTop.getGlobalTopSize();
 
-        PageInfo pi = new PageInfo(amount, fullList.size(), page);
+        PageInfo pi = new PageInfo(amount, total, page);
 
-        if (fullList.isEmpty()) {
+        if (total == 0) {
             CMIMessages.sendMessage(sender, LC.info_NoInformation);
             return;
         }
 
-        List<String> ls = new ArrayList<>();
-
-        for (int i = 0; i < amount; i++) {
-
-            if (fullList.size() <= i + pi.getStart())
-                break;
-
-            UUID one = fullList.get(i + pi.getStart());
+        // Only the requested page is taken from the ranking
+        List<UUID> pageList = JobsTop.getGlobalTopRange(pi.getStart(), amount);
 
-            JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(one);
+        List<String> ls = new ArrayList<>();
 
-            if (jPlayer == null)
-                continue;
+        for (int i = 0; i < pageList.size(); i++) {
+            UUID one = pageList.get(i);
 
+            PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(one);
             topStats stats = JobsTop.getGlobalStats(one);
-            if (stats == null)
+
+            if (info == null || stats == null)
                 continue;
 
             if (Jobs.getGCManager().ShowToplistInScoreboard && sender instanceof Player)
                 ls.add(Jobs.getLanguage().getMessage("scoreboard.line",
                     "%number%", pi.getPositionForOutput(i),
-                    "%playername%", jPlayer.getName(),
-                    "%playerdisplayname%", jPlayer.getDisplayName(),
+                    "%playername%", info.getName(),
+                    "%playerdisplayname%", info.getDisplayName(),
                     "%level%", stats.getLevel(),
                     "%exp%", stats.getExperience()));
             else
                 ls.add(Jobs.getLanguage().getMessage("command.gtop.output.list",
                     "%number%", pi.getPositionForOutput(i),
-                    "%playername%", jPlayer.getName(),
-                    "%playerdisplayname%", jPlayer.getDisplayName(),
+                    "%playername%", info.getName(),
+                    "%playerdisplayname%", info.getDisplayName(),
                     "%level%", stats.getLevel(),
                     "%exp%", stats.getExperience()));
         }
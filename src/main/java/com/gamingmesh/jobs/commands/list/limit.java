@@ -60,13 +60,17 @@ public class limit implements Cmd {
                 limit.resetLimits(type);
             }
 
-            if (limit.getLeftTime(type) > 0) {
+            // Sliding window limits are shown even when nothing was collected
+            if (limit.getLeftTime(type) > 0 || limit.isSlidingWindow(type)) {
                 String typeName = type.getName().toLowerCase();
+                DecimalFormat format = new DecimalFormat("##.##");
 
                 Language.sendMessage(sender, "command.limit.output." + typeName + "time", "%time%", CMITimeManager.to24hourShort(limit.getLeftTime(type)));
                 Language.sendMessage(sender, "command.limit.output." + typeName + "Limit",
-                    "%current%", new DecimalFormat("##.##").format(limit.getAmount(type)),
+                    "%current%", format.format(limit.getAmount(type)),
                     "%total%", JPlayer.getLimit(type));
+                Language.sendMessage(sender, "command.limit.output." + typeName + "Left",
+                    "%left%", format.format(limit.getRemaining(type, JPlayer.getLimit(type))));
             }
         }
         return true;
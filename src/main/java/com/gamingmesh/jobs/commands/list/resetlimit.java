@@ -17,7 +17,7 @@ public class resetlimit implements Cmd {
 
         if (args[0].equalsIgnoreCase("all")) {
             for (JobsPlayer jPlayer : Jobs.getPlayerManager().getPlayersCache().values()) {
-                jPlayer.nullPaymentLimits();
+                jPlayer.resetPaymentLimit();
             }
             Jobs.getDBManager().getDB().clearLimitsTable();
             Language.sendMessage(sender, "command.resetlimit.output.reseted", "%playername%", "", "%playerdisplayname%", "");
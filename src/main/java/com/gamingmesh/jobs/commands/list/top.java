@@ -13,6 +13,8 @@ import com.gamingmesh.jobs.commands.Cmd;
 import com.gamingmesh.jobs.container.Job;
 import com.gamingmesh.jobs.container.JobProgression;
 import com.gamingmesh.jobs.container.JobsPlayer;
+import com.gamingmesh.jobs.container.JobsTop.topStats;
+import com.gamingmesh.jobs.container.PlayerInfo;
 import com.gamingmesh.jobs.i18n.Language;
 
 import net.Zrips.CMILib.Container.CMIList;
@@ -78,45 +80,54 @@ public class top implements Cmd {
 
 //        List<TopList> fullList = Jobs.getJobsDAO().toplist(job.getName());
 
-        List<UUID> uuids = job.getTopList(0);
+        int total = job.getTopSize();
 
-        if (uuids.isEmpty()) {
+        if (total == 0) {
             CMIMessages.sendMessage(sender, LC.info_NoInformation);
             return;
         }
         int amount = Jobs.getGCManager().JobsTopAmount;
-        PageInfo pi = new PageInfo(amount, uuids.size(), page);
+        PageInfo pi = new PageInfo(amount, total, page);
+
+        // Only the requested page is taken from the ranking
+        List<UUID> uuids = job.getTopRange(pi.getStart(), amount);
 
         List<String> ls = new ArrayList<>();
 
-        for (int i = 0; i < amount; i++) {
+        for (int i = 0; i < uuids.size(); i++) {
+            UUID one = uuids.get(i);
 
-            if (uuids.size() <= i + pi.getStart())
-                break;
+            // Players who are not loaded are shown from their ranking entry
+            PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(one);
+            topStats stats = job.getTopStats(one);
 
-            UUID one = uuids.get(i + pi.getStart());
+            if (info == null || stats == null)
+                continue;
 
-            JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(one);
+            int level = stats.getLevel();
+            double experience = stats.getExperience();
 
-            if (jPlayer == null)
-                continue;
+            JobsPlayer jPlayer = info.getJobsPlayer();
+            JobProgression progression = jPlayer == null ? null : jPlayer.getJobProgression(job);
+            if (progression != null) {
+                level = progression.getLevel();
+                experience = progression.getExperience();
+            }
 
-            JobProgression progression = jPlayer.getJobProgression(job);
-            if(progression == null) continue; // Skip if the UUID has no progression in this job
             if (Jobs.getGCManager().ShowToplistInScoreboard && sender instanceof Player)
                 ls.add(Jobs.getLanguage().getMessage("scoreboard.line",
                     "%number%", pi.getPositionForOutput(i),
-                    "%playername%", jPlayer.getName(),
-                    "%playerdisplayname%", jPlayer.getDisplayName(),
-                    "%level%", progression.getLevel(),
-                    "%exp%", progression.getExperience()));
+                    "%playername%", info.getName(),
+                    "%playerdisplayname%", info.getDisplayName(),
+                    "%level%", level,
+                    "%exp%", experience));
             else
                 ls.add(Jobs.getLanguage().getMessage("command.top.output.list",
                     "%number%", pi.getPositionForOutput(i),
-                    "%playername%", jPlayer.getName(),
-                    "%playerdisplayname%", jPlayer.getDisplayName(),
-                    "%level%", progression.getLevel(),
-                    "%exp%", progression.getExperience()));
+                    "%playername%", info.getName(),
+                    "%playerdisplayname%", info.getDisplayName(),
+                    "%level%", level,
+                    "%exp%", experience));
         }
 
         if (Jobs.getGCManager().ShowToplistInScoreboard && sender instanceof Player) {
@@ -50,6 +50,7 @@ import com.gamingmesh.jobs.container.JobLimitedItems;
 import com.gamingmesh.jobs.container.JobPermission;
 import com.gamingmesh.jobs.container.Quest;
 import com.gamingmesh.jobs.container.QuestObjective;
+import com.gamingmesh.jobs.stuff.CompiledEquation;
 import com.gamingmesh.jobs.stuff.Util;
 
 import net.Zrips.CMILib.Colors.CMIChatColor;
@@ -57,7 +58,6 @@ import net.Zrips.CMILib.Container.CMIList;
 import net.Zrips.CMILib.Enchants.CMIEnchantment;
 import net.Zrips.CMILib.Entities.CMIEntityType;
 import net.Zrips.CMILib.Equations.ParseError;
-import net.Zrips.CMILib.Equations.Parser;
 import net.Zrips.CMILib.FileHandler.ConfigReader;
 import net.Zrips.CMILib.Items.CMIAsyncHead;
 import net.Zrips.CMILib.Items.CMIItemStack;
@@ -679,66 +679,43 @@ public class ConfigManager {
 
             boolean isNoneJob = jobConfigName.equalsIgnoreCase("none");
 
-            Parser maxExpEquation;
+            CompiledEquation maxExpEquation;
             String maxExpEquationInput = isNoneJob ? "0" : jobSection.getString("leveling-progression-equation", "0");
             try {
-                maxExpEquation = new Parser(maxExpEquationInput);
-                // test equation
-                maxExpEquation.setVariable("numjobs", 1);
-                maxExpEquation.setVariable("maxjobs", 2);
-                maxExpEquation.setVariable("joblevel", 1);
+                maxExpEquation = CompiledEquation.compile(maxExpEquationInput, "joblevel", "numjobs", "maxjobs").setParserVariables(1, 1, 2);
             } catch (ParseError e) {
                 log.warning("Job " + jobConfigName + " has an invalid leveling-progression-equation property. Skipping job!");
                 continue;
             }
             job.setMaxExpEquation(maxExpEquation);
 
-            Parser incomeEquation = new Parser("0");
-            String incomeEquationInput = jobSection.getString("income-progression-equation");
-            if (incomeEquationInput != null) {
-                try {
-                    incomeEquation = new Parser(incomeEquationInput);
-                    // test equation
-                    incomeEquation.setVariable("numjobs", 1);
-                    incomeEquation.setVariable("maxjobs", 2);
-                    incomeEquation.setVariable("joblevel", 1);
-                    incomeEquation.setVariable("baseincome", 1);
-                } catch (ParseError e) {
-                    log.warning("Job " + jobConfigName + " has an invalid income-progression-equation property. Skipping job!");
-                    continue;
-                }
+            CompiledEquation incomeEquation;
+            String incomeEquationInput = jobSection.getString("income-progression-equation", "0");
+            try {
+                incomeEquation = CompiledEquation.compile(incomeEquationInput, "joblevel", "numjobs", "maxjobs", "baseincome").setParserVariables(1, 1, 2, 1);
+            } catch (ParseError e) {
+                log.warning("Job " + jobConfigName + " has an invalid income-progression-equation property. Skipping job!");
+                continue;
             }
             job.setMoneyEquation(incomeEquation);
 
-            Parser expEquation;
+            CompiledEquation expEquation;
             String expEquationInput = isNoneJob ? "0" : jobSection.getString("experience-progression-equation", "0");
             try {
-                expEquation = new Parser(expEquationInput);
-                // test equation
-                expEquation.setVariable("numjobs", 1);
-                expEquation.setVariable("maxjobs", 2);
-                expEquation.setVariable("joblevel", 1);
-                expEquation.setVariable("baseexperience", 1);
+                expEquation = CompiledEquation.compile(expEquationInput, "joblevel", "numjobs", "maxjobs", "baseexperience").setParserVariables(1, 1, 2, 1);
             } catch (ParseError e) {
                 log.warning("Job " + jobConfigName + " has an invalid experience-progression-equation property. Skipping job!");
                 continue;
             }
             job.setXpEquation(expEquation);
 
-            Parser pointsEquation = new Parser("0");
-            String pointsEquationInput = jobSection.getString("points-progression-equation");
-            if (pointsEquationInput != null) {
-                try {
-                    pointsEquation = new Parser(pointsEquationInput);
-                    // test equation
-                    pointsEquation.setVariable("numjobs", 1);
-                    pointsEquation.setVariable("maxjobs", 2);
-                    pointsEquation.setVariable("joblevel", 1);
-                    pointsEquation.setVariable("basepoints", 1);
-                } catch (ParseError e) {
-                    log.warning("Job " + jobConfigName + " has an invalid points-progression-equation property. Skipping job!");
-                    continue;
-                }
+            CompiledEquation pointsEquation;
+            String pointsEquationInput = jobSection.getString("points-progression-equation", "0");
+            try {
+                pointsEquation = CompiledEquation.compile(pointsEquationInput, "joblevel", "numjobs", "maxjobs", "basepoints").setParserVariables(1, 1, 2, 1);
+            } catch (ParseError e) {
+                log.warning("Job " + jobConfigName + " has an invalid points-progression-equation property. Skipping job!");
+                continue;
             }
             job.setPointsEquation(pointsEquation);
 
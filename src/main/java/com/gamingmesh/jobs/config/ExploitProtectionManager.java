@@ -82,7 +82,12 @@ public class ExploitProtectionManager {
         if (world == null)
             return;
 
-        world.remove(chunk.getX() + ":" + chunk.getZ());
+        chunkData pdc = world.remove(chunk.getX() + ":" + chunk.getZ());
+
+        // Chunks are otherwise only cleaned when players leave them, which is not
+        // tracked when nothing needs player movement
+        if (pdc != null)
+            cleanChunk(pdc);
     }
 
     public void addProtection(Block block, Integer cd) {
@@ -353,13 +358,14 @@ public class ExploitProtectionManager {
         if (!Jobs.getGCManager().useNewBlockProtection)
             return;
 
-        try {
-
-            chunkData pdc = getChunkData(chunk);
+        cleanChunk(getChunkData(chunk));
+    }
 
-            if (pdc == null)
-                return;
+    private void cleanChunk(chunkData pdc) {
+        if (pdc == null)
+            return;
 
+        try {
             // Delay to clean it up once more to prevent rapid updates of same chunk
             if (pdc.getLastClean() + (30 * 1000L) > System.currentTimeMillis())
                 return;
@@ -42,6 +42,7 @@ import com.gamingmesh.jobs.container.CurrencyLimit;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.MessageToggleState;
 import com.gamingmesh.jobs.container.blockOwnerShip.BlockTypes;
+import com.gamingmesh.jobs.stuff.CompiledEquation;
 
 import net.Zrips.CMILib.CMILib;
 import net.Zrips.CMILib.Container.CMIList;
@@ -88,15 +89,17 @@ public class GeneralConfigManager {
 			SegmentCount, BossBarTimer, AutoJobJoinDelay, DBCleaningJobsLvl, DBCleaningUsersDays, levelLossPercentageFromMax, levelLossPercentage, ToplistInScoreboardInterval;
 
 	protected int savePeriod, maxJobs, economyBatchDelay;
-	private int ResetTimeHour, ResetTimeMinute, DailyQuestsSkips, BrowseAmountToShow, JobsGUIRows;
+	private int saveQueueDelay, saveQueueMaxPending;
+	private int ResetTimeHour, ResetTimeMinute, DailyQuestsSkips, BrowseAmountToShow, JobsGUIRows, payoutTablesMaxLevel, fastPaymentDuration;
 
 	public double skipQuestCost, MinimumOveralPaymentLimit, minimumOveralExpLimit, MinimumOveralPointsLimit, MonsterDamagePercentage, DynamicPaymentMaxPenalty, DynamicPaymentMaxBonus, TaxesAmount, TreeFellerMultiplier, gigaDrillMultiplier,
 			superBreakerMultiplier;
 
 	public float maxPaymentCurveFactor;
 
-	private boolean useTnTFinder = false, ShowNewVersion;
-	private boolean InformDuplicates, DailyQuestsUseGUI;
+	private boolean useTnTFinder = false, ShowNewVersion, payoutTablesEnabled;
+	private boolean InformDuplicates, DailyQuestsUseGUI, preloadPlayers;
+	private int topSnapshotInterval;
 
 	private boolean JobsGUIAddEdge;
 
@@ -129,6 +132,7 @@ public class GeneralConfigManager {
 	public List<String> InfoButtonCommands = new ArrayList<String>();
 
 	public Parser DynamicPaymentEquation;
+	private CompiledEquation dynamicPaymentEquation;
 
 	public Map<String, List<String>> getCommandArgs() {
 		return commandArgs;
@@ -155,6 +159,20 @@ public class GeneralConfigManager {
 		return savePeriod;
 	}
 
+	/**
+	 * @return milliseconds to wait for more players before writing queued saves
+	 */
+	public int getSaveQueueDelay() {
+		return saveQueueDelay;
+	}
+
+	/**
+	 * @return amount of queued saves which are written without waiting
+	 */
+	public int getSaveQueueMaxPending() {
+		return saveQueueMaxPending;
+	}
+
 	/**
 	 * Should we use asynchronous economy calls
 	 * 
@@ -262,6 +280,33 @@ public class GeneralConfigManager {
 		return locale;
 	}
 
+	public boolean isPayoutTablesEnabled() {
+		return payoutTablesEnabled;
+	}
+
+	public int getPayoutTablesMaxLevel() {
+		return payoutTablesMaxLevel;
+	}
+
+	public int getFastPaymentDuration() {
+		return fastPaymentDuration;
+	}
+
+	public boolean isPreloadPlayers() {
+		return preloadPlayers;
+	}
+
+	public int getTopSnapshotInterval() {
+		return topSnapshotInterval;
+	}
+
+	/**
+	 * @return dynamic payment equation taking totalworkers, totaljobs and jobstotalplayers
+	 */
+	public CompiledEquation getDynamicPaymentEquation() {
+		return dynamicPaymentEquation;
+	}
+
 	public boolean canPerformActionInWorld(Entity ent) {
 		return ent == null || canPerformActionInWorld(ent.getWorld());
 	}
@@ -367,6 +412,12 @@ public class GeneralConfigManager {
 				"Only enable this if you have a multi-server setup, or have a really good reason for enabling this.", "Turning this on will decrease database performance.");
 		saveOnDisconnect = c.get("save-on-disconnect", false);
 
+		c.addComment("save-queue.delay", "How long in milliseconds player saves are collected before they are written to the database together");
+		saveQueueDelay = CMINumber.clamp(c.get("save-queue.delay", 1000), 0, 60000);
+		c.addComment("save-queue.max-pending", "Amount of collected player saves which are written right away without waiting for the delay",
+				"Background tasks wait while twice as many saves are waiting to be written");
+		saveQueueMaxPending = Math.max(1, c.get("save-queue.max-pending", 500));
+
 		c.addComment("boost-persistence", "Should job boosts persist across server restarts?", "When enabled, boosts applied via /jobs boost command will be saved and restored after server restart.",
 				"This ensures that timed boosts continue for their full duration even if the server restarts.", "Set to false if this feature causes issues with your server setup.");
 		boostPersistenceEnabled = c.get("boost-persistence", true);
@@ -388,6 +439,15 @@ public class GeneralConfigManager {
 		c.addComment("Optimizations.InformDuplicates", "Can be used to check if your database contains any duplicated user entries.");
 		InformDuplicates = c.get("Optimizations.InformDuplicates", false);
 
+		c.addComment("Optimizations.PreloadPlayers", "When set to true every player saved in the database is loaded on startup",
+			"Disable on big databases to load players only when they join, job tops are then loaded from the top snapshot file",
+			"and updated from the database in the background");
+		preloadPlayers = c.get("Optimizations.PreloadPlayers", true);
+
+		c.addComment("Optimizations.TopSnapshot.Interval", "How often in minutes job tops are saved into the topSnapshot.dat file",
+			"Set to 0 to only save them when the server stops");
+		topSnapshotInterval = Math.max(0, c.get("Optimizations.TopSnapshot.Interval", 10));
+
 		c.addComment("Optimizations.DecimalPlaces.Money", "Decimal places to be shown");
 		DecimalPlacesMoney = "%." + c.get("Optimizations.DecimalPlaces.Money", 2) + "f";
 		DecimalPlacesExp = "%." + c.get("Optimizations.DecimalPlaces.Exp", 2) + "f";
@@ -653,10 +713,9 @@ public class GeneralConfigManager {
 		c.addComment("Economy.DynamicPayment.equation", "totalworkers: The total number of players on the server who have jobs", "totaljobs: The number of jobs that are enabled",
 				"jobstotalplayers: The number of people in that particular job", "Exponential equation: totalworkers / totaljobs / jobstotalplayers - 1", "Linear equation: ((totalworkers / totaljobs) - jobstotalplayers)/10.0");
 		try {
-			DynamicPaymentEquation = new Parser(c.get("Economy.DynamicPayment.equation", "totalworkers / totaljobs / jobstotalplayers - 1"));
-			DynamicPaymentEquation.setVariable("totalworkers", 100);
-			DynamicPaymentEquation.setVariable("totaljobs", 10);
-			DynamicPaymentEquation.setVariable("jobstotalplayers", 10);
+			dynamicPaymentEquation = CompiledEquation.compile(c.get("Economy.DynamicPayment.equation", "totalworkers / totaljobs / jobstotalplayers - 1"), "totalworkers",
+					"totaljobs", "jobstotalplayers").setParserVariables(100, 10, 10);
+			DynamicPaymentEquation = dynamicPaymentEquation.getParser();
 		} catch (Throwable e) {
 			CMIMessages.consoleMessage("&cDynamic payment equation has an invalid property. Disabling feature!");
 			useDynamicPayment = false;
@@ -667,6 +726,16 @@ public class GeneralConfigManager {
 		DynamicPaymentMaxBonus = c.get("Economy.DynamicPayment.MaxBonus", 300.0);
 		DynamicPaymentMaxBonus /= 100D;
 
+		c.addComment("Economy.PayoutTables.use", "Do you want to precompute income, experience and points of job actions by level and amount of jobs?",
+				"Avoids evaluating progression equations on each payment at the cost of some memory", "Equations using maxjobs variable are still evaluated on each payment");
+		payoutTablesEnabled = c.get("Economy.PayoutTables.use", false);
+		c.addComment("Economy.PayoutTables.MaxLevel", "Highest level to precompute, payments above it are calculated as usual");
+		payoutTablesMaxLevel = CMINumber.clamp(c.get("Economy.PayoutTables.MaxLevel", 500), 0, 100000);
+
+		c.addComment("Economy.FastPayment.Duration", "For how long in milliseconds the last payment of a player is reused when the same block is broken or placed,",
+				"same mob is killed, fish is caught or item is smelted again", "Cached payment is dropped on level up, boost changes and when a limit is reached", "Set to 0 to disable");
+		fastPaymentDuration = CMINumber.clamp(c.get("Economy.FastPayment.Duration", 1000), 0, 60000);
+
 		c.addComment("Economy.MaxPayment.curve.use",
 				"Enabling this feature will mean players will still earn once they reach cap but " + "will loose a percentage the higher over cap they go. Controlled by a factor. math is ```100/((1/factor*percentOver^2)+1)```");
 		useMaxPaymentCurve = c.get("Economy.MaxPayment.curve.use", false);
@@ -719,6 +788,10 @@ public class GeneralConfigManager {
 				"Example: '00:00:00' will reset timer at midnight, '04:30:00' will reset at 4:30 in the morning", "Set to empty field if you want to use TimeLimit");
 		limit.setResetsAt(c.get("Economy.Limit.Money.ResetTime", ""));
 
+		c.addComment("Economy.Limit.Money.SlidingWindow", "When enabled, limit counts the amount collected in the last TimeLimit seconds",
+				"Collected amounts expire gradually instead of all at once, ResetTime is ignored");
+		limit.setSlidingWindow(c.get("Economy.Limit.Money.SlidingWindow", false));
+
 		c.addComment("Economy.Limit.Money.AnnouncementDelay", "Delay between announcements about reached money limit", "Keep this from 30 to 5 min (300), as players can get annoyed of constant message displaying");
 		limit.setAnnouncementDelay(c.get("Economy.Limit.Money.AnnouncementDelay", 30));
 		currencyLimitUse.put(CurrencyType.MONEY, limit);
@@ -752,6 +825,10 @@ public class GeneralConfigManager {
 				"Example: '00:00:00' will reset timer at midnight, '04:30:00' will reset at 4:30 in the morning", "Set to empty field if you want to use TimeLimit");
 		limit.setResetsAt(c.get("Economy.Limit.Point.ResetTime", ""));
 
+		c.addComment("Economy.Limit.Point.SlidingWindow", "When enabled, limit counts the amount collected in the last TimeLimit seconds",
+				"Collected amounts expire gradually instead of all at once, ResetTime is ignored");
+		limit.setSlidingWindow(c.get("Economy.Limit.Point.SlidingWindow", false));
+
 		c.addComment("Economy.Limit.Point.AnnouncementDelay", "Delay between announcements about reached limit", "Keep this from 30 to 5 min (300), as players can get annoyed of constant message displaying");
 		limit.setAnnouncementDelay(c.get("Economy.Limit.Point.AnnouncementDelay", 30));
 		currencyLimitUse.put(CurrencyType.POINTS, limit);
@@ -785,6 +862,10 @@ public class GeneralConfigManager {
 				"Set to empty field if you want to use TimeLimit");
 		limit.setResetsAt(c.get("Economy.Limit.Exp.ResetTime", ""));
 
+		c.addComment("Economy.Limit.Exp.SlidingWindow", "When enabled, limit counts the amount collected in the last TimeLimit seconds",
+				"Collected amounts expire gradually instead of all at once, ResetTime is ignored");
+		limit.setSlidingWindow(c.get("Economy.Limit.Exp.SlidingWindow", false));
+
 		c.addComment("Economy.Limit.Exp.AnnouncementDelay", "Delay between announcements about reached Exp limit", "Keep this from 30 to 5 min (300), as players can get annoyed of constant message displaying");
 		limit.setAnnouncementDelay(c.get("Economy.Limit.Exp.AnnouncementDelay", 30));
 		currencyLimitUse.put(CurrencyType.EXP, limit);
@@ -187,10 +187,13 @@ public class LanguageManager {
             c.get("command.limit.help.args", "[playername]");
             c.get("command.limit.output.moneytime", "&eTime left until money limit resets: &2%time%");
             c.get("command.limit.output.moneyLimit", "&eMoney limit: &2%current%&e/&2%total%");
+            c.get("command.limit.output.moneyLeft", "&eMoney left until limit: &2%left%");
             c.get("command.limit.output.exptime", "&eTime left until Exp limit resets: &2%time%");
             c.get("command.limit.output.expLimit", "&eExp limit: &2%current%&e/&2%total%");
+            c.get("command.limit.output.expLeft", "&eExp left until limit: &2%left%");
             c.get("command.limit.output.pointstime", "&eTime left until Point limit resets: &2%time%");
             c.get("command.limit.output.pointsLimit", "&ePoint limit: &2%current%&e/&2%total%");
+            c.get("command.limit.output.pointsLeft", "&ePoints left until limit: &2%left%");
             c.get("command.limit.output.reachedmoneylimit", "&4You have reached money limit in given time!");
             c.get("command.limit.output.reachedmoneylimit2", "&eYou can check your limit with &2/jobs limit &ecommand");
             c.get("command.limit.output.reachedmoneylimit3", "&eMoney earned is now reduced exponentially... But you still earn a little!");
@@ -628,6 +631,18 @@ public class LanguageManager {
             c.get("command.version.output.payment", "&e[job] &f[action] &7[target] [exp] [money] [points]");
             c.get("command.version.output.nopayment", "&7Can't find any payments ([target])");
 
+            c.get("command.dbstatus.help.info", "Shows database connection pool status");
+            c.get("command.dbstatus.help.args", "");
+            c.get("command.dbstatus.output.connections", "&eConnections: &6[active] &ein use, &6[idle] &eidle, &6[total]&e/&6[max] &eopen");
+            c.get("command.dbstatus.output.borrowed", "&eBorrowed: &6[borrowed] &etimes, average wait &6[wait]ms&e, &6[waiting] &ewaiting");
+            c.get("command.dbstatus.output.problems", "&eOpened: &6[created] &eTimeouts: &6[timeouts] &eLeaks: &6[leaks]");
+            c.get("command.dbstatus.output.statements", "&eStatement cache hits: &6[hits] &emisses: &6[misses]");
+            c.get("command.dbstatus.output.mainThread", "&eRequests from main thread: &6[amount]");
+            c.get("command.dbstatus.output.fastPayment", "&eFast payments: &6[hits] &ehits, &6[misses] &emisses");
+            c.get("command.dbstatus.output.paymentEvents", "&ePayment events: &6[queued] &equeued, &6[fired] &efired, &6[dropped] &edropped");
+            c.get("command.dbstatus.output.saves", "&eSaves: &6[pending] &equeued, &6[players] &esaved in &6[flushes] &eflushes, &6[failed] &efailed");
+            c.get("command.dbstatus.output.saveTime", "&eFlush time: &6[last]ms &elast, &6[average]ms &eaverage, &6[max]ms &emax, &6[waits] &ewaits");
+
             c.get("command.version.help.info", "Plugin version information");
             c.get("command.version.help.args", "");
             c.get("command.version.output.jobsVersion", "&eJobs: &6[version]");
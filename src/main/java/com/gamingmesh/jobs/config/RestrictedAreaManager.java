@@ -48,11 +48,16 @@ public class RestrictedAreaManager {
     }
 
     public void addNew(RestrictedArea ra, boolean save) {
+        boolean first = restrictedAreas.isEmpty();
         restrictedAreas.put(ra.getName().toLowerCase(), ra);
         if (save)
             save();
         if (ra.isEnabled())
             recalculateChunks(ra);
+
+        // Chunk changes have to be tracked from now on to update area boosts
+        if (first)
+            Jobs.updateOptionalListeners();
     }
 
     public void remove(String name) {
@@ -215,6 +220,7 @@ public class RestrictedAreaManager {
     public void load() {
         restrictedAreas.clear();
         areas.clear();
+        Jobs.getPlayerManager().invalidateBoosts();
 
         File f = new File(Jobs.getFolder(), fileName);
         YamlConfiguration conf = YamlConfiguration.loadConfiguration(f);
@@ -341,6 +347,7 @@ public class RestrictedAreaManager {
         for (RestrictedArea one : restrictedAreas.values()) {
             recalculateChunks(one);
         }
+        Jobs.getPlayerManager().invalidateBoosts();
     }
 
     public void recalculateChunks(RestrictedArea area) {
@@ -355,6 +362,54 @@ public class RestrictedAreaManager {
         for (ChunkRef chunk : area.getCuboidArea().getChunks()) {
             retAreas.computeIfAbsent(chunk, k -> new HashSet<>()).add(area);
         }
+
+        Jobs.getPlayerManager().invalidateBoosts();
+    }
+
+    /**
+     * Checks if any restricted area covers part of the chunk at the given location.
+     * 
+     * @param loc {@link Location}
+     * @return true if the chunk has restricted areas
+     */
+    public boolean hasAreasInChunk(Location loc) {
+        if (loc == null || loc.getWorld() == null)
+            return false;
+
+        Map<ChunkRef, Set<RestrictedArea>> chunkMap = areas.get(loc.getWorld().getName());
+        if (chunkMap == null)
+            return false;
+
+        Set<RestrictedArea> chunkAreas = chunkMap.get(new ChunkRef(loc));
+        return chunkAreas != null && !chunkAreas.isEmpty();
+    }
+
+    /**
+     * Checks if the location is inside any of the given restricted areas, only
+     * looking at the areas which cover the chunk of the location.
+     *
+     * @param loc {@link Location}
+     * @param names lower case names of the areas
+     * @return true if the location is in any of the areas
+     */
+    public boolean isInAnyArea(Location loc, Set<String> names) {
+        if (names.isEmpty() || loc == null || loc.getWorld() == null)
+            return false;
+
+        Map<ChunkRef, Set<RestrictedArea>> chunkMap = areas.get(loc.getWorld().getName());
+        if (chunkMap == null)
+            return false;
+
+        Set<RestrictedArea> chunkAreas = chunkMap.get(new ChunkRef(loc));
+        if (chunkAreas == null)
+            return false;
+
+        for (RestrictedArea area : chunkAreas) {
+            if (names.contains(area.getName().toLowerCase()) && area.inRestrictedArea(loc))
+                return true;
+        }
+
+        return false;
     }
 
     public Set<RestrictedArea> getByLocation(Location loc) {
@@ -22,4 +22,33 @@ public interface ActionInfo {
     String getName();
     String getNameWithSub();
     ActionType getType();
+
+    /**
+     * Returns the interned key of {@link #getName()}, which can be compared by
+     * reference instead of matching names case insensitively.
+     * 
+     * @return {@link ActionKey}
+     */
+    default ActionKey getNameKey() {
+        return ActionKey.of(getName());
+    }
+
+    /**
+     * Returns the interned key of {@link #getNameWithSub()}.
+     * 
+     * @return {@link ActionKey}
+     */
+    default ActionKey getNameWithSubKey() {
+        return ActionKey.of(getNameWithSub());
+    }
+
+    /**
+     * Returns how many times this action was done at once, for example the size
+     * of a killed entity stack.
+     * 
+     * @return the count, at least 1
+     */
+    default int getCount() {
+        return 1;
+    }
 }
@@ -0,0 +1,90 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.Zrips.CMILib.Items.CMIMaterial;
+
+/**
+ * Interned, case insensitive identifier of an action target name, like
+ * <code>STONE</code>, <code>STONE:0</code> or <code>ZOMBIE</code>.
+ * <p>
+ * There is only ever one instance per upper cased name, so two keys can be
+ * compared with <code>==</code> or by their {@link #getId()} instead of
+ * building strings and matching them with {@link String#equalsIgnoreCase(String)}.
+ */
+public final class ActionKey {
+
+    private static final Map<String, ActionKey> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    public static final ActionKey EMPTY = of("");
+
+    private final int id;
+    private final String name;
+    private ActionKey general;
+
+    private ActionKey(String name) {
+        this.id = NEXT_ID.incrementAndGet();
+        this.name = name;
+    }
+
+    /**
+     * Returns the interned key of the given name, ignoring its case.
+     *
+     * @param name the action target name
+     * @return {@link ActionKey}, never null
+     */
+    public static ActionKey of(String name) {
+        if (name == null)
+            return EMPTY;
+
+        ActionKey key = KEYS.get(name);
+        if (key != null)
+            return key;
+
+        // Material and entity names are already upper cased, in which case no new string is created
+        return KEYS.computeIfAbsent(name.toUpperCase(Locale.ROOT), ActionKey::new);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the upper cased name of this key
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the key of the general material name, used to match
+     * <code>:ALL</code> entries, for example <code>OAK_LOG</code> to <code>LOG</code>.
+     *
+     * @return {@link ActionKey} of general material name
+     */
+    public ActionKey getGeneral() {
+        ActionKey g = general;
+        if (g == null)
+            general = g = of(CMIMaterial.getGeneralMaterialName(name));
+        return g;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -20,6 +20,9 @@ package com.gamingmesh.jobs.container;
 
 public abstract class BaseActionInfo implements ActionInfo {
     private ActionType type;
+    private ActionKey nameKey, nameWithSubKey;
+    private int count = 1;
+
     public BaseActionInfo(ActionType type) {
         this.type = type;
     }
@@ -28,4 +31,37 @@ public abstract class BaseActionInfo implements ActionInfo {
     public ActionType getType() {
         return type;
     }
+
+    @Override
+    public ActionKey getNameKey() {
+        ActionKey key = nameKey;
+        if (key == null)
+            nameKey = key = ActionKey.of(getName());
+        return key;
+    }
+
+    @Override
+    public ActionKey getNameWithSubKey() {
+        ActionKey key = nameWithSubKey;
+        if (key == null)
+            nameWithSubKey = key = ActionKey.of(getNameWithSub());
+        return key;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Sets how many times this action was done at once. Values lower than 1 are
+     * taken as 1.
+     * 
+     * @param count the count
+     * @return this instance
+     */
+    public BaseActionInfo setCount(int count) {
+        this.count = Math.max(1, count);
+        return this;
+    }
 }
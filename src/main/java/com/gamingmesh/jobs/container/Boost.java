@@ -15,6 +15,15 @@ public class Boost {
         }
     }
 
+    /**
+     * Creates a copy of the given boost, sharing its multipliers.
+     * 
+     * @param boost {@link Boost} to copy
+     */
+    public Boost(Boost boost) {
+        map.putAll(boost.map);
+    }
+
     public void add(BoostOf boostoff, BoostMultiplier multiplier) {
         map.put(boostoff, multiplier);
     }
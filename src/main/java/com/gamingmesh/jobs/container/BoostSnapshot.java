@@ -0,0 +1,39 @@
+package com.gamingmesh.jobs.container;
+
+/**
+ * Cached boosts of a player in one job which do not depend on the performed
+ * action.
+ * <p>
+ * A snapshot is stamped with the global and the player boost versions it was
+ * built with and is reused until either of them changes. It also expires after
+ * the permission boost refresh interval, as permission changes made by other
+ * plugins are not announced.
+ */
+public final class BoostSnapshot {
+
+    private static final long EXPIRE_AFTER = 60 * 1000L;
+
+    private final Boost boost;
+    private final int globalVersion;
+    private final int playerVersion;
+    private final long created = System.currentTimeMillis();
+
+    public BoostSnapshot(Boost boost, int globalVersion, int playerVersion) {
+        this.boost = boost;
+        this.globalVersion = globalVersion;
+        this.playerVersion = playerVersion;
+    }
+
+    /**
+     * The returned {@link Boost} is shared and should not be modified.
+     *
+     * @return {@link Boost}
+     */
+    public Boost getBoost() {
+        return boost;
+    }
+
+    public boolean isValid(int globalVersion, int playerVersion) {
+        return this.globalVersion == globalVersion && this.playerVersion == playerVersion && System.currentTimeMillis() - created < EXPIRE_AFTER;
+    }
+}
@@ -11,6 +11,7 @@ public class CurrencyLimit {
     private boolean enabled;
     private List<CurrencyType> stopWith;
     private int timeLimit = 0;
+    private boolean slidingWindow = false;
     private resetTime resetsAt = null;
     private int announcementDelay;
     private Parser maxEquation;
@@ -51,6 +52,18 @@ public class CurrencyLimit {
         this.timeLimit = timeLimit;
     }
 
+    /**
+     * @return true if the limit counts the amount collected in the last
+     *         {@link #getTimeLimit()} seconds instead of resetting it
+     */
+    public boolean isSlidingWindow() {
+        return slidingWindow;
+    }
+
+    public void setSlidingWindow(boolean slidingWindow) {
+        this.slidingWindow = slidingWindow;
+    }
+
     public int getAnnouncementDelay() {
         return announcementDelay;
     }
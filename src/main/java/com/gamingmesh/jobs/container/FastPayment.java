@@ -1,43 +1,65 @@
 package com.gamingmesh.jobs.container;
 
-import com.gamingmesh.jobs.economy.BufferedPayment;
-
+/**
+ * Payments of the last cacheable action of a player, one for each job which
+ * paid for it.
+ * <p>
+ * Amounts are stored with boosts applied but before limits, as limits are
+ * checked again every time the entry is used.
+ *
+ * @see FastPaymentCache
+ */
 public class FastPayment {
-	private JobsPlayer jPlayer;
-	private ActionInfo info;
-	private BufferedPayment payment;
-	private Job job;
-	private Long time;
-
-    public FastPayment(JobsPlayer jPlayer, ActionInfo info, BufferedPayment payment, Job job) {
-	this.jPlayer = jPlayer;
-	this.info = info;
-	this.payment = payment;
-	this.job = job;
-	this.time = System.currentTimeMillis() + 45;
+	private final ActionType type;
+	private final ActionKey key;
+	private final Job[] jobs;
+	private final PaymentVector[] payments;
+	private final double[] minecraftExp;
+	private final int globalBoostVersion;
+	private final int playerBoostVersion;
+	private final long expires;
+
+    public FastPayment(ActionInfo info, Job[] jobs, PaymentVector[] payments, double[] minecraftExp, int globalBoostVersion, int playerBoostVersion, long duration) {
+	this.type = info.getType();
+	this.key = info.getNameWithSubKey();
+	this.jobs = jobs;
+	this.payments = payments;
+	this.minecraftExp = minecraftExp;
+	this.globalBoostVersion = globalBoostVersion;
+	this.playerBoostVersion = playerBoostVersion;
+	this.expires = System.currentTimeMillis() + duration;
     }
 
-    public JobsPlayer getPlayer() {
-	return jPlayer;
+    /**
+     * @return true if this was paid for the same action type and target as the given action
+     */
+    public boolean matches(ActionInfo info) {
+	return type == info.getType() && key == info.getNameWithSubKey();
     }
 
-    public ActionInfo getInfo() {
-	return info;
+    public boolean isValid(int globalBoostVersion, int playerBoostVersion) {
+	return this.globalBoostVersion == globalBoostVersion && this.playerBoostVersion == playerBoostVersion && System.currentTimeMillis() < expires;
     }
 
-    public BufferedPayment getPayment() {
-	return payment;
+    /**
+     * @return the amount of jobs which paid
+     */
+    public int size() {
+	return jobs.length;
     }
 
-    public Job getJob() {
-	return job;
+    public Job getJob(int index) {
+	return jobs[index];
     }
 
-    public Long getTime() {
-	return time;
+    public PaymentVector getPayment(int index) {
+	return payments[index];
     }
 
-    public void setTime(Long time) {
-	this.time = time;
+    /**
+     * @return the vanilla experience given to the player, without boosts
+     */
+    public double getMinecraftExp(int index) {
+	return minecraftExp[index];
     }
 }
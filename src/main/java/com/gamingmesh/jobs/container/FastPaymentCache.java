@@ -0,0 +1,88 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gamingmesh.jobs.Jobs;
+
+/**
+ * Keeps the last payment of every player for a short time, so repeating the
+ * same action can be paid without looking up job infos, evaluating equations
+ * and calculating boosts again.
+ * <p>
+ * The {@link FastPayment} is stored on the {@link JobsPlayer}. It is dropped
+ * when jobs or levels change and when a limit is reached, and is not used
+ * anymore after global or player boosts changed or the configured duration
+ * passed.
+ */
+public final class FastPaymentCache {
+
+    /**
+     * Action types which are repeated often with the same target.
+     */
+    public static final Set<ActionType> CACHED_ACTIONS = Collections.unmodifiableSet(EnumSet.of(ActionType.BREAK, ActionType.PLACE, ActionType.KILL,
+        ActionType.FISH, ActionType.SMELT));
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @return true if payments of the given action type can be cached
+     */
+    public boolean isCached(ActionType type) {
+        return Jobs.getGCManager().getFastPaymentDuration() > 0 && CACHED_ACTIONS.contains(type);
+    }
+
+    /**
+     * Returns the cached payment of the player if it was made for the same
+     * action and is still valid. Payments of jobs whose time ran out are not
+     * returned, so the player leaves them through the regular payment.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     * @param info {@link ActionInfo}
+     * @return {@link FastPayment} or null
+     */
+    public FastPayment get(JobsPlayer jPlayer, ActionInfo info) {
+        FastPayment fp = jPlayer.getFastPayment();
+
+        if (fp == null || !fp.matches(info) || !fp.isValid(Jobs.getPlayerManager().getBoostVersion(), jPlayer.getBoostVersion())) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        for (int i = 0; i < fp.size(); i++) {
+            if (jPlayer.isLeftTimeEnded(fp.getJob(i))) {
+                invalidate(jPlayer);
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        hits.incrementAndGet();
+        return fp;
+    }
+
+    public void put(JobsPlayer jPlayer, FastPayment fp) {
+        jPlayer.setFastPayment(fp);
+    }
+
+    public void invalidate(JobsPlayer jPlayer) {
+        jPlayer.setFastPayment(null);
+    }
+
+    /**
+     * @return the amount of actions paid from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the amount of cacheable actions which had to be calculated
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+}
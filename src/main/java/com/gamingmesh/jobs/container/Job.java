@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
-import java.util.function.BiPredicate;
 
 import javax.annotation.Nonnull;
 
@@ -42,10 +41,8 @@ import org.jetbrains.annotations.NotNull;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.Gui.GuiItem;
-import com.gamingmesh.jobs.actions.EnchantActionInfo;
-import com.gamingmesh.jobs.actions.PotionItemActionInfo;
 import com.gamingmesh.jobs.container.JobsTop.topStats;
-import com.gamingmesh.jobs.stuff.Util;
+import com.gamingmesh.jobs.stuff.CompiledEquation;
 import com.gamingmesh.jobs.BoostManager;
 
 import net.Zrips.CMILib.Colors.CMIChatColor;
@@ -56,6 +53,7 @@ import net.Zrips.CMILib.Items.CMIMaterial;
 public class Job {
 
     private Map<ActionType, List<JobInfo>> jobInfo = new EnumMap<>(ActionType.class);
+    private final Map<ActionType, JobInfoIndex> jobInfoIndex = new EnumMap<>(ActionType.class);
 
     private List<JobPermission> jobPermissions;
     private List<JobCommands> jobCommands;
@@ -73,7 +71,8 @@ public class Job {
     private String description;
 
     private CMIChatColor jobColour;
-    private Parser maxExpEquation;
+    private CompiledEquation maxExpEquation;
+    private MaxExpTable maxExpTable;
     private DisplayMethod displayMethod;
 
     private int maxLevel;
@@ -88,13 +87,13 @@ public class Job {
 
     private long rejoinCd = 0L;
 
-    private int totalPlayers = -1;
-    private Double bonus;
+    private volatile int totalPlayers = 0;
+    private volatile Double bonus;
 
     private BoostMultiplier boost = new BoostMultiplier();
     private String bossbar;
 
-    private Parser moneyEquation, xpEquation, pointsEquation;
+    private CompiledEquation moneyEquation, xpEquation, pointsEquation;
 
     private final List<String> fDescription = new ArrayList<>(), maxLevelCommands = new ArrayList<>();
     private List<String> worldBlacklist = new ArrayList<>();
@@ -132,7 +131,7 @@ public class Job {
         this.fullName = fullName == null ? "" : fullName;
         this.jobShortName = jobShortName;
         this.jobColour = jobColour;
-        this.maxExpEquation = maxExpEquation;
+        setMaxExpEquation(maxExpEquation);
         this.displayMethod = displayMethod;
         this.maxLevel = maxLevel;
         this.vipmaxLevel = vipmaxLevel;
@@ -161,6 +160,7 @@ public class Job {
      */
     public void addBoost(CurrencyType type, double point) {
         boost.add(type, point);
+        invalidatePlayerBoosts();
         // Notify boost manager to save the updated boosts
         try {
             BoostManager.onBoostAdded();
@@ -189,6 +189,7 @@ public class Job {
         }
 
         boost.add(type, point, System.currentTimeMillis() + (duration * 1000L));
+        invalidatePlayerBoosts();
         // Notify boost manager to save the updated boosts
         try {
             BoostManager.onBoostAdded();
@@ -199,6 +200,11 @@ public class Job {
 
     public void setBoost(BoostMultiplier boost) {
         this.boost = boost;
+        invalidatePlayerBoosts();
+    }
+
+    private static void invalidatePlayerBoosts() {
+        Jobs.getPlayerManager().invalidateBoosts();
     }
 
     public BoostMultiplier getBoost() {
@@ -217,54 +223,55 @@ public class Job {
     }
 
     /**
-     * Returns the total players retrieved synchronously from current database.
+     * Returns the total players kept in memory by {@link com.gamingmesh.jobs.WorkerCountManager}.
      * 
      * @return the amount of total players in this job
      */
     public int getTotalPlayers() {
-        if (totalPlayers == -1) {
-            updateTotalPlayers();
-        }
-
         return totalPlayers;
     }
 
+    /**
+     * Sets the total players without updating the total of every job, use
+     * {@link #modifyTotalPlayerWorking(int)} to change it.
+     * 
+     * @param totalPlayers the amount of total players in this job
+     */
+    public void setTotalPlayers(int totalPlayers) {
+        this.totalPlayers = totalPlayers;
+    }
+
     /**
      * 
      * @param change the amount to change
      * @return the new total
      */
     public int modifyTotalPlayerWorking(int change) {
-        totalPlayers = CMINumber.clamp(totalPlayers + change, 0, Integer.MAX_VALUE);
-        updateBonus();
-        return totalPlayers;
+        return Jobs.getWorkerCountManager().modify(this, change);
     }
 
     /**
      * Updates the total players property from database synchronously.
      */
     public void updateTotalPlayers() {
-        totalPlayers = Jobs.getJobsDAO().getTotalPlayerAmountByJobName(jobName);
+        int count = Jobs.getJobsDAO().getTotalPlayerAmountByJobName(jobName);
 
-        if (totalPlayers <= 0) {
-            totalPlayers = Jobs.getJobsDAO().getTotalPlayerAmountByJobName(fullName);
+        if (count <= 0) {
+            count = Jobs.getJobsDAO().getTotalPlayerAmountByJobName(fullName);
         }
 
-        updateBonus();
+        modifyTotalPlayerWorking(count - totalPlayers);
     }
 
     public void updateBonus() {
         if (!Jobs.getGCManager().useDynamicPayment)
             return;
 
-        Parser eq = Jobs.getGCManager().DynamicPaymentEquation;
-        eq.setVariable("totalworkers", Jobs.getJobsDAO().getTotalPlayers());
-        eq.setVariable("totaljobs", Jobs.getJobs().size());
-        eq.setVariable("jobstotalplayers", getTotalPlayers());
+        CompiledEquation eq = Jobs.getGCManager().getDynamicPaymentEquation();
 
         double now = 0D;
         try {
-            now = eq.getValue();
+            now = eq.getValue(Jobs.getWorkerCountManager().getTotal(), Jobs.getJobs().size(), getTotalPlayers());
         } catch (Throwable e) {
             e.printStackTrace();
         }
@@ -278,12 +285,20 @@ public class Job {
         if (Double.isNaN(now))
             now = 0;
 
+        // Assigned first, so boosts rebuilt after the invalidation see the new bonus
+        Double old = bonus;
         this.bonus = now;
+
+        if (old == null || old != now)
+            invalidatePlayerBoosts();
     }
 
     public double getBonus() {
-        if (bonus == null)
+        Double bonus = this.bonus;
+        if (bonus == null) {
             updateBonus();
+            bonus = this.bonus;
+        }
 
         return bonus == null ? 0D : bonus;
     }
@@ -325,6 +340,47 @@ public class Job {
      */
     public void setJobInfo(ActionType type, List<JobInfo> info) {
         jobInfo.put(type, info);
+        updateJobInfoIndex(type);
+    }
+
+    /**
+     * Rebuilds the lookup index of the given action type. Needs to be called
+     * after the list returned by {@link #getJobInfo(ActionType)} was modified.
+     * 
+     * @param type - The action type
+     */
+    public void updateJobInfoIndex(ActionType type) {
+        List<JobInfo> infos = jobInfo.get(type);
+        jobInfoIndex.put(type, new JobInfoIndex(infos));
+
+        if (infos != null) {
+            int tableLevel = getPayoutTableMaxLevel();
+            for (JobInfo info : infos) {
+                info.setPayoutTableMaxLevel(tableLevel);
+            }
+        }
+    }
+
+    /**
+     * Drops precomputed payouts of every job info, for example after max level
+     * or the config was changed.
+     */
+    public void updatePayoutTables() {
+        int tableLevel = getPayoutTableMaxLevel();
+
+        for (List<JobInfo> infos : jobInfo.values()) {
+            for (JobInfo info : infos) {
+                info.setPayoutTableMaxLevel(tableLevel);
+            }
+        }
+    }
+
+    private int getPayoutTableMaxLevel() {
+        int limit = Jobs.getGCManager() == null ? 0 : Jobs.getGCManager().getPayoutTablesMaxLevel();
+        int highest = maxLevel > vipmaxLevel ? maxLevel : vipmaxLevel;
+
+        // Without max level, levels are unlimited and only the configured amount is stored
+        return highest <= 0 || highest > limit ? limit : highest;
     }
 
     /**
@@ -345,37 +401,8 @@ public class Job {
     }
 
     public JobInfo getJobInfo(ActionInfo action, int level) {
-        BiPredicate<JobInfo, ActionInfo> condition = (jobInfo, actionInfo) -> {
-            if (actionInfo instanceof PotionItemActionInfo) {
-                String subName = ((PotionItemActionInfo) action).getNameWithSub();
-                return jobInfo.getName().equalsIgnoreCase(subName) || (jobInfo.getName() + ":" + jobInfo.getMeta()).equalsIgnoreCase(subName);
-            }
-
-            if (actionInfo instanceof EnchantActionInfo) {
-                return Util.enchantMatchesActionInfo(jobInfo.getName(), (EnchantActionInfo) actionInfo);
-            }
-
-            return jobInfo.getName().equalsIgnoreCase(action.getNameWithSub()) ||
-                (jobInfo.getName() + ":" + jobInfo.getMeta()).equalsIgnoreCase(action.getNameWithSub()) ||
-                jobInfo.getName().equalsIgnoreCase(action.getName());
-        };
-
-        String shortActionName = CMIMaterial.getGeneralMaterialName(action.getName());
-
-        for (JobInfo info : getJobInfo(action.getType())) {
-            if (condition.test(info, action)) {
-                if (!info.isInLevelRange(level)) {
-                    break;
-                }
-                return info;
-            }
-
-            if ((shortActionName + ":ALL").equalsIgnoreCase(info.getName())) {
-                return info;
-            }
-        }
-
-        return null;
+        JobInfoIndex index = jobInfoIndex.get(action.getType());
+        return index == null ? null : index.find(action, level);
     }
 
     /**
@@ -470,11 +497,16 @@ public class Job {
      * @return the MaxExpEquation of the job
      */
     public Parser getMaxExpEquation() {
-        return maxExpEquation;
+        return maxExpEquation == null ? null : maxExpEquation.getParser();
     }
 
     public Job setMaxExpEquation(Parser maxExpEquation) {
+        return setMaxExpEquation(CompiledEquation.of(maxExpEquation, "joblevel", "numjobs", "maxjobs"));
+    }
+
+    public Job setMaxExpEquation(CompiledEquation maxExpEquation) {
         this.maxExpEquation = maxExpEquation;
+        this.maxExpTable = maxExpEquation == null ? null : new MaxExpTable(maxExpEquation);
         return this;
     }
 
@@ -482,12 +514,30 @@ public class Job {
      * Function to return the appropriate max exp for this level
      * @param level - current level
      * @return the correct max exp for this level
+     * @deprecated use {@link #getMaxExp(int, int, int)}
      */
+    @Deprecated
     public double getMaxExp(Map<String, Double> level) {
-        for (Map.Entry<String, Double> temp : level.entrySet()) {
-            maxExpEquation.setVariable(temp.getKey(), temp.getValue());
+        Parser parser = maxExpEquation.getParser();
+
+        synchronized (parser) {
+            for (Map.Entry<String, Double> temp : level.entrySet()) {
+                parser.setVariable(temp.getKey(), temp.getValue());
+            }
+            return parser.getValue();
         }
-        return maxExpEquation.getValue();
+    }
+
+    /**
+     * Function to return the appropriate max exp for this level
+     * 
+     * @param level - current level
+     * @param numjobs - the amount of jobs the player have
+     * @param maxjobs - the amount of jobs the player can have
+     * @return the correct max exp for this level
+     */
+    public double getMaxExp(int level, int numjobs, int maxjobs) {
+        return maxExpTable.get(level, numjobs, maxjobs);
     }
 
     /**
@@ -514,6 +564,7 @@ public class Job {
 
     public Job setMaxLevel(int maxLevel) {
         this.maxLevel = CMINumber.clamp(maxLevel, 0, Integer.MAX_VALUE);
+        updatePayoutTables();
         return this;
     }
 
@@ -551,6 +602,7 @@ public class Job {
 
     public Job setVipMaxLevel(int vipmaxLevel) {
         this.vipmaxLevel = CMINumber.clamp(vipmaxLevel, 0, Integer.MAX_VALUE);
+        updatePayoutTables();
         return this;
     }
 
@@ -640,26 +692,50 @@ public class Job {
     }
 
     public Parser getMoneyEquation() {
+        return moneyEquation == null ? null : moneyEquation.getParser();
+    }
+
+    public CompiledEquation getCompiledMoneyEquation() {
         return moneyEquation;
     }
 
     public void setMoneyEquation(Parser moneyEquation) {
+        this.moneyEquation = CompiledEquation.of(moneyEquation, "joblevel", "numjobs", "maxjobs", "baseincome");
+    }
+
+    public void setMoneyEquation(CompiledEquation moneyEquation) {
         this.moneyEquation = moneyEquation;
     }
 
     public Parser getXpEquation() {
+        return xpEquation == null ? null : xpEquation.getParser();
+    }
+
+    public CompiledEquation getCompiledXpEquation() {
         return xpEquation;
     }
 
     public void setXpEquation(Parser xpEquation) {
+        this.xpEquation = CompiledEquation.of(xpEquation, "joblevel", "numjobs", "maxjobs", "baseexperience");
+    }
+
+    public void setXpEquation(CompiledEquation xpEquation) {
         this.xpEquation = xpEquation;
     }
 
     public Parser getPointsEquation() {
+        return pointsEquation == null ? null : pointsEquation.getParser();
+    }
+
+    public CompiledEquation getCompiledPointsEquation() {
         return pointsEquation;
     }
 
     public void setPointsEquation(Parser pointsEquation) {
+        this.pointsEquation = CompiledEquation.of(pointsEquation, "joblevel", "numjobs", "maxjobs", "basepoints");
+    }
+
+    public void setPointsEquation(CompiledEquation pointsEquation) {
         this.pointsEquation = pointsEquation;
     }
 
@@ -845,7 +921,34 @@ public class Job {
         return topList.getTop(limit);
     }
 
+    /**
+     * @see JobsTop#getRange(int, int)
+     */
+    public List<UUID> getTopRange(int from, int amount) {
+        return topList.getRange(from, amount);
+    }
+
+    /**
+     * @param uuid player {@link UUID}
+     * @return position of the player in this job top starting from 1, or 0 if
+     *         the player is not ranked
+     */
+    public int getTopRank(UUID uuid) {
+        return topList.getRank(uuid);
+    }
+
+    /**
+     * @return amount of players ranked in this job top
+     */
+    public int getTopSize() {
+        return topList.size();
+    }
+
     public topStats getTopStats(UUID uuid) {
         return topList.getStats(uuid);
     }
+
+    JobsTop getJobsTop() {
+        return topList;
+    }
 }
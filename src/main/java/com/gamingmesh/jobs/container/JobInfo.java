@@ -19,6 +19,7 @@
 package com.gamingmesh.jobs.container;
 
 import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.stuff.CompiledEquation;
 
 import net.Zrips.CMILib.Colors.CMIChatColor;
 import net.Zrips.CMILib.Equations.Parser;
@@ -29,13 +30,16 @@ public class JobInfo {
     private String meta;
     private String name;
     private double baseIncome, baseXp, basePoints;
-    private Parser moneyEquation, xpEquation, pointsEquation;
+    private CompiledEquation moneyEquation, xpEquation, pointsEquation;
     private int fromLevel = 0;
     private int untilLevel = Integer.MAX_VALUE;
 
     private String configPath = "";
     private Integer softIncomeLevelLimit, softExpLevelLimit, softPointsLevelLimit;
 
+    private int payoutTableMaxLevel = 0;
+    private volatile PayoutTable incomeTable, xpTable, pointsTable;
+
     public JobInfo(ActionType actionType, int id, String meta, String name, double baseIncome, Parser moneyEquation, double baseXp, Parser xpEquation,
         Parser pointsEquation, double basePoints, int fromLevel, int untilLevel, String configPath) {
         this(actionType, id, meta, name, baseIncome, moneyEquation, baseXp, xpEquation, pointsEquation, basePoints, fromLevel, untilLevel, configPath, null, null, null);
@@ -43,6 +47,15 @@ public class JobInfo {
 
     public JobInfo(ActionType actionType, int id, String meta, String name, double baseIncome, Parser moneyEquation, double baseXp, Parser xpEquation,
         Parser pointsEquation, double basePoints, int fromLevel, int untilLevel, String configPath, Integer softIncomeLevelLimit, Integer softExpLevelLimit, Integer softPointsLevelLimit) {
+        this(actionType, id, meta, name, baseIncome, CompiledEquation.of(moneyEquation, "joblevel", "numjobs", "maxjobs", "baseincome"), baseXp,
+            CompiledEquation.of(xpEquation, "joblevel", "numjobs", "maxjobs", "baseexperience"),
+            CompiledEquation.of(pointsEquation, "joblevel", "numjobs", "maxjobs", "basepoints"), basePoints, fromLevel, untilLevel, configPath,
+            softIncomeLevelLimit, softExpLevelLimit, softPointsLevelLimit);
+    }
+
+    public JobInfo(ActionType actionType, int id, String meta, String name, double baseIncome, CompiledEquation moneyEquation, double baseXp, CompiledEquation xpEquation,
+        CompiledEquation pointsEquation, double basePoints, int fromLevel, int untilLevel, String configPath, Integer softIncomeLevelLimit, Integer softExpLevelLimit,
+        Integer softPointsLevelLimit) {
         this.actionType = actionType;
         this.id = id;
         this.meta = meta;
@@ -114,11 +127,13 @@ public class JobInfo {
             level = softIncomeLevelLimit;
         if (baseIncome == 0 || !CurrencyType.MONEY.isEnabled())
             return 0;
-        moneyEquation.setVariable("joblevel", level);
-        moneyEquation.setVariable("numjobs", numjobs);
-        moneyEquation.setVariable("maxjobs", maxJobs);
-        moneyEquation.setVariable("baseincome", baseIncome);
-        return moneyEquation.getValue();
+        PayoutTable table = incomeTable;
+        if (table != null) {
+            double value = table.get(level, numjobs);
+            if (!Double.isNaN(value))
+                return value;
+        }
+        return moneyEquation.getValue(level, numjobs, maxJobs, baseIncome);
     }
 
     public double getExperience(double level, int numjobs, int maxJobs) {
@@ -126,11 +141,13 @@ public class JobInfo {
             level = softExpLevelLimit;
         if (baseXp == 0 || !CurrencyType.EXP.isEnabled())
             return 0;
-        xpEquation.setVariable("joblevel", level);
-        xpEquation.setVariable("numjobs", numjobs);
-        xpEquation.setVariable("maxjobs", maxJobs);
-        xpEquation.setVariable("baseexperience", baseXp);
-        return xpEquation.getValue();
+        PayoutTable table = xpTable;
+        if (table != null) {
+            double value = table.get(level, numjobs);
+            if (!Double.isNaN(value))
+                return value;
+        }
+        return xpEquation.getValue(level, numjobs, maxJobs, baseXp);
     }
 
     public double getPoints(double level, int numjobs, int maxJobs) {
@@ -138,11 +155,13 @@ public class JobInfo {
             level = softPointsLevelLimit;
         if (basePoints == 0 || !CurrencyType.POINTS.isEnabled())
             return 0;
-        pointsEquation.setVariable("joblevel", level);
-        pointsEquation.setVariable("numjobs", numjobs);
-        pointsEquation.setVariable("maxjobs", maxJobs);
-        pointsEquation.setVariable("basepoints", basePoints);
-        return pointsEquation.getValue();
+        PayoutTable table = pointsTable;
+        if (table != null) {
+            double value = table.get(level, numjobs);
+            if (!Double.isNaN(value))
+                return value;
+        }
+        return pointsEquation.getValue(level, numjobs, maxJobs, basePoints);
     }
 
     public String getConfigPath() {
@@ -151,13 +170,39 @@ public class JobInfo {
 
     public void setBaseIncome(double baseIncome) {
         this.baseIncome = baseIncome;
+        invalidatePayoutTables();
     }
 
     public void setBaseXp(double baseXp) {
         this.baseXp = baseXp;
+        invalidatePayoutTables();
     }
 
     public void setBasePoints(double basePoints) {
         this.basePoints = basePoints;
+        invalidatePayoutTables();
+    }
+
+    /**
+     * Enables precomputed payouts for levels up to the given one, if payout
+     * tables are enabled in the config. Equations which use the maxjobs variable
+     * are always evaluated.
+     * 
+     * @param maxLevel the highest level to precompute, 0 to disable tables
+     */
+    public void setPayoutTableMaxLevel(int maxLevel) {
+        payoutTableMaxLevel = maxLevel;
+        invalidatePayoutTables();
+    }
+
+    /**
+     * Drops precomputed payouts, they are filled again on the next payment.
+     */
+    public void invalidatePayoutTables() {
+        int maxLevel = Jobs.getGCManager() != null && Jobs.getGCManager().isPayoutTablesEnabled() ? payoutTableMaxLevel : 0;
+
+        incomeTable = PayoutTable.of(moneyEquation, baseIncome, maxLevel);
+        xpTable = PayoutTable.of(xpEquation, baseXp, maxLevel);
+        pointsTable = PayoutTable.of(pointsEquation, basePoints, maxLevel);
     }
 }
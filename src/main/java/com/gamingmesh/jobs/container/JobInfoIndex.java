@@ -0,0 +1,130 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gamingmesh.jobs.actions.EnchantActionInfo;
+import com.gamingmesh.jobs.actions.PotionItemActionInfo;
+
+/**
+ * Precomputed lookup of {@link JobInfo} entries of a single {@link ActionType}.
+ * <p>
+ * Entries are grouped by the {@link ActionKey} of their name, of their name
+ * with meta and of the general material name of <code>:ALL</code> wildcards, so
+ * resolving an action costs a few hash lookups and a walk over the entries
+ * sharing that name instead of a scan over the whole action list.
+ * <p>
+ * Matching follows the old linear scan: the first entry in config order wins,
+ * and an exact entry outside of the level range hides later wildcards.
+ */
+public final class JobInfoIndex {
+
+    private static final String WILDCARD_SUFFIX = ":ALL";
+
+    private final Map<ActionKey, Entry[]> byName;
+    private final Map<ActionKey, Entry[]> byNameMeta;
+    private final Map<ActionKey, Entry> wildcards;
+
+    public JobInfoIndex(List<JobInfo> infos) {
+        Map<ActionKey, List<Entry>> names = new HashMap<>();
+        Map<ActionKey, List<Entry>> nameMetas = new HashMap<>();
+        wildcards = new HashMap<>();
+
+        if (infos != null) {
+            for (int i = 0; i < infos.size(); i++) {
+                JobInfo info = infos.get(i);
+                Entry entry = new Entry(info, i);
+                ActionKey name = ActionKey.of(info.getName());
+
+                names.computeIfAbsent(name, k -> new ArrayList<>()).add(entry);
+                nameMetas.computeIfAbsent(ActionKey.of(info.getName() + ":" + info.getMeta()), k -> new ArrayList<>()).add(entry);
+
+                if (name.getName().endsWith(WILDCARD_SUFFIX))
+                    wildcards.putIfAbsent(ActionKey.of(name.getName().substring(0, name.getName().length() - WILDCARD_SUFFIX.length())), entry);
+            }
+        }
+
+        byName = freeze(names);
+        byNameMeta = freeze(nameMetas);
+    }
+
+    /**
+     * Resolves the {@link JobInfo} paying for the given action at the given level.
+     *
+     * @param action {@link ActionInfo}
+     * @param level the job level of player
+     * @return {@link JobInfo} or null if nothing pays for this action
+     */
+    public JobInfo find(ActionInfo action, int level) {
+        Entry[] first, second, third = null;
+
+        if (action instanceof EnchantActionInfo) {
+            EnchantActionInfo enchant = (EnchantActionInfo) action;
+
+            first = byName.get(enchant.getEnchantKey());
+            second = byName.get(enchant.getEnchantLevelKey());
+        } else {
+            ActionKey nameWithSub = action.getNameWithSubKey();
+
+            first = byName.get(nameWithSub);
+            second = byNameMeta.get(nameWithSub);
+
+            if (!(action instanceof PotionItemActionInfo))
+                third = byName.get(action.getNameKey());
+        }
+
+        if (!wildcards.isEmpty()) {
+            Entry wildcard = wildcards.get(action.getNameKey().getGeneral());
+
+            if (wildcard != null && wildcard.order < firstOrder(third, firstOrder(second, firstOrder(first, Integer.MAX_VALUE))))
+                return wildcard.info;
+        }
+
+        Entry found = inRange(third, level, inRange(second, level, inRange(first, level, null)));
+        return found == null ? null : found.info;
+    }
+
+    public boolean isEmpty() {
+        return byName.isEmpty();
+    }
+
+    private static Map<ActionKey, Entry[]> freeze(Map<ActionKey, List<Entry>> map) {
+        Map<ActionKey, Entry[]> frozen = new HashMap<>(map.size() * 2);
+        for (Map.Entry<ActionKey, List<Entry>> one : map.entrySet()) {
+            frozen.put(one.getKey(), one.getValue().toArray(new Entry[0]));
+        }
+        return frozen;
+    }
+
+    private static final class Entry {
+        private final JobInfo info;
+        private final int order;
+
+        private Entry(JobInfo info, int order) {
+            this.info = info;
+            this.order = order;
+        }
+    }
+
+    private static int firstOrder(Entry[] entries, int current) {
+        // Buckets are kept in config order, so the first element is the earliest one
+        return entries == null || entries[0].order >= current ? current : entries[0].order;
+    }
+
+    private static Entry inRange(Entry[] entries, int level, Entry best) {
+        if (entries == null)
+            return best;
+
+        for (Entry entry : entries) {
+            if (best != null && entry.order >= best.order)
+                break;
+
+            if (entry.info.isInLevelRange(level))
+                return entry;
+        }
+
+        return best;
+    }
+}
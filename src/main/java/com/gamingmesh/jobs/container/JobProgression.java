@@ -18,15 +18,18 @@
 
 package com.gamingmesh.jobs.container;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.gamingmesh.jobs.Jobs;
 
 import net.Zrips.CMILib.Container.CMINumber;
 import net.Zrips.CMILib.Time.CMITimeManager;
 
 public class JobProgression {
+	/**
+	 * Value of the maxjobs variable in max experience equations, which has
+	 * always been the one set when the equation is loaded.
+	 */
+	private static final int MAX_EXP_MAXJOBS = 2;
+
 	private Job job;
 	private JobsPlayer jPlayer;
 	private double experience;
@@ -34,6 +37,7 @@ public class JobProgression {
 	private int level;
 	private transient int maxExperience = -1;
 	private long leftOn = 0;
+	private transient volatile BoostSnapshot boostSnapshot;
 
 	public JobProgression(Job job, JobsPlayer jPlayer, int level, double experience) {
 		this.job = job;
@@ -182,17 +186,19 @@ public class JobProgression {
 	 * Reloads max experience
 	 */
 	public void reloadMaxExperience() {
-		Map<String, Double> param = new HashMap<>();
-		param.put("joblevel", (double) level);
-		param.put("numjobs", (double) jPlayer.getJobProgression().size());
-		maxExperience = (int) job.getMaxExp(param);
+		maxExperience = getMaxExperience(level);
+
+		// Item and restricted area boosts depend on job level
+		boostSnapshot = null;
+		jPlayer.invalidateActions();
 	}
 
 	public int getMaxExperience(int level) {
-		Map<String, Double> param = new HashMap<>();
-		param.put("joblevel", (double) level);
-		param.put("numjobs", (double) jPlayer.getJobProgression().size());
-		return (int) job.getMaxExp(param);
+		return getMaxExperience(level, jPlayer.getJobProgression().size());
+	}
+
+	private int getMaxExperience(int level, int numjobs) {
+		return (int) job.getMaxExp(level, numjobs, MAX_EXP_MAXJOBS);
 	}
 
 	/**
@@ -208,17 +214,28 @@ public class JobProgression {
 			return checkLevelDown();
 
 		boolean ret = false;
-		while (canLevelUp()) {
-			// Don't level up at max level
-			if (job.getMaxLevel() > 0 && level >= jPlayer.getMaxJobLevelAllowed(job))
-				break;
-
-			level++;
-			experience -= maxExperience;
+		if (canLevelUp()) {
+			int maxLevel = job.getMaxLevel() > 0 ? jPlayer.getMaxJobLevelAllowed(job) : Integer.MAX_VALUE;
+			int numjobs = jPlayer.getJobProgression().size();
+			int max = maxExperience;
+
+			// Crosses all levels first, max experience comes from the job table
+			while (experience >= max) {
+				// Don't level up at max level
+				if (level >= maxLevel)
+					break;
+
+				level++;
+				experience -= max;
+				max = getMaxExperience(level, numjobs);
+
+				ret = true;
+			}
 
-			ret = true;
-			reloadMaxExperience();
-			jPlayer.reloadLimits();
+			if (ret) {
+				reloadMaxExperience();
+				jPlayer.reloadLimits();
+			}
 		}
 
 		// At max level
@@ -237,6 +254,7 @@ public class JobProgression {
 	 */
 	private boolean checkLevelDown() {
 		boolean ret = false;
+		int numjobs = jPlayer.getJobProgression().size();
 		while (canLevelDown()) {
 			if (
 			// Don't level down at 1
@@ -247,11 +265,13 @@ public class JobProgression {
 			}
 
 			level--;
-			experience += getMaxExperience(level);
+			experience += getMaxExperience(level, numjobs);
 
 			ret = true;
-			reloadMaxExperience();
+		}
 
+		if (ret) {
+			reloadMaxExperience();
 			jPlayer.reloadLimits();
 		}
 
@@ -271,6 +291,17 @@ public class JobProgression {
 		return checkLevelUp();
 	}
 
+	/**
+	 * @return cached boosts of this job, or null if they were not calculated yet
+	 */
+	public BoostSnapshot getBoostSnapshot() {
+		return boostSnapshot;
+	}
+
+	public void setBoostSnapshot(BoostSnapshot boostSnapshot) {
+		this.boostSnapshot = boostSnapshot;
+	}
+
 	public Long getLeftOn() {
 		return leftOn;
 	}
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,7 +30,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
@@ -65,9 +69,15 @@ public class JobsPlayer {
     public int maxJobsEquation = 0;
 
     private ArchivedJobs archivedJobs = new ArchivedJobs();
-    private PaymentData paymentLimits;
+    private volatile PaymentData paymentLimits;
+    // Empty limits used while the stored ones load, guarded by limitLock
+    private PaymentData provisionalLimits;
+    private final Object limitLock = new Object();
 
     private final Map<String, List<BoostCounter>> boostCounter = new HashMap<>();
+    private final AtomicInteger boostVersion = new AtomicInteger();
+    private volatile Set<ActionType> actions;
+    private volatile FastPayment fastPayment;
 
     // display honorific
     private String honorific;
@@ -90,6 +100,7 @@ public class JobsPlayer {
     private long seen = System.currentTimeMillis();
 
     private final Map<String, Map<String, QuestProgression>> qProgression = new HashMap<>();
+    private final Map<String, QuestObjectiveIndex> questIndex = new ConcurrentHashMap<>();
     private int doneQuests = 0;
     private int skippedQuests = 0;
 
@@ -203,20 +214,78 @@ public class JobsPlayer {
         return i;
     }
 
+    /**
+     * Sets the limits of this player. If provisional limits are in use, the
+     * amounts collected in them are added to the given limits.
+     *
+     * @param paymentLimits {@link PaymentData}
+     */
     public void setPaymentLimit(PaymentData paymentLimits) {
-        this.paymentLimits = paymentLimits;
+        synchronized (limitLock) {
+            PaymentData provisional = provisionalLimits;
+            provisionalLimits = null;
+
+            if (paymentLimits != null && provisional != null && provisional != paymentLimits && this.paymentLimits == provisional)
+                paymentLimits.merge(provisional);
+
+            this.paymentLimits = paymentLimits;
+        }
     }
 
     /**
+     * @return true if the limits of this player were loaded or are loading
+     */
+    public boolean hasPaymentLimit() {
+        return paymentLimits != null;
+    }
+
+    /**
+     * Returns the limit of {@link PaymentData}. This never queries the database
+     * on the main thread, if the limits were not loaded yet an empty
+     * provisional data is returned and the stored limits are loaded in the
+     * background. Amounts collected meanwhile are added to the loaded limits.
+     *
      * @return the limit of {@link PaymentData}
      */
     public PaymentData getPaymentLimit() {
-        if (paymentLimits == null)
-            paymentLimits = Jobs.getJobsDAO().getPlayersLimits(this);
+        PaymentData data = paymentLimits;
+        if (data != null)
+            return data;
 
-        if (paymentLimits == null)
-            paymentLimits = new PaymentData();
-        return paymentLimits;
+        synchronized (limitLock) {
+            data = paymentLimits;
+            if (data != null)
+                return data;
+
+            data = new PaymentData();
+            paymentLimits = provisionalLimits = data;
+        }
+
+        loadPaymentLimit(data);
+        return data;
+    }
+
+    private void loadPaymentLimit(PaymentData provisional) {
+        if (!Bukkit.isPrimaryThread()) {
+            applyPaymentLimit(Jobs.getJobsDAO().getPlayersLimits(this), provisional);
+            return;
+        }
+
+        CMIScheduler.runTaskAsynchronously(Jobs.getInstance(), () -> {
+            PaymentData loaded = Jobs.getJobsDAO().getPlayersLimits(this);
+            CMIScheduler.runTask(Jobs.getInstance(), () -> applyPaymentLimit(loaded, provisional));
+        });
+    }
+
+    private void applyPaymentLimit(PaymentData loaded, PaymentData provisional) {
+        if (loaded == null)
+            return;
+
+        synchronized (limitLock) {
+            // Limits were replaced or reset while loading
+            if (paymentLimits == provisional)
+                setPaymentLimit(loaded);
+        }
     }
 
     /**
@@ -269,6 +338,20 @@ public class JobsPlayer {
         return true;
     }
 
+    /**
+     * Returns the amount of the given currency this player can still get
+     * before reaching the payment limit.
+     *
+     * @param type {@link CurrencyType}
+     * @return the remaining amount, or -1 if the limit is disabled
+     */
+    public double getRemainingLimit(CurrencyType type) {
+        if (type == null || !Jobs.getGCManager().getLimit(type).isEnabled())
+            return -1D;
+
+        return getPaymentLimit().getRemaining(type, getLimit(type));
+    }
+
     public double percentOverLimit(CurrencyType type) {
         return getPaymentLimit().percentOverLimit(type, getLimit(type));
     }
@@ -325,6 +408,136 @@ public class JobsPlayer {
         return playerUUID != null ? plugin.getServer().getPlayer(playerUUID) : null;
     }
 
+    /**
+     * @return version of player specific boosts, changed by {@link #invalidateBoosts()}
+     */
+    public int getBoostVersion() {
+        return boostVersion.get();
+    }
+
+    /**
+     * Marks cached boosts of this player as outdated, for example after permissions,
+     * held items or location changed.
+     */
+    public void invalidateBoosts() {
+        boostVersion.incrementAndGet();
+    }
+
+    /**
+     * Checks if any job of this player can pay for, or has a quest objective of
+     * the given action type at the current job levels. Players without jobs are
+     * checked against the none job.
+     * 
+     * @param type {@link ActionType}
+     * @return true if the action can pay
+     */
+    public boolean hasAction(ActionType type) {
+        return getActions().contains(type);
+    }
+
+    /**
+     * @param types {@link ActionType}s
+     * @return true if any of the given action types can pay
+     * @see #hasAction(ActionType)
+     */
+    public boolean hasAnyAction(Set<ActionType> types) {
+        Set<ActionType> actions = getActions();
+        for (ActionType type : types) {
+            if (actions.contains(type))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks the action types which can pay as outdated. Needs to be called when
+     * jobs, job levels or job configurations change.
+     */
+    public void invalidateActions() {
+        actions = null;
+        // Cached payment depends on the same jobs and levels
+        fastPayment = null;
+        invalidateQuestIndex();
+    }
+
+    /**
+     * Marks the quest objectives of every job as outdated. Needs to be called
+     * when quests are assigned, completed, skipped or reset.
+     */
+    public void invalidateQuestIndex() {
+        questIndex.clear();
+    }
+
+    /**
+     * Progresses the quest objectives of the given job which are advanced by
+     * the given action.
+     *
+     * @param job {@link Job}
+     * @param info {@link ActionInfo}
+     * @param amount how many times the action was done
+     */
+    public void processQuests(Job job, ActionInfo info, int amount) {
+        if (!isInJob(job))
+            return;
+
+        QuestObjectiveIndex index = questIndex.get(job.getName());
+        if (index == null || index.isExpired()) {
+            index = new QuestObjectiveIndex(getQuestProgressions(job));
+            questIndex.put(job.getName(), index);
+        }
+
+        index.process(this, info, amount);
+    }
+
+    FastPayment getFastPayment() {
+        return fastPayment;
+    }
+
+    void setFastPayment(FastPayment fastPayment) {
+        this.fastPayment = fastPayment;
+    }
+
+    private Set<ActionType> getActions() {
+        Set<ActionType> set = actions;
+        if (set == null)
+            actions = set = collectActions();
+        return set;
+    }
+
+    private Set<ActionType> collectActions() {
+        Set<ActionType> set = EnumSet.noneOf(ActionType.class);
+        List<JobProgression> jobs = getJobProgression();
+
+        if (jobs.isEmpty()) {
+            Job noneJob = Jobs.getNoneJob();
+            if (noneJob != null)
+                collectActions(set, noneJob, 1);
+        } else {
+            for (JobProgression prog : jobs) {
+                collectActions(set, prog.getJob(), prog.getLevel());
+            }
+        }
+
+        return set;
+    }
+
+    private static void collectActions(Set<ActionType> set, Job job, int level) {
+        for (Entry<ActionType, List<JobInfo>> one : job.getJobInfoList().entrySet()) {
+            for (JobInfo info : one.getValue()) {
+                if (info.isInLevelRange(level)) {
+                    set.add(one.getKey());
+                    break;
+                }
+            }
+        }
+
+        if (Jobs.getGCManager().DailyQuestsEnabled) {
+            for (Quest quest : job.getQuests()) {
+                set.addAll(quest.getObjectives().keySet());
+            }
+        }
+    }
+
     /**
      * Attempts to get the boost from specific job and {@link CurrencyType}
      * 
@@ -431,6 +644,7 @@ public class JobsPlayer {
      */
     public void reloadMaxExperience() {
         getJobProgression().forEach(JobProgression::reloadMaxExperience);
+        invalidateActions();
     }
 
     /**
@@ -457,15 +671,19 @@ public class JobsPlayer {
     }
 
     public void resetPaymentLimit() {
-        if (paymentLimits == null)
-            getPaymentLimit();
-        if (paymentLimits != null)
-            paymentLimits.resetLimits();
+        // New data also stops limits which are still loading from being applied
+        synchronized (limitLock) {
+            provisionalLimits = null;
+            paymentLimits = new PaymentData();
+        }
         setSaved(false);
     }
 
     public void nullPaymentLimits() {
-        paymentLimits = null;
+        synchronized (limitLock) {
+            provisionalLimits = null;
+            paymentLimits = null;
+        }
     }
 
     /**
@@ -673,6 +891,7 @@ public class JobsPlayer {
     public boolean leaveAllJobs() {
         synchronized (progression) {
             progression.clear();
+            invalidateActions();
             reloadHonorific();
             Jobs.getPermissionHandler().recalculatePermissions(this);
             reloadLimits();
@@ -927,6 +1146,9 @@ public class JobsPlayer {
 
     /**
      * Performs player save into database
+     *
+     * @param async true to queue the save, queued players are written together
+     *            on a background thread
      */
     public void save(boolean async) {
 //	synchronized (saveLock) {
@@ -935,11 +1157,7 @@ public class JobsPlayer {
 
         JobsDAO dao = Jobs.getJobsDAO();
         if (async) {
-            dao.saveAsync(this);
-            dao.saveLogAsync(this);
-            dao.savePointsAsync(this);
-            dao.recordPlayersLimitsAsync(this);
-            dao.updateSeenAsync(this);
+            dao.getSaveQueue().add(this);
         } else {
             dao.save(this);
             dao.saveLog(this);
@@ -1116,6 +1334,8 @@ public class JobsPlayer {
     }
 
     public void resetQuests(List<QuestProgression> quests) {
+        invalidateQuestIndex();
+
         for (QuestProgression oneQ : quests) {
             oneQ.reset();
             Quest quest = oneQ.getQuest();
@@ -1137,9 +1357,12 @@ public class JobsPlayer {
 
     public void getNewQuests() {
         qProgression.clear();
+        invalidateQuestIndex();
     }
 
     public void getNewQuests(Job job) {
+        questIndex.remove(job.getName());
+
         Map<String, QuestProgression> prog = qProgression.get(job.getName());
         if (prog != null) {
             prog.clear();
@@ -1191,6 +1414,7 @@ public class JobsPlayer {
 
         prog.put(confName, new QuestProgression(q));
         skippedQuests++;
+        invalidateQuestIndex();
     }
 
     public List<QuestProgression> getQuestProgressions() {
@@ -1255,6 +1479,10 @@ public class JobsPlayer {
             }
         }
 
+        // Quests were assigned or ended
+        if (!g.equals(qProg))
+            questIndex.remove(job.getName());
+
         qProgression.put(job.getName(), g);
 
         Map<String, QuestProgression> tmp = new HashMap<>();
@@ -1371,6 +1599,8 @@ public class JobsPlayer {
             if (qp.isCompleted())
                 qp.setGivenReward(true);
         }
+
+        invalidateQuestIndex();
     }
 
     public int getDoneQuests() {
@@ -3,13 +3,8 @@ package com.gamingmesh.jobs.container;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.NavigableMap;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -49,7 +44,28 @@ public class JobsQuestTop {
         return globalTop.getCount(uuid);
     }
 
-    private final NavigableMap<Integer, Set<UUID>> rankingMap = new TreeMap<>(Comparator.reverseOrder());
+    public static int getGlobalRank(UUID uuid) {
+        return globalTop.getRank(uuid);
+    }
+
+    public static int getGlobalTopSize() {
+        return globalTop.size();
+    }
+
+    private static final class Ranked {
+        private final UUID uuid;
+        private final int count;
+
+        private Ranked(UUID uuid, int count) {
+            this.uuid = uuid;
+            this.count = count;
+        }
+    }
+
+    // Most done quests first
+    private static final Comparator<Ranked> RANKING = Comparator.<Ranked>comparingInt(r -> r.count).reversed().thenComparing(r -> r.uuid);
+
+    private final RankedTree<Ranked> ranking = new RankedTree<>(RANKING);
     private final Map<UUID, Integer> uuidToStats = new HashMap<>();
     private List<UUID> topCache = new ArrayList<>();
 
@@ -65,17 +81,13 @@ public class JobsQuestTop {
 
     public synchronized void update(UUID uuid, int level) {
         synchronized (this) {
-            if (uuidToStats.containsKey(uuid)) {
-                Integer prev = uuidToStats.get(uuid);
-                removeFromMap(uuid, prev);
-            }
+            Integer prev = uuidToStats.remove(uuid);
+            if (prev != null)
+                ranking.remove(new Ranked(uuid, prev));
 
             // Only add if level > 1 to avoid empty entries
             if (level > 1) {
-                rankingMap
-                    .computeIfAbsent(level, l -> new HashSet<>())
-                    .add(uuid);
-
+                ranking.add(new Ranked(uuid, level));
                 uuidToStats.put(uuid, level);
             }
 
@@ -100,7 +112,7 @@ public class JobsQuestTop {
         synchronized (this) {
             Integer count = uuidToStats.remove(uuid);
             if (count != null) {
-                removeFromMap(uuid, count);
+                ranking.remove(new Ranked(uuid, count));
                 cacheDirty = true;
 
                 rebuildCacheAsync();
@@ -108,16 +120,6 @@ public class JobsQuestTop {
         }
     }
 
-    private void removeFromMap(UUID uuid, int level) {
-        Set<UUID> uuids = rankingMap.get(level);
-        if (uuids == null)
-            return;
-
-        uuids.remove(uuid);
-        if (uuids.isEmpty())
-            rankingMap.remove(level);
-    }
-
     private void rebuildCacheAsync() {
         CompletableFuture.runAsync(this::rebuildCache);
     }
@@ -136,14 +138,11 @@ public class JobsQuestTop {
     }
 
     private void cycle() {
-        topCache = new ArrayList<>(CACHE_LIMIT);
-        for (Entry<Integer, Set<UUID>> levelEntry : rankingMap.entrySet()) {
-            for (UUID uuid : levelEntry.getValue()) {
-                topCache.add(uuid);
-                if (topCache.size() >= CACHE_LIMIT)
-                    return;
-            }
+        List<UUID> list = new ArrayList<>(CACHE_LIMIT);
+        for (Ranked one : ranking.getRange(0, CACHE_LIMIT)) {
+            list.add(one.uuid);
         }
+        topCache = list;
     }
 
     public synchronized List<UUID> getTop(int limit) {
@@ -158,10 +157,24 @@ public class JobsQuestTop {
     }
 
     public synchronized @Nullable UUID getByPosition(int index) {
-        if (topCache.isEmpty())
-            rebuildCache();
-        else
-            rebuildCacheAsync();
-        return (index >= 0 && index < topCache.size()) ? topCache.get(index) : null;
+        Ranked ranked = ranking.get(index);
+        return ranked == null ? null : ranked.uuid;
+    }
+
+    /**
+     * @param uuid player {@link UUID}
+     * @return position of the player starting from 1, or 0 if the player is not
+     *         in this top
+     */
+    public synchronized int getRank(UUID uuid) {
+        Integer count = uuid == null ? null : uuidToStats.get(uuid);
+        return count == null ? 0 : ranking.indexOf(new Ranked(uuid, count)) + 1;
+    }
+
+    /**
+     * @return amount of players in this top
+     */
+    public synchronized int size() {
+        return ranking.size();
     }
 }
@@ -3,47 +3,145 @@ package com.gamingmesh.jobs.container;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.NavigableMap;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import com.gamingmesh.jobs.Jobs;
 
+/**
+ * Ranking of players by level and experience.
+ * <p>
+ * Progress changes are not applied to the rankings right away. They only mark
+ * the player as changed in a job, or in the global top, keeping the latest
+ * values. A single background thread applies the marked changes every
+ * {@link #FLUSH_PERIOD_MS} milliseconds, so a player gaining experience many
+ * times in between is ranked once with the final values.
+ */
 public class JobsTop {
 
     private static final int CACHE_LIMIT = 150;
     private static final long CACHE_COOLDOWN_MS = 5000;
+    private static final long FLUSH_PERIOD_MS = 250;
 
     private static JobsTop globalTop = new JobsTop();
 
+    private static final topStats REMOVED = new topStats(0, 0D);
+    private static final Map<JobsTop, Map<UUID, topStats>> pendingTops = new ConcurrentHashMap<>();
+    private static final Map<UUID, List<JobProgression>> pendingGlobal = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService flusher;
+
+    /**
+     * Marks the global top of the player as changed, the levels of the given
+     * progressions are summed when the change is applied.
+     */
     public static void updateGlobalTop(UUID uuid, List<JobProgression> progress) {
-        CompletableFuture.runAsync(() -> {
-            int level = 0;
-            double experience = 0;
+        if (uuid == null)
+            return;
+
+        pendingGlobal.put(uuid, progress);
+        startFlusher();
+    }
+
+    private static synchronized void startFlusher() {
+        if (flusher != null)
+            return;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Jobs-TopUpdater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(JobsTop::flush, FLUSH_PERIOD_MS, FLUSH_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops applying marked changes in the background, changes which are still
+     * marked are applied before returning. Needs to be called before jobs are
+     * loaded again, so the tops of the old jobs are not kept.
+     */
+    public static synchronized void stopUpdates() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+
+        flush();
+        pendingTops.clear();
+    }
+
+    /**
+     * Applies all marked changes.
+     */
+    public static void flush() {
+        try {
+            for (Entry<JobsTop, Map<UUID, topStats>> one : pendingTops.entrySet()) {
+                JobsTop top = one.getKey();
+                Map<UUID, topStats> pending = one.getValue();
+                if (pending.isEmpty())
+                    continue;
+
+                synchronized (top) {
+                    for (Entry<UUID, topStats> change : pending.entrySet()) {
+                        // Newer change stays marked for the next flush
+                        if (!pending.remove(change.getKey(), change.getValue()))
+                            continue;
+
+                        if (change.getValue() == REMOVED)
+                            top.removeEntry(change.getKey());
+                        else
+                            top.updateEntry(change.getKey(), change.getValue().level, change.getValue().experience);
+                    }
+                }
+
+                if (Jobs.fullyLoaded)
+                    top.rebuildCache();
+            }
+
+            if (pendingGlobal.isEmpty())
+                return;
 
-            synchronized (progress) {
-                for (JobProgression prog : progress) {
-                    if (prog.getLevel() == 1 && prog.getExperience() == 0)
+            synchronized (globalTop) {
+                for (UUID uuid : pendingGlobal.keySet()) {
+                    List<JobProgression> progress = pendingGlobal.remove(uuid);
+                    if (progress == null)
                         continue;
-                    level += prog.getLevel();
-                    experience += prog.getExperience();
+
+                    int level = 0;
+                    double experience = 0;
+
+                    synchronized (progress) {
+                        for (JobProgression prog : progress) {
+                            if (prog.getLevel() == 1 && prog.getExperience() == 0)
+                                continue;
+                            level += prog.getLevel();
+                            experience += prog.getExperience();
+                        }
+                    }
+
+                    if (level == 0 && experience == 0)
+                        globalTop.removeEntry(uuid);
+                    else
+                        globalTop.updateEntry(uuid, level, experience);
                 }
             }
 
-            if (level == 0 && experience == 0) {
-                globalTop.remove(uuid);
-            } else
-                globalTop.update(uuid, level, experience);
-        });
+            if (Jobs.fullyLoaded)
+                globalTop.rebuildCache();
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
     }
 
     public static void updateGlobalTop(UUID uuid, int level, double experience) {
@@ -51,6 +149,7 @@ public class JobsTop {
     }
 
     public static void removeFromGlobalTop(UUID uuid) {
+        pendingGlobal.remove(uuid);
         globalTop.remove(uuid);
     }
 
@@ -66,6 +165,22 @@ public class JobsTop {
         return globalTop.getStats(uuid);
     }
 
+    public static List<UUID> getGlobalTopRange(int from, int amount) {
+        return globalTop.getRange(from, amount);
+    }
+
+    public static int getGlobalRank(UUID uuid) {
+        return globalTop.getRank(uuid);
+    }
+
+    public static int getGlobalTopSize() {
+        return globalTop.size();
+    }
+
+    static JobsTop getGlobal() {
+        return globalTop;
+    }
+
     public static void updateTops(@NotNull Job job, @NotNull JobsPlayer jPlayer, int level, double experience) {
         if (jPlayer == null)
             return;
@@ -73,7 +188,12 @@ public class JobsTop {
         JobsTop.updateGlobalTop(jPlayer.getUniqueId(), jPlayer.getJobProgression());
     }
 
-    private final NavigableMap<Integer, NavigableMap<Double, Set<UUID>>> rankingMap = new TreeMap<>(Comparator.reverseOrder());
+    // Highest level first, then highest experience
+    private static final Comparator<topStats> RANKING = Comparator.<topStats>comparingInt(s -> s.level).reversed()
+        .thenComparing(Comparator.<topStats>comparingDouble(s -> s.experience).reversed())
+        .thenComparing(s -> s.uuid);
+
+    private final RankedTree<topStats> ranking = new RankedTree<>(RANKING);
     private final Map<UUID, topStats> uuidToStats = new HashMap<>();
     private List<UUID> topCache = new ArrayList<>();
 
@@ -82,6 +202,7 @@ public class JobsTop {
     private volatile boolean cacheRebuilding = false;
 
     public static class topStats {
+        UUID uuid;
         int level;
         double experience;
 
@@ -90,6 +211,11 @@ public class JobsTop {
             this.experience = experience;
         }
 
+        topStats(UUID uuid, int level, double experience) {
+            this(level, experience);
+            this.uuid = uuid;
+        }
+
         public int getLevel() {
             return level;
         }
@@ -99,42 +225,53 @@ public class JobsTop {
         }
     }
 
-    public synchronized void updateAsync(@NotNull UUID uuid, int level, double experience) {
-        CompletableFuture.runAsync(() -> {
-            update(uuid, level, experience);
-        });
+    /**
+     * Marks the player as changed in this top, the change is applied on the
+     * next flush.
+     */
+    public void updateAsync(@NotNull UUID uuid, int level, double experience) {
+        mark(uuid, new topStats(level, experience));
     }
 
     public synchronized void update(@NotNull UUID uuid, int level, double experience) {
         if (uuid == null)
             return;
-        synchronized (this) {
-            if (uuidToStats.containsKey(uuid)) {
-                topStats prev = uuidToStats.get(uuid);
-                removeFromMap(uuid, prev.level, prev.experience);
-            }
 
-            // Only add if level > 1 or experience > 0 to avoid empty entries
-            if (level > 1 || experience > 0) {
-                rankingMap
-                    .computeIfAbsent(level, l -> new TreeMap<>(Comparator.reverseOrder()))
-                    .computeIfAbsent(experience, e -> new HashSet<>())
-                    .add(uuid);
+        updateEntry(uuid, level, experience);
 
-                uuidToStats.put(uuid, new topStats(level, experience));
-            }
+        if (Jobs.fullyLoaded)
+            rebuildCacheAsync();
+    }
 
-            cacheDirty = true;
+    private void updateEntry(UUID uuid, int level, double experience) {
+        topStats prev = uuidToStats.remove(uuid);
+        if (prev != null)
+            ranking.remove(prev);
 
-            if (Jobs.fullyLoaded)
-                rebuildCacheAsync();
+        // Only add if level > 1 or experience > 0 to avoid empty entries
+        if (level > 1 || experience > 0) {
+            topStats stats = new topStats(uuid, level, experience);
+            ranking.add(stats);
+            uuidToStats.put(uuid, stats);
         }
+
+        cacheDirty = true;
     }
 
-    public synchronized void removeAsync(@NotNull UUID uuid) {
-        CompletableFuture.runAsync(() -> {
-            remove(uuid);
-        });
+    /**
+     * Marks the player as removed from this top, the change is applied on the
+     * next flush.
+     */
+    public void removeAsync(@NotNull UUID uuid) {
+        mark(uuid, REMOVED);
+    }
+
+    private void mark(UUID uuid, topStats stats) {
+        if (uuid == null)
+            return;
+
+        pendingTops.computeIfAbsent(this, k -> new ConcurrentHashMap<>()).put(uuid, stats);
+        startFlusher();
     }
 
     public @Nullable topStats getStats(@NotNull UUID uuid) {
@@ -144,32 +281,18 @@ public class JobsTop {
     }
 
     public synchronized void remove(UUID uuid) {
-        synchronized (this) {
-            topStats stats = uuidToStats.remove(uuid);
-            if (stats != null) {
-                removeFromMap(uuid, stats.level, stats.experience);
-                cacheDirty = true;
-
-                rebuildCacheAsync();
-            }
-        }
+        if (removeEntry(uuid))
+            rebuildCacheAsync();
     }
 
-    private void removeFromMap(UUID uuid, int level, double experience) {
-        NavigableMap<Double, Set<UUID>> expMap = rankingMap.get(level);
-        if (expMap == null)
-            return;
-
-        Set<UUID> uuids = expMap.get(experience);
-        if (uuids != null) {
-            uuids.remove(uuid);
-            if (uuids.isEmpty())
-                expMap.remove(experience);
-        }
+    private boolean removeEntry(UUID uuid) {
+        topStats stats = uuidToStats.remove(uuid);
+        if (stats == null)
+            return false;
 
-        if (expMap.isEmpty()) {
-            rankingMap.remove(level);
-        }
+        ranking.remove(stats);
+        cacheDirty = true;
+        return true;
     }
 
     private void rebuildCacheAsync() {
@@ -190,16 +313,15 @@ public class JobsTop {
     }
 
     private void cycle() {
-        topCache = new ArrayList<>(CACHE_LIMIT);
-        for (Entry<Integer, NavigableMap<Double, Set<UUID>>> levelEntry : rankingMap.entrySet()) {
-            for (Entry<Double, Set<UUID>> expEntry : levelEntry.getValue().entrySet()) {
-                for (UUID uuid : expEntry.getValue()) {
-                    topCache.add(uuid);
-                    if (topCache.size() >= CACHE_LIMIT)
-                        return;
-                }
-            }
+        topCache = toUUIDs(ranking.getRange(0, CACHE_LIMIT));
+    }
+
+    private static List<UUID> toUUIDs(List<topStats> stats) {
+        List<UUID> list = new ArrayList<>(stats.size());
+        for (topStats one : stats) {
+            list.add(one.uuid);
         }
+        return list;
     }
 
     public synchronized List<UUID> getTop(int limit) {
@@ -214,10 +336,61 @@ public class JobsTop {
     }
 
     public synchronized @Nullable UUID getByPosition(int index) {
-        if (topCache.isEmpty())
-            rebuildCache();
-        else
+        topStats stats = ranking.get(index);
+        return stats == null ? null : stats.uuid;
+    }
+
+    /**
+     * Returns the players at the given positions of this top, without the
+     * limit of the cached top list.
+     *
+     * @param from position of the first player, starting from 0
+     * @param amount maximum amount of players
+     * @return players in ranking order
+     */
+    public synchronized List<UUID> getRange(int from, int amount) {
+        return toUUIDs(ranking.getRange(from, amount));
+    }
+
+    /**
+     * @param uuid player {@link UUID}
+     * @return position of the player starting from 1, or 0 if the player is not
+     *         in this top
+     */
+    public synchronized int getRank(UUID uuid) {
+        topStats stats = uuid == null ? null : uuidToStats.get(uuid);
+        return stats == null ? 0 : ranking.indexOf(stats) + 1;
+    }
+
+    /**
+     * @return amount of players in this top
+     */
+    public synchronized int size() {
+        return ranking.size();
+    }
+
+    /**
+     * @return all entries of this top in ranking order
+     */
+    synchronized List<topStats> getEntries() {
+        return ranking.getRange(0, ranking.size());
+    }
+
+    /**
+     * Adds or replaces the given entries at once.
+     */
+    synchronized void putEntries(List<topStats> entries) {
+        for (topStats one : entries) {
+            updateEntry(one.uuid, one.level, one.experience);
+        }
+
+        if (Jobs.fullyLoaded)
             rebuildCacheAsync();
-        return (index >= 0 && index < topCache.size()) ? topCache.get(index) : null;
+    }
+
+    synchronized void removeEntries(Set<UUID> uuids) {
+        for (UUID uuid : uuids) {
+            removeEntry(uuid);
+        }
     }
 }
@@ -0,0 +1,247 @@
+package com.gamingmesh.jobs.container;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.container.JobsTop.topStats;
+import com.gamingmesh.jobs.dao.JobsDAO;
+import com.gamingmesh.jobs.dao.JobsDAOData;
+
+import net.Zrips.CMILib.Messages.CMIMessages;
+import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
+import net.Zrips.CMILib.Version.Schedulers.CMITask;
+
+/**
+ * Saves the job and global tops into a binary file, so they are available
+ * right after the server starts without loading every player.
+ * <p>
+ * The file starts with {@link #MAGIC} and {@link #VERSION} and the save time,
+ * followed by every top as its job name, or an empty name for the global top,
+ * and its entries in ranking order. Files with another version are ignored.
+ * The jobs table can change while the file is not written, by other servers
+ * sharing the database or by editing it offline, so loaded tops are always
+ * checked against it with {@link #reconcile()}.
+ */
+public final class JobsTopSnapshot {
+
+    private static final int MAGIC = 0x4A544F50;
+    private static final int VERSION = 3;
+    private static final String FILE_NAME = "topSnapshot.dat";
+
+    private static final AtomicBoolean saving = new AtomicBoolean();
+    private static CMITask task;
+
+    private JobsTopSnapshot() {
+    }
+
+    private static File getFile() {
+        return new File(Jobs.getFolder(), FILE_NAME);
+    }
+
+    /**
+     * Saves the snapshot every given amount of minutes on a background
+     * thread.
+     *
+     * @param minutes interval, 0 to only save on shutdown
+     */
+    public static void start(int minutes) {
+        stop();
+
+        if (minutes <= 0)
+            return;
+
+        long ticks = minutes * 60 * 20L;
+        task = CMIScheduler.scheduleSyncRepeatingTask(Jobs.getInstance(), () -> CMIScheduler.runTaskAsynchronously(Jobs.getInstance(), JobsTopSnapshot::save),
+            ticks, ticks);
+    }
+
+    public static void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Writes all tops into the snapshot file. Does nothing if a save is
+     * already running.
+     */
+    public static void save() {
+        if (!saving.compareAndSet(false, true))
+            return;
+
+        File file = getFile();
+        File temp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(System.currentTimeMillis());
+
+                List<Job> jobs = Jobs.getJobs();
+                out.writeInt(jobs.size() + 1);
+
+                write(out, "", JobsTop.getGlobal().getEntries());
+                for (Job job : jobs) {
+                    write(out, job.getName(), job.getJobsTop().getEntries());
+                }
+            }
+
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            CMIMessages.consoleMessage("&cFailed to save top snapshot: " + e.getMessage());
+        } finally {
+            saving.set(false);
+        }
+    }
+
+    private static void write(DataOutputStream out, String name, List<topStats> entries) throws IOException {
+        out.writeUTF(name);
+        out.writeInt(entries.size());
+
+        for (topStats one : entries) {
+            out.writeLong(one.uuid.getMostSignificantBits());
+            out.writeLong(one.uuid.getLeastSignificantBits());
+            out.writeInt(one.level);
+            out.writeDouble(one.experience);
+        }
+    }
+
+    /**
+     * Loads the tops from the snapshot file, tops of jobs which no longer
+     * exist are skipped.
+     */
+    public static void load() {
+        File file = getFile();
+        if (!file.isFile())
+            return;
+
+        long time = System.currentTimeMillis();
+        int loaded = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                return;
+
+            in.readLong();
+
+            int tops = in.readInt();
+            for (int i = 0; i < tops; i++) {
+                String name = in.readUTF();
+                int size = in.readInt();
+
+                List<topStats> entries = new ArrayList<>(size);
+                for (int e = 0; e < size; e++) {
+                    UUID uuid = new UUID(in.readLong(), in.readLong());
+                    entries.add(new topStats(uuid, in.readInt(), in.readDouble()));
+                }
+
+                if (name.isEmpty()) {
+                    JobsTop.getGlobal().putEntries(entries);
+                } else {
+                    Job job = Jobs.getJob(name);
+                    if (job == null)
+                        continue;
+
+                    job.getJobsTop().putEntries(entries);
+                }
+
+                loaded += size;
+            }
+        } catch (IOException e) {
+            CMIMessages.consoleMessage("&cFailed to load top snapshot: " + e.getMessage());
+            return;
+        }
+
+        CMIMessages.consoleMessage("&eLoaded &6" + loaded + " &etop entries in &6" + (System.currentTimeMillis() - time) + "ms");
+    }
+
+    /**
+     * Checks the tops against the jobs table on a background thread. This
+     * reads the whole table once after the snapshot is loaded. Players who
+     * are loaded keep their current progress, others are updated to the
+     * stored levels or removed from the tops they are no longer in.
+     */
+    public static void reconcile() {
+        CMIScheduler.runTaskAsynchronously(Jobs.getInstance(), () -> {
+            JobsDAO dao = Jobs.getJobsDAO();
+            if (dao == null)
+                return;
+
+            Map<Integer, List<JobsDAOData>> allJobs = dao.getAllJobs();
+            Map<Job, List<topStats>> stored = new HashMap<>();
+            List<topStats> storedGlobal = new ArrayList<>();
+
+            for (Map.Entry<Integer, List<JobsDAOData>> one : allJobs.entrySet()) {
+                PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(one.getKey());
+                if (info == null || info.getUuid() == null || Jobs.getPlayerManager().getJobsPlayer(info.getUuid()) != null)
+                    continue;
+
+                UUID uuid = info.getUuid();
+                int level = 0;
+                double experience = 0;
+
+                for (JobsDAOData data : one.getValue()) {
+                    Job job = Jobs.getJob(data.getJobName());
+                    if (job == null)
+                        continue;
+
+                    stored.computeIfAbsent(job, k -> new ArrayList<>()).add(new topStats(uuid, data.getLevel(), data.getExperience()));
+
+                    if (data.getLevel() == 1 && data.getExperience() == 0)
+                        continue;
+                    level += data.getLevel();
+                    experience += data.getExperience();
+                }
+
+                if (level == 0 && experience == 0)
+                    continue;
+
+                storedGlobal.add(new topStats(uuid, level, experience));
+            }
+
+            for (Job job : Jobs.getJobs()) {
+                reconcile(job.getJobsTop(), stored.getOrDefault(job, new ArrayList<>()));
+            }
+
+            reconcile(JobsTop.getGlobal(), storedGlobal);
+        });
+    }
+
+    private static void reconcile(JobsTop top, List<topStats> stored) {
+        Set<UUID> uuids = new HashSet<>();
+        for (topStats one : stored) {
+            uuids.add(one.uuid);
+        }
+
+        // Entries of players which are not loaded and have no stored progress
+        Set<UUID> removed = new HashSet<>();
+        for (topStats one : top.getEntries()) {
+            if (!uuids.contains(one.uuid) && Jobs.getPlayerManager().getJobsPlayer(one.uuid) == null)
+                removed.add(one.uuid);
+        }
+
+        top.removeEntries(removed);
+        top.putEntries(stored);
+    }
+}
@@ -27,6 +27,25 @@ public final class Log {
 	amountMap.put(item, logAmount);
     }
 
+    public void add(String item, PaymentVector amounts) {
+	add(item, amounts, 1);
+    }
+
+    /**
+     * Adds the given amounts as the total of several actions of the same item.
+     *
+     * @param item the item name
+     * @param amounts total amounts
+     * @param times how many times the action was done
+     */
+    public void add(String item, PaymentVector amounts, int times) {
+	LogAmounts logAmount = amountMap.get(item);
+	if (logAmount == null)
+	    amountMap.put(item, logAmount = new LogAmounts(item));
+	logAmount.addCount(times);
+	logAmount.add(amounts);
+    }
+
     public void add(String item, int count, Map<CurrencyType, Double> amounts) {
 	LogAmounts logAmount = amountMap.getOrDefault(item, new LogAmounts(item));
 	logAmount.setCount(count);
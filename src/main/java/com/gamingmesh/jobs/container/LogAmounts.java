@@ -1,6 +1,5 @@
 package com.gamingmesh.jobs.container;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -12,7 +11,7 @@ public final class LogAmounts {
     private String item;
     private int count = 0;
 
-    private Map<CurrencyType, Double> amounts = new HashMap<>();
+    private double money, exp, points;
 
     private boolean newEntry = true;
 
@@ -38,21 +37,58 @@ public final class LogAmounts {
 	}
     }
 
+    public void add(PaymentVector amounts) {
+	money += amounts.getMoney();
+	exp += amounts.getExp();
+	points += amounts.getPoints();
+    }
+
     public void add(CurrencyType type, Double amount) {
 	if (amount == null)
 	    return;
 
-	amounts.put(type, amounts.getOrDefault(type, 0D) + amount);
+	switch (type) {
+	case MONEY:
+	    money += amount;
+	    break;
+	case EXP:
+	    exp += amount;
+	    break;
+	case POINTS:
+	    points += amount;
+	    break;
+	default:
+	    break;
+	}
     }
 
     public double get(CurrencyType type) {
-	return ((int) (amounts.getOrDefault(type, 0D) * 100D)) / 100D;
+	double amount;
+	switch (type) {
+	case MONEY:
+	    amount = money;
+	    break;
+	case EXP:
+	    amount = exp;
+	    break;
+	case POINTS:
+	    amount = points;
+	    break;
+	default:
+	    amount = 0D;
+	    break;
+	}
+	return ((int) (amount * 100D)) / 100D;
     }
 
     public void addCount() {
 	this.count++;
     }
 
+    public void addCount(int count) {
+	this.count += count;
+    }
+
     public int getCount() {
 	return count;
     }
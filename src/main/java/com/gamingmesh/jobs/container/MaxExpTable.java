@@ -0,0 +1,68 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.gamingmesh.jobs.stuff.CompiledEquation;
+
+/**
+ * Max experience of a job by level, amount of jobs and max jobs, calculated
+ * from the equation the first time a level is asked for.
+ * <p>
+ * Every combination of the amount of jobs and max jobs the equation depends on
+ * has its own row of levels, which grows when higher levels are reached. Levels
+ * over {@link #MAX_CACHED_LEVEL} are calculated every time.
+ */
+final class MaxExpTable {
+
+    private static final int MAX_CACHED_LEVEL = 10000;
+    private static final int INITIAL_LENGTH = 64;
+
+    private final CompiledEquation equation;
+    private final boolean byNumJobs;
+    private final boolean byMaxJobs;
+
+    private final Map<Long, double[]> rows = new ConcurrentHashMap<>();
+
+    MaxExpTable(CompiledEquation equation) {
+        this.equation = equation;
+        this.byNumJobs = equation.dependsOn(1);
+        this.byMaxJobs = equation.dependsOn(2);
+    }
+
+    double get(int level, int numjobs, int maxjobs) {
+        if (level < 0 || level > MAX_CACHED_LEVEL)
+            return equation.getValue(level, numjobs, maxjobs);
+
+        long key = ((long) (byNumJobs ? numjobs : 0) << 32) | ((byMaxJobs ? maxjobs : 0) & 0xFFFFFFFFL);
+
+        double[] row = rows.get(key);
+        if (row == null || level >= row.length)
+            row = grow(key, level);
+
+        double value = row[level];
+        if (Double.isNaN(value)) {
+            value = equation.getValue(level, numjobs, maxjobs);
+            row[level] = value;
+        }
+
+        return value;
+    }
+
+    private synchronized double[] grow(long key, int level) {
+        double[] row = rows.get(key);
+        if (row != null && level < row.length)
+            return row;
+
+        int length = Math.min(MAX_CACHED_LEVEL + 1, Math.max(level + 1, row == null ? INITIAL_LENGTH : row.length * 2));
+
+        double[] grown = new double[length];
+        Arrays.fill(grown, Double.NaN);
+        if (row != null)
+            System.arraycopy(row, 0, grown, 0, row.length);
+
+        rows.put(key, grown);
+        return grown;
+    }
+}
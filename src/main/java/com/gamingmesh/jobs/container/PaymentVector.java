@@ -0,0 +1,148 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable money, experience and points amounts of a single payment.
+ * <p>
+ * Used in the payment path instead of <code>Map&lt;CurrencyType, Double&gt;</code>
+ * to avoid allocating maps and boxing every amount. {@link #toMap()} and
+ * {@link #of(Map)} convert from and to the map form used by the API events.
+ */
+public final class PaymentVector {
+
+    public static final PaymentVector ZERO = new PaymentVector(0D, 0D, 0D);
+
+    private final double money;
+    private final double exp;
+    private final double points;
+
+    private PaymentVector(double money, double exp, double points) {
+        this.money = money;
+        this.exp = exp;
+        this.points = points;
+    }
+
+    public static PaymentVector of(double money, double exp, double points) {
+        if (money == 0D && exp == 0D && points == 0D)
+            return ZERO;
+
+        return new PaymentVector(money, exp, points);
+    }
+
+    /**
+     * Creates a vector from the given map, missing or null amounts are taken as 0.
+     *
+     * @param payments currency types and amounts, can be null
+     * @return {@link PaymentVector}
+     */
+    public static PaymentVector of(Map<CurrencyType, Double> payments) {
+        if (payments == null || payments.isEmpty())
+            return ZERO;
+
+        return of(value(payments.get(CurrencyType.MONEY)), value(payments.get(CurrencyType.EXP)), value(payments.get(CurrencyType.POINTS)));
+    }
+
+    private static double value(Double amount) {
+        return amount == null ? 0D : amount;
+    }
+
+    public double getMoney() {
+        return money;
+    }
+
+    public double getExp() {
+        return exp;
+    }
+
+    public double getPoints() {
+        return points;
+    }
+
+    public double get(CurrencyType type) {
+        switch (type) {
+        case MONEY:
+            return money;
+        case EXP:
+            return exp;
+        case POINTS:
+            return points;
+        default:
+            return 0D;
+        }
+    }
+
+    /**
+     * @return a copy of this vector with the given amount changed
+     */
+    public PaymentVector with(CurrencyType type, double amount) {
+        switch (type) {
+        case MONEY:
+            return of(amount, exp, points);
+        case EXP:
+            return of(money, amount, points);
+        case POINTS:
+            return of(money, exp, amount);
+        default:
+            return this;
+        }
+    }
+
+    /**
+     * @return the sum of this and the given vector
+     */
+    public PaymentVector add(PaymentVector other) {
+        if (other == null || other == ZERO)
+            return this;
+
+        return of(money + other.money, exp + other.exp, points + other.points);
+    }
+
+    /**
+     * @return true if any of the amounts is not 0
+     */
+    public boolean containsPayment() {
+        return money != 0D || exp != 0D || points != 0D;
+    }
+
+    /**
+     * Converts this vector to a map holding only the amounts which are not 0.
+     *
+     * @return new mutable {@link Map}
+     */
+    public Map<CurrencyType, Double> toMap() {
+        Map<CurrencyType, Double> map = new EnumMap<>(CurrencyType.class);
+        if (money != 0D)
+            map.put(CurrencyType.MONEY, money);
+        if (exp != 0D)
+            map.put(CurrencyType.EXP, exp);
+        if (points != 0D)
+            map.put(CurrencyType.POINTS, points);
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (!(obj instanceof PaymentVector))
+            return false;
+
+        PaymentVector other = (PaymentVector) obj;
+        return Double.compare(money, other.money) == 0 && Double.compare(exp, other.exp) == 0 && Double.compare(points, other.points) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(money);
+        result = 31 * result + Double.hashCode(exp);
+        return 31 * result + Double.hashCode(points);
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentVector{money=" + money + ", exp=" + exp + ", points=" + points + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.gamingmesh.jobs.stuff.CompiledEquation;
+
+/**
+ * Lazily filled table of equation results of a single {@link JobInfo}
+ * currency, indexed by job count and level.
+ * <p>
+ * A row holds every level for one job count and is evaluated in one go the
+ * first time it is needed. Rows are published through an atomic array, so
+ * readers on other threads always see a completely filled row.
+ */
+final class PayoutTable {
+
+    /**
+     * Highest job count which gets its own row, larger counts are evaluated
+     * directly.
+     */
+    private static final int MAX_NUMJOBS = 64;
+
+    private final CompiledEquation equation;
+    private final double base;
+    private final int maxLevel;
+    private final AtomicReferenceArray<double[]> rows = new AtomicReferenceArray<>(MAX_NUMJOBS + 1);
+
+    private PayoutTable(CompiledEquation equation, double base, int maxLevel) {
+        this.equation = equation;
+        this.base = base;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Creates a table for the given equation, if its result does not depend on
+     * the maxjobs variable.
+     *
+     * @param equation equation taking joblevel, numjobs, maxjobs and base value
+     * @param base base value of the currency
+     * @param maxLevel highest level to store
+     * @return {@link PayoutTable} or null if the equation can not be tabulated
+     */
+    static PayoutTable of(CompiledEquation equation, double base, int maxLevel) {
+        if (equation == null || base == 0 || maxLevel <= 0 || equation.dependsOn(2))
+            return null;
+
+        return new PayoutTable(equation, base, maxLevel);
+    }
+
+    /**
+     * @return the stored value or {@link Double#NaN} if the given level or job
+     *         count is out of the table
+     */
+    double get(double level, int numjobs) {
+        int lvl = (int) level;
+        if (lvl != level || lvl < 0 || lvl > maxLevel || numjobs < 0 || numjobs > MAX_NUMJOBS)
+            return Double.NaN;
+
+        double[] row = rows.get(numjobs);
+        if (row == null) {
+            row = new double[maxLevel + 1];
+            for (int i = 0; i <= maxLevel; i++) {
+                row[i] = equation.getValue(i, numjobs, 0, base);
+            }
+
+            // Concurrent builders produce identical rows, whichever is set last wins
+            rows.set(numjobs, row);
+        }
+
+        return row[lvl];
+    }
+}
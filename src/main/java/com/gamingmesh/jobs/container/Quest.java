@@ -31,6 +31,8 @@ public class Quest {
 
     private Map<ActionType, Map<String, QuestObjective>> objectives = new HashMap<>();
     private final Set<ActionType> actions = new HashSet<>();
+    // Lower case names of the restricted areas, same as the keys of the area manager
+    private final Set<String> areaKeys = new HashSet<>();
 
     public Quest(String questName, Job job) {
         setQuestName(questName);
@@ -80,12 +82,25 @@ public class Quest {
 
     public void setRestrictedArea(List<String> area) {
         this.area.clear();
+        areaKeys.clear();
 
         if (area != null) {
             this.area.addAll(area);
+
+            for (String one : area) {
+                areaKeys.add(one.toLowerCase());
+            }
         }
     }
 
+    /**
+     * @return lower case names of the restricted areas where this quest can not
+     *         progress
+     */
+    public Set<String> getRestrictedAreaKeys() {
+        return areaKeys;
+    }
+
     public long getValidUntil() {
         if (validUntil < System.currentTimeMillis()) {
             int hour = Jobs.getGCManager().getResetTimeHour();
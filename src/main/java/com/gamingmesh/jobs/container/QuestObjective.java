@@ -15,6 +15,7 @@ public class QuestObjective {
     private String name;
     private int amount = Integer.MAX_VALUE;
     private ActionType action = null;
+    private ActionKey key;
 
     private String serializedLine = "";
 
@@ -96,6 +97,16 @@ public class QuestObjective {
 
     public void setTargetName(String name) {
         this.name = name;
+        this.key = null;
+    }
+
+    /**
+     * @return interned key of {@link #getTargetName()}
+     */
+    public ActionKey getTargetKey() {
+        if (key == null)
+            key = ActionKey.of(name);
+        return key;
     }
 
     public int getAmount() {
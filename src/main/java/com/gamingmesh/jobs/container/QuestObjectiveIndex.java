@@ -0,0 +1,115 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gamingmesh.jobs.actions.EnchantActionInfo;
+
+/**
+ * Active quest objectives of a player in one job, by action type and target
+ * key, so an action finds the objectives it advances with a map lookup.
+ * <p>
+ * The index is built from the quest progressions of the job and is replaced
+ * when quests are assigned, completed, skipped or reset, or when the first of
+ * the indexed quests ends.
+ */
+final class QuestObjectiveIndex {
+
+    private final Map<ActionType, Map<ActionKey, List<Target>>> objectives = new EnumMap<>(ActionType.class);
+    private long validUntil = Long.MAX_VALUE;
+
+    private static final class Target {
+        private final QuestProgression progression;
+        private final QuestObjective objective;
+
+        private Target(QuestProgression progression, QuestObjective objective) {
+            this.progression = progression;
+            this.objective = objective;
+        }
+    }
+
+    QuestObjectiveIndex(Collection<QuestProgression> progressions) {
+        for (QuestProgression progression : progressions) {
+            // Rewarded quests can not progress anymore
+            if (progression.getQuest() == null || progression.isEnded() || (progression.isGivenReward() && progression.isCompleted()))
+                continue;
+
+            validUntil = Math.min(validUntil, progression.getValidUntil());
+
+            for (Map.Entry<ActionType, Map<String, QuestObjective>> byAction : progression.getObjectives().entrySet()) {
+                Map<ActionKey, List<Target>> byKey = objectives.computeIfAbsent(byAction.getKey(), k -> new HashMap<>());
+
+                for (QuestObjective objective : byAction.getValue().values()) {
+                    List<Target> targets = byKey.computeIfAbsent(objective.getTargetKey(), k -> new ArrayList<>(1));
+
+                    // A quest is listed once for every key
+                    if (!contains(targets, progression))
+                        targets.add(new Target(progression, objective));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if any of the indexed quests ended
+     */
+    boolean isExpired() {
+        return validUntil < System.currentTimeMillis();
+    }
+
+    /**
+     * Progresses the objectives which are advanced by the given action.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     * @param info {@link ActionInfo}
+     * @param amount how many times the action was done
+     */
+    void process(JobsPlayer jPlayer, ActionInfo info, int amount) {
+        Map<ActionKey, List<Target>> byKey = objectives.get(info.getType());
+        if (byKey == null)
+            return;
+
+        ActionKey first;
+        ActionKey second;
+
+        if (info instanceof EnchantActionInfo) {
+            EnchantActionInfo enchant = (EnchantActionInfo) info;
+            first = enchant.getEnchantKey();
+            second = enchant.getEnchantLevelKey();
+        } else {
+            first = info.getNameWithSubKey();
+            second = info.getNameKey();
+        }
+
+        List<Target> targets = byKey.get(first);
+        if (targets != null) {
+            for (Target target : targets) {
+                target.progression.processQuest(jPlayer, target.objective, amount);
+            }
+        }
+
+        if (second == first)
+            return;
+
+        List<Target> others = byKey.get(second);
+        if (others == null)
+            return;
+
+        for (Target target : others) {
+            if (targets == null || !contains(targets, target.progression))
+                target.progression.processQuest(jPlayer, target.objective, amount);
+        }
+    }
+
+    private static boolean contains(List<Target> targets, QuestProgression progression) {
+        for (Target target : targets) {
+            if (target.progression == progression)
+                return true;
+        }
+        return false;
+    }
+}
@@ -2,14 +2,12 @@ package com.gamingmesh.jobs.container;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.bukkit.Bukkit;
 import org.bukkit.event.server.ServerCommandEvent;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.actions.EnchantActionInfo;
-import com.gamingmesh.jobs.stuff.Util;
 
 import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
 
@@ -21,6 +19,8 @@ public class QuestProgression {
     private boolean givenReward = false;
 
     private final Map<QuestObjective, Integer> done = new HashMap<>();
+    // Objectives which did not reach their amount yet, -1 when it has to be counted again
+    private int remaining = -1;
 
     public QuestProgression(Quest quest) {
         this.quest = quest;
@@ -38,6 +38,14 @@ public class QuestProgression {
 
     public void setQuest(Quest quest) {
         this.quest = quest;
+        remaining = -1;
+    }
+
+    /**
+     * @return objectives of the quest this progression was started with
+     */
+    Map<ActionType, Map<String, QuestObjective>> getObjectives() {
+        return quest.getObjectives();
     }
 
     public int getTotalAmountNeeded() {
@@ -54,6 +62,7 @@ public class QuestProgression {
         validUntil = quest.getValidUntil();
         givenReward = false;
         done.clear();
+        remaining = -1;
     }
 
     public int getTotalAmountDone() {
@@ -103,6 +112,7 @@ public class QuestProgression {
 
         done.remove(replaceableObj);
         done.put(globalObj, record);
+        remaining = -1;
         return record;
 
     }
@@ -110,6 +120,7 @@ public class QuestProgression {
     public void setAmountDone(QuestObjective objective, int amountDone) {
         if (quest.hasObjective(objective)) {
             done.put(objective, amountDone);
+            remaining = -1;
         }
     }
 
@@ -130,18 +141,33 @@ public class QuestProgression {
     }
 
     public boolean isCompleted() {
-        for (Map<String, QuestObjective> oneA : quest.getObjectives().values()) {
-            for (QuestObjective one : oneA.values()) {
-                Integer amountDone = done.get(one);
-                if (amountDone == null || amountDone < one.getAmount())
-                    return false;
+        if (remaining < 0) {
+            int count = 0;
+            for (Map<String, QuestObjective> oneA : quest.getObjectives().values()) {
+                for (QuestObjective one : oneA.values()) {
+                    Integer amountDone = done.get(one);
+                    if (amountDone == null || amountDone < one.getAmount())
+                        count++;
+                }
             }
+            remaining = count;
         }
-        return true;
+        return remaining == 0;
     }
 
     public void processQuest(JobsPlayer jPlayer, ActionInfo action) {
-        if (quest.isStopped() || !quest.hasAction(action.getType()))
+        processQuest(jPlayer, action, 1);
+    }
+
+    /**
+     * Processes the given action as done the given amount of times.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     * @param action {@link ActionInfo}
+     * @param amount how many times the action was done
+     */
+    public void processQuest(JobsPlayer jPlayer, ActionInfo action, int amount) {
+        if (amount <= 0 || quest.isStopped() || !quest.hasAction(action.getType()))
             return;
 
         Map<String, QuestObjective> byAction = quest.getObjectives().get(action.getType());
@@ -150,15 +176,25 @@ public class QuestProgression {
         if (byAction != null && objective == null)
             return;
 
+        process(jPlayer, objective, amount);
+    }
+
+    /**
+     * Processes the given objective, which was found for the action by
+     * {@link QuestObjectiveIndex}, as done the given amount of times.
+     */
+    void processQuest(JobsPlayer jPlayer, QuestObjective objective, int amount) {
+        if (amount <= 0 || quest.isStopped())
+            return;
+
+        process(jPlayer, objective, amount);
+    }
+
+    private void process(JobsPlayer jPlayer, QuestObjective objective, int amount) {
         org.bukkit.entity.Player player = jPlayer.getPlayer();
 
-        for (String area : quest.getRestrictedAreas()) {
-            for (Entry<String, RestrictedArea> a : Jobs.getRestrictedAreaManager().getRestrictedAreas().entrySet()) {
-                if (a.getKey().equalsIgnoreCase(area) && a.getValue().inRestrictedArea(player.getLocation())) {
-                    return;
-                }
-            }
-        }
+        if (!quest.getRestrictedAreaKeys().isEmpty() && Jobs.getRestrictedAreaManager().isInAnyArea(player.getLocation(), quest.getRestrictedAreaKeys()))
+            return;
 
         boolean completed = isCompleted();
 
@@ -171,8 +207,12 @@ public class QuestProgression {
         }
 
         if (!completed && objective != null) {
-            Integer old = done.getOrDefault(objective, 0);
-            done.put(objective, old < objective.getAmount() ? old + 1 : objective.getAmount());
+            int old = done.getOrDefault(objective, 0);
+            int now = Math.min(old + amount, objective.getAmount());
+            done.put(objective, now);
+
+            if (old < objective.getAmount() && now >= objective.getAmount() && remaining > 0)
+                remaining--;
         }
 
         jPlayer.setSaved(false);
@@ -184,6 +224,7 @@ public class QuestProgression {
         givenReward = true;
 
         jPlayer.addDoneQuest(questJob);
+        jPlayer.invalidateQuestIndex();
 
         if (quest.getRewardAmount() > 0) {
             Jobs.getEconomy().getEconomy().depositPlayer(player, quest.getRewardAmount());
@@ -209,13 +250,13 @@ public class QuestProgression {
         this.givenReward = givenReward;
     }
 
-    private static boolean objectiveKeyMatches(String objectiveKey, ActionInfo actionInfo) {
+    private static boolean objectiveKeyMatches(ActionKey objectiveKey, ActionInfo actionInfo) {
         if (actionInfo instanceof EnchantActionInfo) {
-            return Util.enchantMatchesActionInfo(objectiveKey, (EnchantActionInfo) actionInfo);
+            EnchantActionInfo enchant = (EnchantActionInfo) actionInfo;
+            return objectiveKey == enchant.getEnchantKey() || objectiveKey == enchant.getEnchantLevelKey();
         }
 
-        return (objectiveKey.equalsIgnoreCase(actionInfo.getNameWithSub()) ||
-            objectiveKey.equalsIgnoreCase(actionInfo.getName()));
+        return objectiveKey == actionInfo.getNameWithSubKey() || objectiveKey == actionInfo.getNameKey();
     }
 
     private QuestObjective objectiveForAction(ActionInfo actionInfo) {
@@ -224,11 +265,9 @@ public class QuestProgression {
             return null;
         }
 
-        for (Map.Entry<String, QuestObjective> objectiveEntry : byAction.entrySet()) {
-            String objectiveKey = objectiveEntry.getKey();
-
-            if (objectiveKeyMatches(objectiveKey, actionInfo)) {
-                return objectiveEntry.getValue();
+        for (QuestObjective objective : byAction.values()) {
+            if (objectiveKeyMatches(objective.getTargetKey(), actionInfo)) {
+                return objective;
             }
         }
 
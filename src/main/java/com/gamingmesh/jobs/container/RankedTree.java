@@ -0,0 +1,214 @@
+package com.gamingmesh.jobs.container;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set which can tell the position of an element and the element at a
+ * position in O(log n).
+ * <p>
+ * Implemented as a treap where every node knows the size of its subtree.
+ * Elements which compare as equal are treated as the same element, so the
+ * comparator should use a unique tie breaker. Not thread safe.
+ *
+ * @param <T> element type
+ */
+public final class RankedTree<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T value) {
+            this.value = value;
+        }
+    }
+
+    public RankedTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Adds the element, replacing an equal one.
+     */
+    public void add(T value) {
+        remove(value);
+
+        Node<T>[] parts = split(root, value);
+        root = merge(merge(parts[0], new Node<>(value)), parts[1]);
+    }
+
+    /**
+     * @return true if an equal element was removed
+     */
+    public boolean remove(T value) {
+        int before = size();
+        root = remove(root, value);
+        return size() != before;
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        if (node == null)
+            return null;
+
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0)
+            return merge(node.left, node.right);
+
+        if (cmp < 0)
+            node.left = remove(node.left, value);
+        else
+            node.right = remove(node.right, value);
+
+        update(node);
+        return node;
+    }
+
+    /**
+     * @return amount of elements before the given one, or -1 if there is no
+     *         equal element
+     */
+    public int indexOf(T value) {
+        int index = 0;
+        Node<T> node = root;
+
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp == 0)
+                return index + size(node.left);
+
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @param index position starting from 0
+     * @return element at the position or null if it is out of range
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size())
+            return null;
+
+        Node<T> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index == leftSize)
+                return node.value;
+
+            if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param from position of the first element, starting from 0
+     * @param amount maximum amount of elements
+     * @return elements in order, starting at the given position
+     */
+    public List<T> getRange(int from, int amount) {
+        List<T> list = new ArrayList<>(Math.max(0, Math.min(amount, size() - from)));
+        if (from < 0 || amount <= 0)
+            return list;
+
+        collect(root, from, from + amount, 0, list);
+        return list;
+    }
+
+    private void collect(Node<T> node, int from, int to, int offset, List<T> list) {
+        if (node == null)
+            return;
+
+        int index = offset + size(node.left);
+
+        if (from < index)
+            collect(node.left, from, to, offset, list);
+
+        if (index >= from && index < to)
+            list.add(node.value);
+
+        if (to > index + 1)
+            collect(node.right, from, to, index + 1, list);
+    }
+
+    /**
+     * Splits the tree to elements lower than the given one and the rest.
+     */
+    private Node<T>[] split(Node<T> node, T value) {
+        if (node == null)
+            return newParts();
+
+        if (comparator.compare(node.value, value) < 0) {
+            Node<T>[] parts = split(node.right, value);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+
+        Node<T>[] parts = split(node.left, value);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<T>[] newParts() {
+        return (Node<T>[]) new Node<?>[2];
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null)
+            return right;
+
+        if (right == null)
+            return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
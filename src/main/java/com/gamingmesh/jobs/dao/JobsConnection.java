@@ -1,75 +1,299 @@
 package com.gamingmesh.jobs.dao;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import com.gamingmesh.jobs.dao.JobsConnectionPool.Lease;
+
+/**
+ * Connection handle shared by all threads. Every thread works on the pooled
+ * connection it borrowed, which is held while it has open statements or an
+ * uncommitted transaction.
+ */
 public class JobsConnection {
-    private Connection conn;
+    private final JobsConnectionPool pool;
 
-    public JobsConnection(Connection conn) {
-	this.conn = conn;
+    JobsConnection(JobsConnectionPool pool) {
+	this.pool = pool;
     }
 
+    /**
+     * @return the connection held by the current thread, or null if it does
+     *         not hold any
+     */
     public Connection getConnection() {
-	return conn;
+	Lease lease = pool.currentLease();
+	return lease == null ? null : lease.connection.connection;
     }
 
-    public synchronized boolean isClosed() {
-	try {
-	    return conn.isClosed();
-	} catch (SQLException e) {
-	    // Assume it's closed
-	    return true;
-	}
+    /**
+     * @return true if the pool was closed, an empty pool still opens new
+     *         connections when needed
+     */
+    public boolean isClosed() {
+	return !pool.isReady();
     }
 
-    public synchronized boolean isValid(int timeout) throws SQLException {
+    public boolean isValid(int timeout) throws SQLException {
+	Lease lease = pool.acquire();
 	try {
-	    return conn.isValid(timeout);
+	    return lease.connection.connection.isValid(timeout);
 	} catch (AbstractMethodError e) {
+	} finally {
+	    pool.release(lease);
 	}
 
 	return true;
     }
 
-    public synchronized void closeConnection() throws SQLException {
-	conn.close();
+    public void closeConnection() throws SQLException {
+	pool.closeConnection();
+    }
+
+    public Statement createStatement() throws SQLException {
+	Lease lease = pool.acquire();
+	try {
+	    return wrap(Statement.class, lease.connection.connection.createStatement(), lease);
+	} catch (SQLException | RuntimeException e) {
+	    pool.release(lease);
+	    throw e;
+	}
     }
 
-    public synchronized Statement createStatement() throws SQLException {        
-	return conn.createStatement();
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+	Lease lease = pool.acquire();
+	try {
+	    return wrap(PreparedStatement.class, lease.connection.prepareStatement(sql), lease);
+	} catch (SQLException | RuntimeException e) {
+	    pool.release(lease);
+	    throw e;
+	}
     }
 
-    public synchronized PreparedStatement prepareStatement(String sql) throws SQLException {
-	return conn.prepareStatement(sql);
+    public PreparedStatement prepareStatement(String sql, int returnGeneratedKeys) throws SQLException {
+	Lease lease = pool.acquire();
+	try {
+	    return wrap(PreparedStatement.class, lease.connection.prepareStatement(sql, returnGeneratedKeys), lease);
+	} catch (SQLException | RuntimeException e) {
+	    pool.release(lease);
+	    throw e;
+	}
     }
 
-    public synchronized PreparedStatement prepareStatement(String sql, int returnGeneratedKeys) throws SQLException {
-	return conn.prepareStatement(sql, returnGeneratedKeys);
+    /**
+     * Disabling auto commit starts a transaction which keeps the connection
+     * until it is committed or auto commit is enabled again.
+     */
+    public void setAutoCommit(Boolean mode) throws SQLException {
+	Lease lease = pool.currentLease();
+
+	if (!mode) {
+	    if (lease != null && lease.transaction)
+		return;
+
+	    lease = pool.acquire();
+	    try {
+		lease.connection.setAutoCommit(false);
+		lease.transaction = true;
+	    } catch (SQLException | RuntimeException e) {
+		pool.release(lease);
+		throw e;
+	    }
+	    return;
+	}
+
+	// Connections are given back with auto commit enabled
+	if (lease == null)
+	    return;
+
+	try {
+	    lease.connection.setAutoCommit(true);
+	} finally {
+	    endTransaction(lease);
+	}
     }
 
-    public synchronized void setAutoCommit(Boolean mode) throws SQLException {
-	conn.setAutoCommit(mode);
+    /**
+     * Commits the transaction of the current thread. Statements which are
+     * still open keep the connection until they are closed.
+     */
+    public void commit() throws SQLException {
+	Lease lease = pool.currentLease();
+	if (lease == null || lease.connection.isAutoCommit())
+	    return;
+
+	try {
+	    lease.connection.connection.commit();
+	} finally {
+	    endTransaction(lease);
+	}
     }
 
-    public synchronized void commit() throws SQLException {
-	if (conn.getAutoCommit()) {
-	    conn.setAutoCommit(false);
-	    conn.commit();
-	    conn.setAutoCommit(true);
-	} else {
-	    conn.commit();
+    private void endTransaction(Lease lease) {
+	if (lease.transaction) {
+	    lease.transaction = false;
+	    pool.release(lease);
 	}
     }
 
-    public synchronized DatabaseMetaData getMetaData() throws SQLException {
-	return conn.getMetaData();
+    /**
+     * Every call on the returned metadata borrows a connection. Calls which
+     * return a result set keep it until the result set is closed.
+     */
+    public DatabaseMetaData getMetaData() {
+	return (DatabaseMetaData) Proxy.newProxyInstance(JobsConnection.class.getClassLoader(), new Class<?>[] { DatabaseMetaData.class }, new MetaDataHandler());
     }
 
-    public synchronized void setClientInfo(String path, String value) throws SQLException {
-	conn.setClientInfo(path, value);
+    public void setClientInfo(String path, String value) throws SQLException {
+	Lease lease = pool.acquire();
+	try {
+	    lease.connection.connection.setClientInfo(path, value);
+	} finally {
+	    pool.release(lease);
+	}
+    }
+
+    private <T extends Statement> T wrap(Class<T> type, Statement statement, Lease lease) {
+	return type.cast(Proxy.newProxyInstance(JobsConnection.class.getClassLoader(), new Class<?>[] { type }, new StatementHandler(statement, lease)));
+    }
+
+    private final class MetaDataHandler implements InvocationHandler {
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+	    switch (method.getName()) {
+	    case "equals":
+		return proxy == args[0];
+	    case "hashCode":
+		return System.identityHashCode(proxy);
+	    default:
+		break;
+	    }
+
+	    Lease lease = pool.acquire();
+	    Object result;
+	    try {
+		result = method.invoke(lease.connection.connection.getMetaData(), args);
+	    } catch (InvocationTargetException e) {
+		pool.release(lease);
+		throw e.getCause();
+	    } catch (RuntimeException e) {
+		pool.release(lease);
+		throw e;
+	    }
+
+	    if (!(result instanceof ResultSet)) {
+		pool.release(lease);
+		return result;
+	    }
+
+	    return Proxy.newProxyInstance(JobsConnection.class.getClassLoader(), new Class<?>[] { ResultSet.class }, new ResultSetHandler((ResultSet) result, lease));
+	}
+    }
+
+    /**
+     * Releases the connection once when the metadata result set is closed.
+     */
+    private final class ResultSetHandler implements InvocationHandler {
+	private final ResultSet resultSet;
+	private final Lease lease;
+	private boolean closed = false;
+
+	private ResultSetHandler(ResultSet resultSet, Lease lease) {
+	    this.resultSet = resultSet;
+	    this.lease = lease;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+	    switch (method.getName()) {
+	    case "close":
+		if (!closed) {
+		    closed = true;
+		    try {
+			resultSet.close();
+		    } finally {
+			pool.release(lease);
+		    }
+		}
+		return null;
+	    case "isClosed":
+		if (closed)
+		    return true;
+		break;
+	    case "equals":
+		return proxy == args[0];
+	    case "hashCode":
+		return System.identityHashCode(proxy);
+	    default:
+		break;
+	    }
+
+	    if (closed)
+		throw new SQLException("Result set is closed");
+
+	    try {
+		return method.invoke(resultSet, args);
+	    } catch (InvocationTargetException e) {
+		throw e.getCause();
+	    }
+	}
+    }
+
+    /**
+     * Gives the statement back to its connection instead of closing it, and
+     * releases the connection once.
+     */
+    private final class StatementHandler implements InvocationHandler {
+	private final Statement statement;
+	private final Lease lease;
+	private boolean closed = false;
+
+	private StatementHandler(Statement statement, Lease lease) {
+	    this.statement = statement;
+	    this.lease = lease;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+	    switch (method.getName()) {
+	    case "close":
+		if (!closed) {
+		    closed = true;
+		    try {
+			lease.connection.recycle(statement);
+		    } finally {
+			pool.release(lease);
+		    }
+		}
+		return null;
+	    case "isClosed":
+		if (closed)
+		    return true;
+		break;
+	    case "equals":
+		return proxy == args[0];
+	    case "hashCode":
+		return System.identityHashCode(proxy);
+	    default:
+		break;
+	    }
+
+	    if (closed)
+		throw new SQLException("Statement is closed");
+
+	    try {
+		return method.invoke(statement, args);
+	    } catch (InvocationTargetException e) {
+		throw e.getCause();
+	    }
+	}
     }
 }
@@ -3,16 +3,80 @@ package com.gamingmesh.jobs.dao;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
 
 import com.gamingmesh.jobs.Jobs;
 
+/**
+ * Bounded pool of database connections.
+ * <p>
+ * Connections are handed out through {@link JobsConnection}, which borrows one
+ * for the current thread when a statement is created or a transaction is
+ * started, and gives it back when the last statement is closed and the
+ * transaction is committed. Nested calls on the same thread use the same
+ * connection. Idle connections are checked in the background instead of every
+ * time they are borrowed, and connections which are held for too long are
+ * reported with the place they were borrowed at.
+ * <p>
+ * SQLite databases always use a single connection, so there is only ever one
+ * writer.
+ */
 public class JobsConnectionPool {
 
-    private JobsConnection connection;
-    private String url;
-    private String username;
-    private String password;
+    private static final long HOUSEKEEPING_PERIOD = 30000L;
+    private static final int NO_KEYS = -1;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean singleConnection;
+
+    private int minSize = 1;
+    private int maxSize = 1;
+    private long connectionTimeout = 30000L;
+    private long mainThreadTimeout = 2000L;
+    private long idleTimeout = 600000L;
+    private long leakThreshold = 60000L;
+    private volatile int statementCacheSize = 64;
+
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> inUse = new HashSet<>();
+    private int opening = 0;
+    private int validating = 0;
+    private int waiting = 0;
+    private int generation = 0;
+    private volatile boolean ready = false;
+
+    private final ThreadLocal<Lease> leases = new ThreadLocal<>();
+    private final JobsConnection connection = new JobsConnection(this);
+    private ScheduledExecutorService housekeeper;
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
 
     public JobsConnectionPool(String driverName, String url, String username, String password) throws InstantiationException, IllegalAccessException, ClassNotFoundException, SQLException {
 	Driver driver = (Driver) Class.forName(driverName, true, Jobs.getJobsClassloader()).newInstance();
@@ -21,29 +85,561 @@ public class JobsConnectionPool {
 	this.url = url;
 	this.username = username;
 	this.password = password;
+	this.singleConnection = url.startsWith("jdbc:sqlite:");
+    }
+
+    /**
+     * Changes the pool settings. SQLite pools keep a single connection
+     * regardless of the given sizes.
+     *
+     * @param minSize connections which are kept open
+     * @param maxSize connections which can be open at once
+     * @param connectionTimeout milliseconds to wait for a free connection
+     * @param mainThreadTimeout milliseconds the main server thread waits for a
+     *            free connection, at most the connection timeout
+     * @param idleTimeout milliseconds after which unused connections over the
+     *            minimum size are closed
+     * @param leakThreshold milliseconds after which a held connection is
+     *            reported, 0 to disable
+     * @param statementCacheSize prepared statements kept open per connection,
+     *            0 to disable
+     */
+    public void configure(int minSize, int maxSize, long connectionTimeout, long mainThreadTimeout, long idleTimeout, long leakThreshold, int statementCacheSize) {
+	List<PooledConnection> closing = new ArrayList<>();
+
+	synchronized (this) {
+	    this.maxSize = singleConnection ? 1 : Math.max(1, maxSize);
+	    this.minSize = Math.max(1, Math.min(minSize, this.maxSize));
+	    this.connectionTimeout = Math.max(1000L, connectionTimeout);
+	    this.mainThreadTimeout = Math.max(0L, Math.min(mainThreadTimeout, this.connectionTimeout));
+	    this.idleTimeout = Math.max(HOUSEKEEPING_PERIOD, idleTimeout);
+	    this.leakThreshold = Math.max(0L, leakThreshold);
+	    this.statementCacheSize = Math.max(0, statementCacheSize);
+
+	    // Connections over the new maximum size
+	    while (getTotalConnections() > this.maxSize && !idle.isEmpty()) {
+		closing.add(idle.pollLast());
+	    }
+	    notifyAll();
+	}
+
+	for (PooledConnection one : closing) {
+	    one.close();
+	}
+    }
+
+    /**
+     * Makes sure the database can be reached.
+     *
+     * @return connection handle shared by all threads
+     * @throws SQLException if no connection could be opened
+     */
+    public JobsConnection getConnection() throws SQLException {
+	if (!ready) {
+	    Lease lease = acquire();
+	    release(lease);
+
+	    synchronized (this) {
+		if (housekeeper == null) {
+		    housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Jobs-ConnectionPool");
+			thread.setDaemon(true);
+			return thread;
+		    });
+		    housekeeper.scheduleWithFixedDelay(this::housekeeping, HOUSEKEEPING_PERIOD, HOUSEKEEPING_PERIOD, TimeUnit.MILLISECONDS);
+		}
+		ready = true;
+	    }
+	}
+
+	return connection;
+    }
+
+    /**
+     * Closes all connections. Connections which are in use are closed when
+     * they are given back, new ones are opened when needed again.
+     */
+    public void closeConnection() {
+	List<PooledConnection> closing;
+
+	synchronized (this) {
+	    ready = false;
+	    generation++;
+	    closing = new ArrayList<>(idle);
+	    idle.clear();
+
+	    if (housekeeper != null) {
+		housekeeper.shutdownNow();
+		housekeeper = null;
+	    }
+	    notifyAll();
+	}
+
+	for (PooledConnection one : closing) {
+	    one.close();
+	}
+    }
+
+    /**
+     * @return connection held by the current thread or null if there is none
+     */
+    Lease currentLease() {
+	Lease lease = leases.get();
+	return lease != null && lease.holds > 0 ? lease : null;
+    }
+
+    /**
+     * Borrows a connection for the current thread, or adds a hold to the one
+     * it already has.
+     */
+    Lease acquire() throws SQLException {
+	Lease lease = leases.get();
+	// A lease released by another thread is not usable anymore
+	if (lease != null && lease.holds > 0) {
+	    lease.holds++;
+	    return lease;
+	}
+
+	lease = new Lease(borrow());
+	leases.set(lease);
+	return lease;
+    }
+
+    /**
+     * Removes a hold, the connection is given back when there are none left.
+     */
+    void release(Lease lease) {
+	if (--lease.holds > 0)
+	    return;
+
+	if (leases.get() == lease)
+	    leases.remove();
+
+	giveBack(lease.connection);
+    }
+
+    private PooledConnection borrow() throws SQLException {
+	long start = System.nanoTime();
+
+	synchronized (this) {
+	    // The server does not tick while the main thread waits
+	    long timeout = Bukkit.isPrimaryThread() ? mainThreadTimeout : connectionTimeout;
+	    long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+	    while (true) {
+		PooledConnection pc;
+		while ((pc = idle.pollFirst()) != null) {
+		    if (pc.generation == generation && !pc.isClosed()) {
+			markInUse(pc, start);
+			return pc;
+		    }
+		    pc.close();
+		}
+
+		if (getTotalConnections() < maxSize) {
+		    opening++;
+		    break;
+		}
+
+		long left = deadline - System.nanoTime();
+		if (left <= 0L) {
+		    timeouts.incrementAndGet();
+		    throw new SQLException("Timed out after " + timeout + "ms waiting for a database connection, " + inUse.size() + " in use");
+		}
+
+		waiting++;
+		try {
+		    wait(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(left)));
+		} catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    throw new SQLException("Interrupted while waiting for a database connection", e);
+		} finally {
+		    waiting--;
+		}
+	    }
+	}
+
+	PooledConnection pc;
+	try {
+	    pc = open();
+	} catch (SQLException | RuntimeException e) {
+	    synchronized (this) {
+		opening--;
+		notifyAll();
+	    }
+	    throw e;
+	}
+
+	synchronized (this) {
+	    opening--;
+	    markInUse(pc, start);
+	}
+	return pc;
+    }
+
+    private void markInUse(PooledConnection pc, long start) {
+	inUse.add(pc);
+	pc.borrowedAt = System.currentTimeMillis();
+	pc.borrowedBy = leakThreshold > 0L ? new Throwable("Database connection borrowed by " + Thread.currentThread().getName()) : null;
+	pc.leakReported = false;
+
+	borrowed.incrementAndGet();
+	waitTime.addAndGet(System.nanoTime() - start);
+    }
+
+    private PooledConnection open() throws SQLException {
+	Connection conn = DriverManager.getConnection(url, username, password);
+	created.incrementAndGet();
+
+	synchronized (this) {
+	    return new PooledConnection(conn, generation);
+	}
     }
 
-    public synchronized JobsConnection getConnection() throws SQLException {
-	if (this.connection != null && (this.connection.isClosed() || !this.connection.isValid(1))) {
+    private void giveBack(PooledConnection pc) {
+	boolean usable = pc.resetAutoCommit();
+
+	synchronized (this) {
+	    inUse.remove(pc);
+	    pc.borrowedBy = null;
+
+	    if (usable && pc.generation == generation && !pc.isClosed()) {
+		pc.lastUsed = System.currentTimeMillis();
+		idle.offerFirst(pc);
+		notify();
+		return;
+	    }
+	    notifyAll();
+	}
+
+	pc.close();
+    }
+
+    /**
+     * Closes connections which were not used for a while, checks idle ones,
+     * keeps the minimum amount open and reports connections which are held
+     * for too long.
+     */
+    private void housekeeping() {
+	long now = System.currentTimeMillis();
+	List<PooledConnection> closing = new ArrayList<>();
+	List<PooledConnection> checking = new ArrayList<>();
+	List<PooledConnection> leaked = new ArrayList<>();
+
+	synchronized (this) {
+	    // Least recently used connections are at the end
+	    Iterator<PooledConnection> it = idle.descendingIterator();
+	    while (it.hasNext()) {
+		PooledConnection pc = it.next();
+		if (now - pc.lastUsed < HOUSEKEEPING_PERIOD)
+		    continue;
+
+		it.remove();
+		if (now - pc.lastUsed >= idleTimeout && getTotalConnections() + checking.size() >= minSize)
+		    closing.add(pc);
+		else
+		    checking.add(pc);
+	    }
+	    validating += checking.size();
+
+	    if (leakThreshold > 0L) {
+		for (PooledConnection pc : inUse) {
+		    if (!pc.leakReported && pc.borrowedBy != null && now - pc.borrowedAt >= leakThreshold) {
+			pc.leakReported = true;
+			leaked.add(pc);
+		    }
+		}
+	    }
+	}
+
+	for (PooledConnection pc : closing) {
+	    pc.close();
+	}
+
+	for (PooledConnection pc : leaked) {
+	    leaks.incrementAndGet();
+	    Throwable borrowedBy = pc.borrowedBy;
+	    if (borrowedBy != null)
+		Jobs.getPluginLogger().log(Level.WARNING, "Database connection is held for " + (now - pc.borrowedAt) + "ms, it was probably not given back", borrowedBy);
+	}
+
+	for (PooledConnection pc : checking) {
+	    boolean valid = pc.isValid();
+
+	    synchronized (this) {
+		validating--;
+		if (valid && pc.generation == generation) {
+		    idle.offerLast(pc);
+		    notify();
+		    continue;
+		}
+	    }
+
+	    pc.close();
+	}
+
+	fill();
+    }
+
+    private void fill() {
+	while (true) {
+	    synchronized (this) {
+		if (!ready || getTotalConnections() >= minSize)
+		    return;
+		opening++;
+	    }
+
+	    PooledConnection pc = null;
 	    try {
-		this.connection.closeConnection();
+		pc = open();
 	    } catch (SQLException e) {
+		Jobs.getPluginLogger().warning("Unable to open database connection: " + e.getMessage());
 	    }
-	    this.connection = null;
+
+	    synchronized (this) {
+		opening--;
+		if (pc == null)
+		    return;
+
+		if (pc.generation == generation) {
+		    pc.lastUsed = System.currentTimeMillis();
+		    idle.offerLast(pc);
+		    notify();
+		    continue;
+		}
+	    }
+
+	    pc.close();
+	    return;
 	}
-	if (this.connection == null) {
-	    Connection conn = DriverManager.getConnection(this.url, this.username, this.password);
-	    this.connection = new JobsConnection(conn);
+    }
+
+    /**
+     * @return false until the first connection was opened and after the pool
+     *         was closed
+     */
+    boolean isReady() {
+	return ready;
+    }
+
+    public synchronized int getTotalConnections() {
+	return inUse.size() + idle.size() + opening + validating;
+    }
+
+    public synchronized int getActiveConnections() {
+	return inUse.size();
+    }
+
+    public synchronized int getIdleConnections() {
+	return idle.size();
+    }
+
+    public synchronized int getWaitingThreads() {
+	return waiting;
+    }
+
+    public synchronized int getMinSize() {
+	return minSize;
+    }
+
+    public synchronized int getMaxSize() {
+	return maxSize;
+    }
+
+    /**
+     * @return how many times a connection was borrowed
+     */
+    public long getBorrowCount() {
+	return borrowed.get();
+    }
+
+    /**
+     * @return average time in milliseconds spent borrowing a connection
+     */
+    public double getAverageWaitTime() {
+	long count = borrowed.get();
+	return count == 0L ? 0D : waitTime.get() / 1000000D / count;
+    }
+
+    /**
+     * @return how many connections were opened
+     */
+    public long getCreatedCount() {
+	return created.get();
+    }
+
+    public long getTimeoutCount() {
+	return timeouts.get();
+    }
+
+    public long getLeakCount() {
+	return leaks.get();
+    }
+
+    public long getStatementCacheHits() {
+	return statementHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+	return statementMisses.get();
+    }
+
+    /**
+     * Connection borrowed by a thread with the amount of open statements and
+     * transactions using it.
+     */
+    static final class Lease {
+	final PooledConnection connection;
+	int holds = 1;
+	boolean transaction = false;
+
+	private Lease(PooledConnection connection) {
+	    this.connection = connection;
 	}
-	return this.connection;
     }
 
-    public synchronized void closeConnection() {
-	if (this.connection != null)
+    /**
+     * Open database connection with its prepared statements.
+     */
+    final class PooledConnection {
+	final Connection connection;
+	private final int generation;
+
+	private long lastUsed;
+	private long borrowedAt;
+	private Throwable borrowedBy;
+	private boolean leakReported;
+	private boolean autoCommit = true;
+
+	private final Map<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75F, true) {
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+		if (size() <= statementCacheSize)
+		    return false;
+
+		// Statements in use are closed when they are given back
+		if (!statementsInUse.contains(eldest.getValue()))
+		    closeQuietly(eldest.getValue());
+		return true;
+	    }
+	};
+	private final Set<Statement> statementsInUse = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private PooledConnection(Connection connection, int generation) {
+	    this.connection = connection;
+	    this.generation = generation;
+	    this.lastUsed = System.currentTimeMillis();
+	}
+
+	PreparedStatement prepareStatement(String sql) throws SQLException {
+	    return prepareStatement(sql, NO_KEYS);
+	}
+
+	PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+	    String key = autoGeneratedKeys + ":" + sql;
+
+	    PreparedStatement statement = statementCacheSize > 0 ? statements.get(key) : null;
+	    if (statement != null && !statementsInUse.contains(statement)) {
+		statementHits.incrementAndGet();
+		statementsInUse.add(statement);
+		return statement;
+	    }
+
+	    statementMisses.incrementAndGet();
+	    statement = autoGeneratedKeys == NO_KEYS ? connection.prepareStatement(sql) : connection.prepareStatement(sql, autoGeneratedKeys);
+
+	    if (statementCacheSize > 0 && !statements.containsKey(key)) {
+		statements.put(key, statement);
+		statementsInUse.add(statement);
+	    }
+	    return statement;
+	}
+
+	/**
+	 * Keeps cached statements open for the next use and closes others.
+	 */
+	void recycle(Statement statement) {
+	    if (!statementsInUse.remove(statement) || !statements.containsValue(statement)) {
+		closeQuietly(statement);
+		return;
+	    }
+
+	    try {
+		PreparedStatement prepared = (PreparedStatement) statement;
+		prepared.clearParameters();
+		prepared.clearBatch();
+	    } catch (SQLException e) {
+		statements.values().remove(statement);
+		closeQuietly(statement);
+	    }
+	}
+
+	void setAutoCommit(boolean autoCommit) throws SQLException {
+	    connection.setAutoCommit(autoCommit);
+	    this.autoCommit = autoCommit;
+	}
+
+	boolean isAutoCommit() {
+	    return autoCommit;
+	}
+
+	/**
+	 * Commits what is left of a transaction before the connection is
+	 * given back.
+	 *
+	 * @return false if the connection can not be used anymore
+	 */
+	private boolean resetAutoCommit() {
+	    if (autoCommit)
+		return true;
+
 	    try {
-		this.connection.closeConnection();
+		setAutoCommit(true);
+		return true;
 	    } catch (SQLException e) {
-		e.printStackTrace();
+		return false;
 	    }
+	}
+
+	private boolean isValid() {
+	    try {
+		return connection.isValid(1);
+	    } catch (AbstractMethodError e) {
+		return !isClosed();
+	    } catch (SQLException e) {
+		return false;
+	    }
+	}
+
+	private boolean isClosed() {
+	    try {
+		return connection.isClosed();
+	    } catch (SQLException e) {
+		// Assume it's closed
+		return true;
+	    }
+	}
+
+	private void close() {
+	    for (PreparedStatement one : statements.values()) {
+		closeQuietly(one);
+	    }
+	    statements.clear();
+	    statementsInUse.clear();
+
+	    try {
+		connection.close();
+	    } catch (SQLException e) {
+	    }
+	}
+    }
+
+    private static void closeQuietly(Statement statement) {
+	try {
+	    statement.close();
+	} catch (SQLException e) {
+	}
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.gamingmesh.jobs.dao;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -16,8 +17,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -57,7 +57,11 @@ import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
 
 public abstract class JobsDAO {
 
+    private static final int BATCH_SIZE = 500;
+
     private JobsConnectionPool pool;
+    private final JobsSaveQueue saveQueue = new JobsSaveQueue(this);
+    private final AtomicLong mainThreadAccess = new AtomicLong();
     private static String prefix;
     private Jobs plugin;
 
@@ -1229,6 +1233,11 @@ public abstract class JobsDAO {
         } finally {
             close(prestt);
             close(res2);
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -1261,6 +1270,11 @@ public abstract class JobsDAO {
         } finally {
             close(prestt);
             close(res2);
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -1342,12 +1356,8 @@ public abstract class JobsDAO {
      * Get player count for a job.
      * @return total amount of player currently working.
      */
-    public synchronized int getTotalPlayers() {
-        int total = 0;
-        for (Job one : Jobs.getJobs()) {
-            total += one.getTotalPlayers();
-        }
-        return total;
+    public int getTotalPlayers() {
+        return Jobs.getWorkerCountManager().getTotal();
     }
 
     /**
@@ -1390,7 +1400,7 @@ public abstract class JobsDAO {
     }
 
     public void recordPlayersLimitsAsync(JobsPlayer player) {
-        this.service.execute(() -> recordPlayersLimits(player));
+        saveQueue.execute(() -> recordPlayersLimits(player));
     }
 
     public synchronized void recordPlayersLimits(JobsPlayer jPlayer) {
@@ -1973,10 +1983,8 @@ public abstract class JobsDAO {
         }
     }
 
-    private final ExecutorService service = Executors.newCachedThreadPool();
-
     public void saveAsync(JobsPlayer player) {
-        this.service.execute(() -> save(player));
+        saveQueue.execute(() -> save(player));
     }
 
     /**
@@ -2008,8 +2016,307 @@ public abstract class JobsDAO {
         }
     }
 
+    /**
+     * Saves jobs, user data, points, limits and logs of the given players in
+     * one transaction, with one batch for each statement.
+     *
+     * @param players players to save
+     * @return false if nothing was saved
+     */
+    public boolean saveBatch(List<JobsPlayer> players) {
+        // Players who are not in the database yet need their id first
+        for (JobsPlayer player : players) {
+            if (player.getUserId() == -1)
+                insertPlayer(player);
+        }
+
+        JobsConnection conn = getConnection();
+        if (conn == null)
+            return false;
+
+        List<LogAmounts> newLogs = new ArrayList<>();
+        try {
+            conn.setAutoCommit(false);
+
+            saveJobsBatch(conn, players);
+            saveUsersBatch(conn, players);
+            savePointsBatch(conn, players);
+            saveLimitsBatch(conn, players);
+            saveLogBatch(conn, players, newLogs);
+
+            conn.commit();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            try {
+                Connection connection = conn.getConnection();
+                if (connection != null)
+                    connection.rollback();
+            } catch (SQLException ex) {
+            }
+            return false;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+
+        // Only marked after commit, so a failed save inserts them again
+        for (LogAmounts one : newLogs) {
+            one.setNewEntry(false);
+        }
+        return true;
+    }
+
+    private void saveJobsBatch(JobsConnection conn, List<JobsPlayer> players) throws SQLException {
+        PreparedStatement prest = null;
+        try {
+            prest = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.level.getCollumn() + "` = ?, `" + JobsTableFields.experience.getCollumn()
+                + "` = ? WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `" + JobsTableFields.jobid.getCollumn() + "` = ? "
+                + "OR `" + JobsTableFields.userid.getCollumn() + "` = ? AND `" + JobsTableFields.jobid.getCollumn() + "` = ?;");
+            int count = 0;
+            for (JobsPlayer player : players) {
+                if (player.getUserId() == -1)
+                    continue;
+
+                for (JobProgression progression : player.getJobProgression()) {
+                    prest.setInt(1, progression.getLevel());
+                    prest.setDouble(2, progression.getExperience());
+                    prest.setInt(3, player.getUserId());
+                    prest.setInt(4, progression.getJob().getId());
+                    prest.setInt(5, player.getUserId());
+                    prest.setInt(6, progression.getJob().getLegacyId());
+                    prest.addBatch();
+                    count = executeBatch(prest, count);
+                }
+            }
+            prest.executeBatch();
+        } finally {
+            close(prest);
+        }
+    }
+
+    private void saveUsersBatch(JobsConnection conn, List<JobsPlayer> players) throws SQLException {
+        String query = "UPDATE `" + DBTables.UsersTable.getTableName() + "` SET `" + UserTableFields.seen.getCollumn()
+            + "` = ?, `" + UserTableFields.username.getCollumn()
+            + "` = ?, `" + UserTableFields.donequests.getCollumn()
+            + "` = ?, `" + UserTableFields.quests.getCollumn();
+
+        PreparedStatement prest = null;
+        PreparedStatement prestOptions = null;
+        try {
+            prest = conn.prepareStatement(query + "` = ? WHERE `id` = ?;");
+            prestOptions = conn.prepareStatement(query + "` = ?, `" + UserTableFields.messageOptions.getCollumn() + "` = ? WHERE `id` = ?;");
+
+            long time = System.currentTimeMillis();
+            int count = 0, countOptions = 0;
+            for (JobsPlayer player : players) {
+                if (player.getUserId() == -1)
+                    continue;
+
+                Integer options = ToggleBarHandling.getPlayerOptionsAsInt(player.getUniqueId());
+                PreparedStatement one = options != null ? prestOptions : prest;
+
+                one.setLong(1, time);
+                one.setString(2, player.getName());
+                one.setInt(3, player.getDoneQuests());
+                one.setString(4, player.getQuestProgressionString());
+                // Only recording options if its not null
+                if (options != null) {
+                    one.setInt(5, options);
+                    one.setInt(6, player.getUserId());
+                    one.addBatch();
+                    countOptions = executeBatch(one, countOptions);
+                } else {
+                    one.setInt(5, player.getUserId());
+                    one.addBatch();
+                    count = executeBatch(one, count);
+                }
+            }
+            prest.executeBatch();
+            prestOptions.executeBatch();
+        } finally {
+            close(prest);
+            close(prestOptions);
+        }
+    }
+
+    private void savePointsBatch(JobsConnection conn, List<JobsPlayer> players) throws SQLException {
+        PreparedStatement delete = null;
+        PreparedStatement insert = null;
+        PreparedStatement update = null;
+        try {
+            delete = conn.prepareStatement("DELETE FROM `" + DBTables.PointsTable.getTableName() + "` WHERE `" + PointsTableFields.userid.getCollumn() + "` = ?;");
+            insert = conn.prepareStatement("INSERT INTO `" + DBTables.PointsTable.getTableName() + "` (`" + PointsTableFields.totalpoints.getCollumn() + "`, `"
+                + PointsTableFields.currentpoints.getCollumn() + "`, `" + PointsTableFields.userid.getCollumn() + "`) VALUES (?, ?, ?);");
+            update = conn.prepareStatement("UPDATE `" + DBTables.PointsTable.getTableName() + "` SET `" + PointsTableFields.totalpoints.getCollumn()
+                + "` = ?, `" + PointsTableFields.currentpoints.getCollumn() + "` = ? WHERE `id` = ?;");
+
+            int inserts = 0, updates = 0;
+            for (JobsPlayer player : players) {
+                if (player.getUserId() == -1)
+                    continue;
+
+                PlayerPoints pointInfo = player.getPointsData();
+
+                if (pointInfo.getDbId() == 0) {
+                    // This needs to exist, removing existing entry by user id unless we have actual line id
+                    delete.setInt(1, player.getUserId());
+                    delete.addBatch();
+
+                    insert.setDouble(1, pointInfo.getTotalPoints());
+                    insert.setDouble(2, pointInfo.getCurrentPoints());
+                    insert.setInt(3, player.getUserId());
+                    insert.addBatch();
+
+                    if (++inserts % BATCH_SIZE == 0) {
+                        delete.executeBatch();
+                        insert.executeBatch();
+                    }
+                } else {
+                    update.setDouble(1, pointInfo.getTotalPoints());
+                    update.setDouble(2, pointInfo.getCurrentPoints());
+                    update.setInt(3, pointInfo.getDbId());
+                    update.addBatch();
+                    updates = executeBatch(update, updates);
+                }
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+            update.executeBatch();
+        } finally {
+            close(delete);
+            close(insert);
+            close(update);
+        }
+    }
+
+    private void saveLimitsBatch(JobsConnection conn, List<JobsPlayer> players) throws SQLException {
+        PreparedStatement delete = null;
+        PreparedStatement insert = null;
+        try {
+            delete = conn.prepareStatement("DELETE FROM `" + DBTables.LimitsTable.getTableName() + "` WHERE `" + LimitTableFields.userid.getCollumn() + "` = ?;");
+            insert = conn.prepareStatement("INSERT INTO `" + DBTables.LimitsTable.getTableName() + "` (`" +
+                LimitTableFields.userid.getCollumn() + "`, `" +
+                LimitTableFields.typeid.getCollumn() + "`, `" +
+                LimitTableFields.collected.getCollumn() + "`, `" +
+                LimitTableFields.started.getCollumn() + "`, `" +
+                LimitTableFields.type.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
+
+            int deletes = 0, inserts = 0;
+            for (JobsPlayer player : players) {
+                // Limits which were never loaded did not change
+                if (player.getUserId() == -1 || !player.hasPaymentLimit())
+                    continue;
+
+                delete.setInt(1, player.getUserId());
+                delete.addBatch();
+                deletes = executeBatch(delete, deletes);
+
+                PaymentData limit = player.getPaymentLimit();
+                for (CurrencyType type : CurrencyType.values()) {
+                    if (limit.getAmount(type) == 0D || limit.getLeftTime(type) < 0)
+                        continue;
+
+                    insert.setInt(1, player.getUserId());
+                    insert.setInt(2, type.getId());
+                    insert.setDouble(3, limit.getAmount(type));
+                    insert.setLong(4, limit.getTime(type));
+                    insert.setString(5, type.toString());
+                    insert.addBatch();
+
+                    if (++inserts >= BATCH_SIZE) {
+                        // Deletes of these players go first
+                        delete.executeBatch();
+                        deletes = 0;
+                        insert.executeBatch();
+                        inserts = 0;
+                    }
+                }
+            }
+            // Deletes go first, so the new limits are not removed
+            delete.executeBatch();
+            insert.executeBatch();
+        } finally {
+            close(delete);
+            close(insert);
+        }
+    }
+
+    private void saveLogBatch(JobsConnection conn, List<JobsPlayer> players, List<LogAmounts> newLogs) throws SQLException {
+        PreparedStatement update = null;
+        PreparedStatement insert = null;
+        try {
+            update = conn.prepareStatement("UPDATE `" + DBTables.LogTable.getTableName()
+                + "` SET `" + LogTableFields.count.getCollumn() + "` = ?, `" + LogTableFields.money.getCollumn() + "` = ?, `" + LogTableFields.exp.getCollumn()
+                + "` = ?, `" + LogTableFields.points.getCollumn() + "` = ? WHERE `" + LogTableFields.userid.getCollumn() + "` = ? AND `" + LogTableFields.time.getCollumn()
+                + "` = ? AND `" + LogTableFields.action.getCollumn() + "` = ? AND `" + LogTableFields.itemname.getCollumn() + "` = ?;");
+            insert = conn.prepareStatement("INSERT INTO `" + DBTables.LogTable.getTableName()
+                + "` (`" + LogTableFields.userid.getCollumn() + "`, `" + LogTableFields.time.getCollumn() + "`, `" + LogTableFields.action.getCollumn()
+                + "`, `" + LogTableFields.itemname.getCollumn() + "`, `" + LogTableFields.count.getCollumn() + "`, `" + LogTableFields.money.getCollumn()
+                + "`, `" + LogTableFields.exp.getCollumn() + "`, `" + LogTableFields.points.getCollumn() + "`) VALUES (?, ?, ?, ?, ?, ?, ?, ?);");
+
+            int updates = 0, inserts = 0;
+            for (JobsPlayer player : players) {
+                if (player.getUserId() == -1)
+                    continue;
+
+                for (Log log : player.getLog().values()) {
+                    for (Entry<String, LogAmounts> one : log.getAmountList().entrySet()) {
+                        LogAmounts amounts = one.getValue();
+
+                        if (amounts.isNewEntry()) {
+                            insert.setInt(1, player.getUserId());
+                            insert.setInt(2, log.getDate());
+                            insert.setString(3, log.getActionType());
+                            insert.setString(4, one.getKey());
+                            insert.setInt(5, amounts.getCount());
+                            insert.setDouble(6, amounts.get(CurrencyType.MONEY));
+                            insert.setDouble(7, amounts.get(CurrencyType.EXP));
+                            insert.setDouble(8, amounts.get(CurrencyType.POINTS));
+                            insert.addBatch();
+                            inserts = executeBatch(insert, inserts);
+                            newLogs.add(amounts);
+                            continue;
+                        }
+
+                        update.setInt(1, amounts.getCount());
+                        update.setDouble(2, amounts.get(CurrencyType.MONEY));
+                        update.setDouble(3, amounts.get(CurrencyType.EXP));
+                        update.setDouble(4, amounts.get(CurrencyType.POINTS));
+                        update.setInt(5, player.getUserId());
+                        update.setInt(6, log.getDate());
+                        update.setString(7, log.getActionType());
+                        update.setString(8, one.getKey());
+                        update.addBatch();
+                        updates = executeBatch(update, updates);
+                    }
+                }
+            }
+            update.executeBatch();
+            insert.executeBatch();
+        } finally {
+            close(update);
+            close(insert);
+        }
+    }
+
+    /**
+     * Sends the batch once it holds {@link #BATCH_SIZE} statements.
+     *
+     * @return amount of statements added since the batch was sent
+     */
+    private static int executeBatch(PreparedStatement prest, int count) throws SQLException {
+        if (++count < BATCH_SIZE)
+            return count;
+
+        prest.executeBatch();
+        return 0;
+    }
+
     public void updateSeenAsync(JobsPlayer player) {
-        this.service.execute(() -> updateSeen(player));
+        saveQueue.execute(() -> updateSeen(player));
     }
 
     public void updateSeen(JobsPlayer player) {
@@ -2123,7 +2430,7 @@ public abstract class JobsDAO {
     }
 
     public void savePointsAsync(JobsPlayer player) {
-        this.service.execute(() -> savePoints(player));
+        saveQueue.execute(() -> savePoints(player));
     }
 
     public void savePoints(JobsPlayer jPlayer) {
@@ -2205,7 +2512,7 @@ public abstract class JobsDAO {
     }
 
     public void saveLogAsync(JobsPlayer player) {
-        this.service.execute(() -> saveLog(player));
+        saveQueue.execute(() -> saveLog(player));
     }
 
     /**
@@ -2897,6 +3204,9 @@ public abstract class JobsDAO {
     }
 
     protected JobsConnection getConnection() {
+        if (Bukkit.isPrimaryThread())
+            mainThreadAccess.incrementAndGet();
+
         try {
             return isConnected() ? pool.getConnection() : null;
         } catch (SQLException e) {
@@ -2905,6 +3215,22 @@ public abstract class JobsDAO {
         }
     }
 
+    /**
+     * @return the connection pool, or null if the database driver could not be
+     *         loaded
+     */
+    public JobsConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    /**
+     * @return how many times a database connection was requested on the main
+     *         server thread, used to find queries which block the server
+     */
+    public long getMainThreadAccessCount() {
+        return mainThreadAccess.get();
+    }
+
     public synchronized void vacuum() {
         if (dbType != DataBaseType.SqLite)
             return;
@@ -2922,10 +3248,20 @@ public abstract class JobsDAO {
         }
     }
 
+    /**
+     * @return queue of players waiting to be saved
+     */
+    public JobsSaveQueue getSaveQueue() {
+        return saveQueue;
+    }
+
     /**
      * Close all active database handles
      */
     public void closeConnections() {
+        // Pending saves are written before the connections are closed
+        saveQueue.shutdown();
+
         pool.closeConnection();
     }
 
@@ -66,6 +66,7 @@ public class JobsManager {
     private String username = "root", password = "", hostname = "localhost:3306", database = "minecraft", prefix = "jobs_",
 	characterEncoding = "utf8", encoding = "UTF-8";
     private boolean certificate = false, ssl = false, autoReconnect = false;
+    private int poolMinSize = 2, poolMaxSize = 6, poolConnectionTimeout = 30, poolMainThreadTimeout = 2, poolIdleTimeout = 600, poolLeakDetection = 60, poolStatementCache = 64;
 
     public void start() {
 
@@ -92,6 +93,22 @@ public class JobsManager {
 	characterEncoding = c.get("mysql.characterEncoding", "utf8");
 	encoding = c.get("mysql.encoding", "UTF-8");
 
+	c.addComment("mysql.pool.min-size", "Amount of connections which are kept open", "SQLite always uses a single connection");
+	poolMinSize = c.get("mysql.pool.min-size", 2);
+	c.addComment("mysql.pool.max-size", "Maximum amount of connections which can be open at once");
+	poolMaxSize = c.get("mysql.pool.max-size", 6);
+	c.addComment("mysql.pool.connection-timeout", "How long in seconds to wait for a free connection before giving up");
+	poolConnectionTimeout = c.get("mysql.pool.connection-timeout", 30);
+	c.addComment("mysql.pool.main-thread-timeout", "How long in seconds the main server thread waits for a free connection",
+	    "Keep this short, the server does not tick while it waits");
+	poolMainThreadTimeout = c.get("mysql.pool.main-thread-timeout", 2);
+	c.addComment("mysql.pool.idle-timeout", "After how many seconds unused connections over the minimum amount are closed");
+	poolIdleTimeout = c.get("mysql.pool.idle-timeout", 600);
+	c.addComment("mysql.pool.leak-detection", "Connections held longer than this amount of seconds are reported in console", "Set to 0 to disable");
+	poolLeakDetection = c.get("mysql.pool.leak-detection", 60);
+	c.addComment("mysql.pool.statement-cache", "Amount of prepared statements kept open for each connection to be used again", "Set to 0 to disable");
+	poolStatementCache = c.get("mysql.pool.statement-cache", 64);
+
 	if (storageMethod.equalsIgnoreCase("mysql")) {
 	    dbType = DataBaseType.MySQL;
 	    dao = startMysql();
@@ -141,6 +158,7 @@ public class JobsManager {
 	if (plugin.isEnabled()) {
 	    JobsMySQL data = new JobsMySQL(plugin, hostname, database, username, password, prefix, certificate, ssl, autoReconnect,
 		characterEncoding, encoding);
+	    configurePool(data);
 	    data.initialize();
 	    return data;
 	}
@@ -150,10 +168,17 @@ public class JobsManager {
 
     private synchronized JobsSQLite startSqlite() {
 	JobsSQLite data = new JobsSQLite(plugin, Jobs.getFolder());
+	configurePool(data);
 	data.initialize();
 	return data;
     }
 
+    private void configurePool(JobsDAO data) {
+	JobsConnectionPool pool = data.getConnectionPool();
+	if (pool != null)
+	    pool.configure(poolMinSize, poolMaxSize, poolConnectionTimeout * 1000L, poolMainThreadTimeout * 1000L, poolIdleTimeout * 1000L, poolLeakDetection * 1000L, poolStatementCache);
+    }
+
     public DataBaseType getDbType() {
 	return dbType;
     }
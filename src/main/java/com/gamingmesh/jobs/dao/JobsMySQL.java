@@ -102,14 +102,8 @@ public class JobsMySQL extends JobsDAO {
 	if (conn == null)
 	    return false;
 
-	try {
-	    ResultSet tables = conn.getMetaData().getTables(database, null, table, new String[] {"TABLE"});
-	    if (tables.next()) {
-		tables.close();
-		return true;
-	    }
-	    tables.close();
-	    return false;
+	try (ResultSet tables = conn.getMetaData().getTables(database, null, table, new String[] {"TABLE"})) {
+	    return tables.next();
 	} catch (SQLException e) {
 	    CMIMessages.consoleMessage("Not a table |" + "SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';" + "|");
 	}
@@ -78,14 +78,8 @@ public class JobsSQLite extends JobsDAO {
 
     @Override
     public boolean isTable(String table) {
-	try {
-	    ResultSet tables = getConnection().getMetaData().getTables(null, null, table, null);
-	    if (tables.next()) {
-		tables.close();
-		return true;
-	    }
-	    tables.close();
-	    return false;
+	try (ResultSet tables = getConnection().getMetaData().getTables(null, null, table, null)) {
+	    return tables.next();
 	} catch (SQLException e) {
 	    CMIMessages.consoleMessage("&cCould not check if table \"" + table + "\" exists, SQLException: " + e.getMessage());
 	    return false;
@@ -94,14 +88,8 @@ public class JobsSQLite extends JobsDAO {
 
     @Override
     public boolean isCollumn(String table, String collumn) {
-	try {
-	    ResultSet tables = getConnection().getMetaData().getColumns(null, null, table, collumn);
-	    if (tables.next()) {
-		tables.close();
-		return true;
-	    }
-	    tables.close();
-	    return false;
+	try (ResultSet tables = getConnection().getMetaData().getColumns(null, null, table, collumn)) {
+	    return tables.next();
 	} catch (SQLException e) {
 	    CMIMessages.consoleMessage("&cCould not check if table \"" + table + "\" exists, SQLException: " + e.getMessage());
 	    return false;
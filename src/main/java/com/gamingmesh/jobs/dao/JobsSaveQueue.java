@@ -0,0 +1,290 @@
+package com.gamingmesh.jobs.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bukkit.Bukkit;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.container.JobsPlayer;
+
+import net.Zrips.CMILib.Messages.CMIMessages;
+
+/**
+ * Collects players which need to be saved and writes them together on a
+ * single background thread.
+ * <p>
+ * A flush starts after the configured delay from the first queued player, or
+ * right away when the amount of queued players reaches the maximum. Every
+ * flush saves all queued players in one transaction with one batch per
+ * statement, see {@link JobsDAO#saveBatch(List)}. Threads other than the main
+ * server thread wait while the queue is twice over the maximum, so writes can
+ * not pile up faster than the database takes them.
+ */
+public class JobsSaveQueue {
+
+    private static final long MAX_WAIT = 5000L;
+
+    private final JobsDAO dao;
+    private final Map<UUID, JobsPlayer> pending = new LinkedHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ScheduledThreadPoolExecutor executor;
+
+    private ScheduledFuture<?> scheduled;
+    private boolean shutdown = false;
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong savedPlayers = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong flushTime = new AtomicLong();
+    private volatile long lastFlushTime = 0L;
+    private volatile long maxFlushTime = 0L;
+
+    JobsSaveQueue(JobsDAO dao) {
+        this.dao = dao;
+
+        executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "Jobs-SaveQueue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Queues the player to be saved. Players which are already queued are
+     * saved once. After {@link #shutdown()} the player is saved on the calling
+     * thread.
+     *
+     * @param player {@link JobsPlayer}
+     */
+    public void add(JobsPlayer player) {
+        int maxPending = Math.max(1, Jobs.getGCManager().getSaveQueueMaxPending());
+        boolean primary = Bukkit.isPrimaryThread();
+
+        synchronized (pending) {
+            if (queue(player, maxPending, primary))
+                return;
+        }
+
+        // Not under the queue lock, flush takes them the other way around
+        saveNow(player);
+    }
+
+    /**
+     * @return false if the queue was stopped before the player could be
+     *         queued
+     */
+    private boolean queue(JobsPlayer player, int maxPending, boolean primary) {
+        // Backpressure for background threads which save faster than the database can take
+        long deadline = System.currentTimeMillis() + MAX_WAIT;
+        boolean waited = false;
+        while (!primary && !shutdown && pending.size() >= maxPending * 2) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0L)
+                break;
+
+            waited = true;
+            try {
+                pending.wait(left);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (waited)
+            waits.incrementAndGet();
+
+        if (shutdown)
+            return false;
+
+        pending.put(player.getUniqueId(), player);
+
+        boolean full = pending.size() >= maxPending;
+        if (scheduled == null) {
+            schedule(full ? 0L : Jobs.getGCManager().getSaveQueueDelay());
+        } else if (full && scheduled.getDelay(TimeUnit.MILLISECONDS) > 0L && scheduled.cancel(false)) {
+            // Queue is full, no need to wait for the delay
+            schedule(0L);
+        }
+        return true;
+    }
+
+    private void saveNow(JobsPlayer player) {
+        writeLock.lock();
+        try {
+            if (!dao.saveBatch(Collections.singletonList(player))) {
+                failedFlushes.incrementAndGet();
+                CMIMessages.consoleMessage("&cFailed to save " + player.getName() + " after the save queue was stopped");
+                return;
+            }
+
+            flushes.incrementAndGet();
+            savedPlayers.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void schedule(long delay) {
+        scheduled = executor.schedule(this::flushQuietly, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs the task on the save thread, after the writes queued before it.
+     */
+    public void execute(Runnable task) {
+        synchronized (pending) {
+            if (!shutdown) {
+                executor.execute(task);
+                return;
+            }
+        }
+
+        task.run();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves all queued players on the calling thread.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<JobsPlayer> players;
+            synchronized (pending) {
+                scheduled = null;
+                if (pending.isEmpty())
+                    return;
+
+                players = new ArrayList<>(pending.values());
+                pending.clear();
+                pending.notifyAll();
+            }
+
+            long time = System.nanoTime();
+
+            if (!dao.saveBatch(players)) {
+                failedFlushes.incrementAndGet();
+                requeue(players);
+                return;
+            }
+
+            time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - time);
+            lastFlushTime = time;
+            if (time > maxFlushTime)
+                maxFlushTime = time;
+
+            flushTime.addAndGet(time);
+            flushes.incrementAndGet();
+            savedPlayers.addAndGet(players.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Puts players back after a failed flush, so they are saved with the next
+     * one. Players queued meanwhile keep their place.
+     */
+    private void requeue(List<JobsPlayer> players) {
+        synchronized (pending) {
+            for (JobsPlayer player : players) {
+                pending.putIfAbsent(player.getUniqueId(), player);
+            }
+
+            if (scheduled == null && !shutdown)
+                schedule(Jobs.getGCManager().getSaveQueueDelay());
+        }
+
+        CMIMessages.consoleMessage("&cFailed to save " + players.size() + " players, retrying with the next save");
+    }
+
+    /**
+     * Stops the save thread and saves what is left on the calling thread.
+     */
+    public void shutdown() {
+        synchronized (pending) {
+            shutdown = true;
+            pending.notifyAll();
+        }
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(MAX_WAIT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+    }
+
+    /**
+     * @param uuid player {@link UUID}
+     * @return true if the player is waiting to be saved, also after a failed
+     *         flush
+     */
+    public boolean isPending(UUID uuid) {
+        synchronized (pending) {
+            return pending.containsKey(uuid);
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    public long getSavedPlayerCount() {
+        return savedPlayers.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * @return how many times a thread had to wait for the queue to drain
+     */
+    public long getWaitCount() {
+        return waits.get();
+    }
+
+    /**
+     * @return average time of a successful flush in milliseconds
+     */
+    public double getAverageFlushTime() {
+        long count = flushes.get();
+        return count == 0L ? 0D : (double) flushTime.get() / count;
+    }
+
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+}
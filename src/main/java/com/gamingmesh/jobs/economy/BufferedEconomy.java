@@ -32,6 +32,7 @@ import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.api.JobsPaymentEvent;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.JobsPlayer;
+import com.gamingmesh.jobs.container.PaymentVector;
 import com.gamingmesh.jobs.tasks.BufferedPaymentTask;
 
 import net.Zrips.CMILib.ActionBar.CMIActionBar;
@@ -69,6 +70,15 @@ public class BufferedEconomy {
         pay(new BufferedPayment(player.getPlayer(), payments));
     }
 
+    /**
+     * Add payment to player's payment buffer
+     * @param player - player to be paid
+     * @param payments the payment amounts
+     */
+    public void pay(JobsPlayer player, PaymentVector payments) {
+        pay(new BufferedPayment(player.getPlayer(), payments));
+    }
+
     /**
      * Add payment to player's payment buffer
      * @param payment - payment to be paid
@@ -130,9 +140,7 @@ public class BufferedEconomy {
                         points = points - (points * (pointsTaxAmount / 100.0));
                     }
 
-                    existing.set(CurrencyType.MONEY, existing.get(CurrencyType.MONEY) + money);
-                    existing.set(CurrencyType.POINTS, existing.get(CurrencyType.POINTS) + points);
-                    existing.set(CurrencyType.EXP, existing.get(CurrencyType.EXP) + exp);
+                    existing.setVector(existing.getVector().add(PaymentVector.of(money, exp, points)));
                 } else {
                     double points = payment.get(CurrencyType.POINTS);
 
@@ -152,8 +160,7 @@ public class BufferedEconomy {
                         money = money - (money * (moneyTaxAmount / 100.0));
                         points = points - (points * (pointsTaxAmount / 100.0));
 
-                        payment.set(CurrencyType.MONEY, money);
-                        payment.set(CurrencyType.POINTS, points);
+                        payment.setVector(PaymentVector.of(money, payment.get(CurrencyType.EXP), points));
                     }
 
                     paymentCache.put(offPlayer.getUniqueId(), payment);
@@ -198,12 +205,15 @@ public class BufferedEconomy {
                         continue;
 
                     // JobsPayment event
-                    JobsPaymentEvent jobsPaymentEvent = new JobsPaymentEvent(payment.getOfflinePlayer(), payment.getPayment());
+                    JobsPaymentEvent jobsPaymentEvent = new JobsPaymentEvent(payment.getOfflinePlayer(), payment.getVector());
                     Bukkit.getServer().getPluginManager().callEvent(jobsPaymentEvent);
                     // If event is canceled, dont do anything
                     if (jobsPaymentEvent.isCancelled())
                         continue;
 
+                    // Listeners can change the amounts
+                    payment.setVector(jobsPaymentEvent.getPaymentVector());
+
                     if (Jobs.getGCManager().UseServerAccount && !hasMoney) {
                         CMIActionBar.send(payment.getOfflinePlayer().getPlayer(), Jobs.getLanguage().getMessage("economy.error.nomoney"));
                         continue;
@@ -18,24 +18,26 @@
 
 package com.gamingmesh.jobs.economy;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.bukkit.OfflinePlayer;
 
 import com.gamingmesh.jobs.container.CurrencyType;
+import com.gamingmesh.jobs.container.PaymentVector;
 
 public class BufferedPayment {
 
     private OfflinePlayer offlinePlayer;
 
-    private final Map<CurrencyType, Double> payments = new HashMap<>();
+    private PaymentVector payments;
 
     public BufferedPayment(OfflinePlayer offlinePlayer, Map<CurrencyType, Double> payments) {
-	this.offlinePlayer = offlinePlayer;
+	this(offlinePlayer, PaymentVector.of(payments));
+    }
 
-	// This can contain only one value instead of all possible ones
-	this.payments.putAll(payments);
+    public BufferedPayment(OfflinePlayer offlinePlayer, PaymentVector payments) {
+	this.offlinePlayer = offlinePlayer;
+	this.payments = payments == null ? PaymentVector.ZERO : payments;
     }
 
     public OfflinePlayer getOfflinePlayer() {
@@ -43,22 +45,37 @@ public class BufferedPayment {
     }
 
     public double get(CurrencyType type) {
-	return payments.getOrDefault(type, 0d);
+	return payments.get(type);
     }
 
     public Double set(CurrencyType type, double amount) {
-	return payments.put(type, amount);
+	double old = payments.get(type);
+	payments = payments.with(type, amount);
+	return old;
     }
 
     public boolean containsPayment() {
-	for (Double one : payments.values()) {
-	    if (one != 0D)
-		return true;
-	}
-	return false;
+	return payments.containsPayment();
     }
 
-    public Map<CurrencyType, Double> getPayment() {
+    /**
+     * @return payment amounts
+     */
+    public PaymentVector getVector() {
 	return payments;
     }
+
+    public void setVector(PaymentVector payments) {
+	this.payments = payments == null ? PaymentVector.ZERO : payments;
+    }
+
+    /**
+     * Returns the amounts as a new map, changes to it are not reflected in this
+     * payment.
+     * 
+     * @return {@link Map} of amounts which are not 0
+     */
+    public Map<CurrencyType, Double> getPayment() {
+	return payments.toMap();
+    }
 }
@@ -1,6 +1,6 @@
 package com.gamingmesh.jobs.economy;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.container.CurrencyLimit;
@@ -10,7 +10,12 @@ public class PaymentData {
 
     private long lastAnnouced = 0L;
 
-    private final java.util.Map<CurrencyType, LimitsData> payments = new HashMap<>();
+    private final java.util.Map<CurrencyType, LimitsData> payments = new EnumMap<>(CurrencyType.class);
+
+    // Indexed by currency ordinal, null for currencies without a sliding window limit
+    private final SlidingWindowLimit[] windows = new SlidingWindowLimit[CurrencyType.values().length];
+    // Limit settings the windows were built for, changed when the config is reloaded
+    private final CurrencyLimit[] windowLimits = new CurrencyLimit[CurrencyType.values().length];
 
     private boolean informed = false;
 
@@ -34,8 +39,57 @@ public class PaymentData {
         resetLimits();
     }
 
+    /**
+     * Returns the sliding window of the given currency, building it again if
+     * the limit settings were reloaded. Amounts collected so far are kept when
+     * switching between a fixed and a sliding limit.
+     */
+    private SlidingWindowLimit window(CurrencyType type) {
+        int index = type.ordinal();
+        CurrencyLimit limit = Jobs.getGCManager().getLimit(type);
+        if (limit == windowLimits[index])
+            return windows[index];
+
+        windowLimits[index] = limit;
+        SlidingWindowLimit old = windows[index];
+
+        if (limit == null || !limit.isSlidingWindow()) {
+            windows[index] = null;
+
+            if (old != null) {
+                LimitsData data = new LimitsData(type, old.getAmount());
+                data.setPaymentsTime(old.getOldestTime());
+                payments.put(type, data);
+            }
+        } else if (old == null || old.getWindow() != limit.getTimeLimit()) {
+            SlidingWindowLimit window = new SlidingWindowLimit(limit.getTimeLimit());
+            LimitsData data = payments.get(type);
+
+            double amount = old != null ? old.getAmount() : data == null ? 0D : data.getAmount();
+            if (amount != 0D)
+                window.add(amount, old != null ? old.getOldestTime() : data.getPaymentsTime());
+
+            windows[index] = window;
+        }
+
+        return windows[index];
+    }
+
+    /**
+     * @return true if the limit of the given currency is a sliding window
+     */
+    public boolean isSlidingWindow(CurrencyType type) {
+        return window(type) != null;
+    }
+
+    private double rawAmount(CurrencyType type) {
+        SlidingWindowLimit window = window(type);
+        return window != null ? window.getAmount() : payments.get(type).getAmount();
+    }
+
     public Long getTime(CurrencyType type) {
-        return payments.get(type).getPaymentsTime();
+        SlidingWindowLimit window = window(type);
+        return window != null ? window.getOldestTime() : payments.get(type).getPaymentsTime();
     }
 
     public void setReseted(CurrencyType type, boolean reseted) {
@@ -51,7 +105,28 @@ public class PaymentData {
             return 0D;
 
         LimitsData data = payments.get(type);
-        return data == null ? 0D : (int) (data.getAmount() * 100) / 100D;
+        return data == null ? 0D : (int) (rawAmount(type) * 100) / 100D;
+    }
+
+    /**
+     * Returns the unrounded amount collected towards the limit of the given
+     * currency, resetting it first if its time limit has passed.
+     */
+    public double getCurrentAmount(CurrencyType type) {
+        isOverTimeLimit(type);
+        return rawAmount(type);
+    }
+
+    /**
+     * Returns the amount which can still be collected before reaching the
+     * given limit.
+     *
+     * @param type {@link CurrencyType}
+     * @param limit the maximum amount
+     * @return the remaining amount, never negative
+     */
+    public double getRemaining(CurrencyType type, int limit) {
+        return Math.max(0D, limit - getCurrentAmount(type));
     }
 
     public long getLastAnnounced() {
@@ -81,13 +156,44 @@ public class PaymentData {
         data.setPaymentsTime(time == null ? System.currentTimeMillis() : time);
 
         payments.put(type, data);
+
+        SlidingWindowLimit window = window(type);
+        if (window != null) {
+            window.clear();
+            if (Payment != null && Payment != 0D)
+                window.add(Payment, data.getPaymentsTime());
+        }
     }
 
     public void addAmount(CurrencyType type, double payment) {
-        payments.get(type).addAmount(payment);
+        SlidingWindowLimit window = window(type);
+        if (window != null)
+            window.add(payment);
+        else
+            payments.get(type).addAmount(payment);
+    }
+
+    /**
+     * Adds the amounts collected in the given data to this one, used to keep
+     * the payments which were made while this data was being loaded.
+     *
+     * @param other {@link PaymentData} to add
+     */
+    public void merge(PaymentData other) {
+        for (CurrencyType type : CurrencyType.values()) {
+            double amount = other.getCurrentAmount(type);
+            if (amount != 0D)
+                addAmount(type, amount);
+        }
+
+        informed = informed || other.informed;
+        lastAnnouced = Math.max(lastAnnouced, other.lastAnnouced);
     }
 
     public long getLeftTime(CurrencyType type) {
+        SlidingWindowLimit window = window(type);
+        if (window != null)
+            return window.getLeftTime();
 
         CurrencyLimit limit = Jobs.getGCManager().getLimit(type);
         if (limit.getResetsAt() != null) {
@@ -102,23 +208,42 @@ public class PaymentData {
     }
 
     public boolean isOverLimit(CurrencyType type, int limit) {
-        return payments.get(type).getAmount() >= limit;
+        return rawAmount(type) >= limit;
     }
 
     public double percentOverLimit(CurrencyType type, int limit) {
-        return ((payments.get(type).getAmount() / limit) - 1) * 100;
+        return ((rawAmount(type) / limit) - 1) * 100;
     }
 
     public boolean isOverTimeLimit(CurrencyType type) {
-        if (getLeftTime(type) > 0) {
+        // Sliding window amounts expire on their own
+        if (isSlidingWindow(type) || getLeftTime(type) > 0) {
             return false;
         }
         if (informed)
             informed = false;
-        resetLimits();
+
+        if (!hasSlidingWindow()) {
+            resetLimits();
+            return true;
+        }
+
+        // Fixed limits are still reset together, sliding windows keep their amounts
+        for (CurrencyType one : CurrencyType.values()) {
+            if (!isSlidingWindow(one))
+                resetLimits(one);
+        }
         return true;
     }
 
+    private boolean hasSlidingWindow() {
+        for (CurrencyType one : CurrencyType.values()) {
+            if (isSlidingWindow(one))
+                return true;
+        }
+        return false;
+    }
+
     public void resetLimits() {
         for (CurrencyType type : CurrencyType.values()) {
             addNewAmount(type, 0D);
@@ -133,7 +258,13 @@ public class PaymentData {
 
     public boolean isReachedLimit(CurrencyType type, int money) {
         isOverTimeLimit(type);
-        return isOverLimit(type, money);
+        boolean reached = isOverLimit(type, money);
+
+        // Inform again once enough of the window expired
+        if (!reached && informed && isSlidingWindow(type))
+            informed = false;
+
+        return reached;
     }
 
     public boolean isInformed() {
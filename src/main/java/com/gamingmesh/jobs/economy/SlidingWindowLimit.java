@@ -0,0 +1,138 @@
+package com.gamingmesh.jobs.economy;
+
+import java.util.Arrays;
+
+/**
+ * Amount collected in the last window of time, kept in a fixed ring of
+ * {@link #BUCKETS} buckets.
+ * <p>
+ * Every bucket holds the amount collected during one slice of the window.
+ * When time moves on, the buckets which left the window are cleared, so
+ * amounts expire gradually instead of all at once like with a fixed reset
+ * time. Adding and reading amounts only clears the buckets passed since the
+ * last call, which are at most {@link #BUCKETS}.
+ */
+public final class SlidingWindowLimit {
+
+    public static final int BUCKETS = 60;
+
+    private final double[] buckets = new double[BUCKETS];
+    private final int window;
+    private final long bucketLength;
+
+    private long head = 0L;
+    private double total = 0D;
+
+    /**
+     * @param window length of the window in seconds
+     */
+    public SlidingWindowLimit(int window) {
+        this.window = window;
+        this.bucketLength = Math.max(1L, window * 1000L / BUCKETS);
+        this.head = System.currentTimeMillis() / bucketLength;
+    }
+
+    /**
+     * @return length of the window in seconds
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    private void advance(long now) {
+        long slice = now / bucketLength;
+        if (slice <= head)
+            return;
+
+        if (slice - head >= BUCKETS) {
+            clear();
+        } else {
+            for (long i = head + 1; i <= slice; i++) {
+                int index = (int) (i % BUCKETS);
+                total -= buckets[index];
+                buckets[index] = 0D;
+            }
+
+            if (total < 0D)
+                total = 0D;
+        }
+
+        head = slice;
+    }
+
+    /**
+     * Adds the amount collected now.
+     */
+    public void add(double amount) {
+        add(amount, System.currentTimeMillis());
+    }
+
+    /**
+     * Adds the amount collected at the given time. Amounts older than the
+     * window are ignored, amounts from the future are added to the current
+     * bucket.
+     *
+     * @param amount the amount
+     * @param time time in milliseconds
+     */
+    public void add(double amount, long time) {
+        long now = System.currentTimeMillis();
+        advance(now);
+
+        long slice = Math.min(time, now) / bucketLength;
+        if (head - slice >= BUCKETS)
+            return;
+
+        buckets[(int) (slice % BUCKETS)] += amount;
+        total += amount;
+    }
+
+    /**
+     * @return the amount collected during the window
+     */
+    public double getAmount() {
+        advance(System.currentTimeMillis());
+        return total;
+    }
+
+    /**
+     * @param limit the maximum amount
+     * @return the amount which can still be collected, never negative
+     */
+    public double getRemaining(int limit) {
+        return Math.max(0D, limit - getAmount());
+    }
+
+    /**
+     * @return the start time of the oldest bucket holding any amount, or the
+     *         current time if the window is empty
+     */
+    public long getOldestTime() {
+        long now = System.currentTimeMillis();
+        advance(now);
+
+        for (long i = head - BUCKETS + 1; i <= head; i++) {
+            if (buckets[(int) Math.floorMod(i, (long) BUCKETS)] != 0D)
+                return i * bucketLength;
+        }
+
+        return now;
+    }
+
+    /**
+     * @return milliseconds until the oldest collected amount leaves the
+     *         window, or 0 if the window is empty
+     */
+    public long getLeftTime() {
+        long oldest = getOldestTime();
+        if (total == 0D)
+            return 0L;
+
+        return Math.max(0L, oldest + BUCKETS * bucketLength - System.currentTimeMillis());
+    }
+
+    public void clear() {
+        Arrays.fill(buckets, 0D);
+        total = 0D;
+    }
+}
@@ -0,0 +1,69 @@
+package com.gamingmesh.jobs.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+
+import com.gamingmesh.jobs.Jobs;
+
+import net.Zrips.CMILib.Items.CMIMaterial;
+import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
+
+/**
+ * Removes block protection records of blocks replaced by liquids or growth.
+ * <p>
+ * Registered only when place and break protection is enabled.
+ */
+public class BlockProtectionListener implements Listener {
+
+	private final Jobs plugin;
+
+	public BlockProtectionListener(Jobs plugin) {
+		this.plugin = plugin;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onBlockFromToEvent(BlockFromToEvent event) {
+
+		if (!Jobs.getGCManager().useBlockProtection)
+			return;
+
+		if (!Jobs.getGCManager().canPerformActionInWorld(event.getBlock().getWorld()))
+			return;
+
+		CMIMaterial mat = CMIMaterial.get(event.getToBlock().getType());
+
+		if (Jobs.getGCManager().ignoreOreGenerators && (mat.equals(CMIMaterial.STONE) || mat.equals(CMIMaterial.COBBLESTONE) || mat.equals(CMIMaterial.OBSIDIAN)))
+			return;
+
+		// Ignoring air blocks
+		if (mat.isAir())
+			return;
+
+		if (mat.isWater())
+			return;
+
+		Jobs.getExploitManager().remove(event.getToBlock());
+	}
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	public void onCropGrown(final BlockGrowEvent event) {
+		if (Jobs.getGCManager().canPerformActionInWorld(event.getBlock().getWorld())) {
+			CMIScheduler.runAtLocationLater(plugin, event.getBlock().getLocation(), () -> {
+				Jobs.getExploitManager().remove(event.getBlock());
+			}, 1L);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	public void onTreeGrown(final StructureGrowEvent event) {
+		if (!event.getBlocks().isEmpty() && Jobs.getGCManager().canPerformActionInWorld(event.getBlocks().get(0).getWorld())) {
+			CMIScheduler.runAtLocationLater(plugin, event.getBlocks().get(0).getLocation(), () -> event.getBlocks().forEach(blockState -> {
+				Jobs.getExploitManager().remove(blockState.getBlock());
+			}), 1L);
+		}
+	}
+}
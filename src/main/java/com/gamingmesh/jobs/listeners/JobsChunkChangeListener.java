@@ -0,0 +1,62 @@
+package com.gamingmesh.jobs.listeners;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.api.JobsChunkChangeEvent;
+import com.gamingmesh.jobs.container.JobsPlayer;
+
+import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
+
+/**
+ * Fires {@link JobsChunkChangeEvent} when a player moves into another chunk.
+ * <p>
+ * Registered only when a job pays for exploring, restricted areas exist or
+ * another plugin listens to {@link JobsChunkChangeEvent}, as it has to handle
+ * every player move.
+ */
+public class JobsChunkChangeListener implements Listener {
+
+	private final Jobs plugin;
+
+	public JobsChunkChangeListener(Jobs plugin) {
+		this.plugin = plugin;
+	}
+
+	@EventHandler(ignoreCancelled = true)
+	public void onChunkChangeMove(PlayerMoveEvent event) {
+		if (!event.getPlayer().isOnline() || event.getTo() == null || !Jobs.getGCManager().canPerformActionInWorld(event.getTo().getWorld()))
+			return;
+
+		final Player player = event.getPlayer();
+		final Location toLoc = event.getTo().clone();
+		final Location fromLoc = event.getFrom().clone();
+
+		CMIScheduler.runAtLocationLater(plugin, toLoc, () -> {
+			final Chunk to = toLoc.getChunk();
+			final int toX = to.getX();
+			final int toZ = to.getZ();
+			final World toWorld = to.getWorld();
+
+			CMIScheduler.runAtLocationLater(plugin, fromLoc, () -> {
+				final Chunk from = fromLoc.getChunk();
+
+				final boolean changed = from.getWorld() != toWorld || from.getX() != toX || from.getZ() != toZ;
+
+				if (changed) {
+					JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(player);
+					if (jPlayer != null)
+						jPlayer.invalidateBoosts();
+
+					plugin.getServer().getPluginManager().callEvent(new JobsChunkChangeEvent(player, from, to));
+				}
+			}, 1L);
+		}, 1L);
+	}
+}
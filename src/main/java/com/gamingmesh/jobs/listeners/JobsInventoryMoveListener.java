@@ -0,0 +1,111 @@
+package com.gamingmesh.jobs.listeners;
+
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BrewingStand;
+import org.bukkit.block.Furnace;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.container.JobsPlayer;
+
+import net.Zrips.CMILib.Container.CMILocation;
+import net.Zrips.CMILib.Items.CMIMaterial;
+import net.Zrips.CMILib.Locale.LC;
+import net.Zrips.CMILib.Messages.CMIMessages;
+
+/**
+ * Disables block ownership payments of furnaces and brewing stands filled up
+ * by hoppers.
+ * <p>
+ * Registered only when the matching exploit protection is enabled and a job
+ * pays for smelting or brewing, as item moves are fired for every hopper
+ * transfer.
+ */
+public class JobsInventoryMoveListener implements Listener {
+
+    private final Jobs plugin;
+
+    public JobsInventoryMoveListener(Jobs plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMoveItemEventToFurnace(InventoryMoveItemEvent event) {
+        if (!Jobs.getGCManager().PreventHopperFillUps || event.getItem().getType() == Material.AIR)
+            return;
+
+        Block block = null;
+
+        switch (event.getDestination().getType().toString().toLowerCase()) {
+        case "furnace":
+            block = ((Furnace) event.getDestination().getHolder()).getBlock();
+            break;
+        case "smoker":
+            // This should be done in this way to have backwards compatibility
+            block = ((org.bukkit.block.Smoker) event.getDestination().getHolder()).getBlock();
+            break;
+        case "blast_furnace":
+            // This should be done in this way to have backwards compatibility
+            block = ((org.bukkit.block.BlastFurnace) event.getDestination().getHolder()).getBlock();
+            break;
+        default:
+            return;
+        }
+
+        if (block == null || !Jobs.getGCManager().canPerformActionInWorld(block.getWorld()))
+            return;
+
+        processItemMove(block);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMoveItemEventToBrewingStand(InventoryMoveItemEvent event) {
+        if (!Jobs.getGCManager().PreventBrewingStandFillUps || event.getDestination().getType() != InventoryType.BREWING)
+            return;
+
+        if (event.getItem().getType() == Material.AIR)
+            return;
+
+        final BrewingStand stand = (BrewingStand) event.getDestination().getHolder();
+
+        if (!Jobs.getGCManager().canPerformActionInWorld(stand.getWorld()))
+            return;
+
+        processItemMove(stand.getBlock());
+    }
+
+    private void processItemMove(Block block) {
+        if (Jobs.getGCManager().blockOwnershipDisabled)
+            return;
+
+        plugin.getBlockOwnerShip(CMIMaterial.get(block)).ifPresent(os -> {
+            if (!os.disable(block) || !Jobs.getGCManager().informOnPaymentDisable)
+                return;
+
+            UUID uuid = plugin.getBlockOwnerShip(CMIMaterial.get(block)).get().getOwnerByLocation(block.getLocation());
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null || !player.isOnline())
+                return;
+
+            JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(player);
+            String lc = CMILocation.toString(block.getLocation());
+
+            if (jPlayer.hasBlockOwnerShipInform(lc))
+                return;
+
+            CMIMessages.sendMessage(player, Jobs.getLanguage().getMessage("general.error.blockDisabled",
+                "[type]", Jobs.getNameTranslatorManager().translate(CMIMaterial.get(block)),
+                "[location]", LC.Location_Full.getLocale(block.getLocation())));
+            jPlayer.addBlockOwnerShipInform(lc);
+        });
+    }
+}
@@ -27,11 +27,9 @@ import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
-import org.bukkit.Chunk;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.Dispenser;
@@ -44,8 +42,6 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockDispenseEvent;
-import org.bukkit.event.block.BlockFromToEvent;
-import org.bukkit.event.block.BlockGrowEvent;
 import org.bukkit.event.block.SignChangeEvent;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryAction;
@@ -57,10 +53,11 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemBreakEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
-import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
@@ -129,30 +126,6 @@ public class JobsListener implements Listener {
 		Jobs.getExploitManager().cleanChunk(event.getOldChunk());
 	}
 
-	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-	public void onBlockFromToEvent(BlockFromToEvent event) {
-
-		if (!Jobs.getGCManager().useBlockProtection)
-			return;
-
-		if (!Jobs.getGCManager().canPerformActionInWorld(event.getBlock().getWorld()))
-			return;
-
-		CMIMaterial mat = CMIMaterial.get(event.getToBlock().getType());
-
-		if (Jobs.getGCManager().ignoreOreGenerators && (mat.equals(CMIMaterial.STONE) || mat.equals(CMIMaterial.COBBLESTONE) || mat.equals(CMIMaterial.OBSIDIAN)))
-			return;
-
-		// Ignoring air blocks
-		if (mat.isAir())
-			return;
-
-		if (mat.isWater())
-			return;
-
-		Jobs.getExploitManager().remove(event.getToBlock());
-	}
-
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
 	public void onJoin(PlayerJoinEvent event) {
 		if (Jobs.getGCManager().isShowNewVersion() && event.getPlayer().hasPermission("jobs.versioncheck"))
@@ -216,6 +189,7 @@ public class JobsListener implements Listener {
 	@EventHandler(priority = EventPriority.MONITOR)
 	public void onPlayerQuit(PlayerQuitEvent event) {
 		Jobs.getPlayerManager().playerQuit(event.getPlayer());
+		Jobs.getPlayerLocationIndex().remove(event.getPlayer());
 	}
 
 	@EventHandler(priority = EventPriority.MONITOR)
@@ -223,6 +197,25 @@ public class JobsListener implements Listener {
 		Jobs.getPermissionHandler().recalculatePermissions(Jobs.getPlayerManager().getJobsPlayer(event.getPlayer()));
 	}
 
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerRespawn(PlayerRespawnEvent event) {
+		// Location changes without move event, restricted area boost needs to be checked again
+		JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(event.getPlayer());
+		if (jPlayer != null)
+			jPlayer.invalidateBoosts();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPluginEnable(PluginEnableEvent event) {
+		CMIScheduler.runTask(plugin, Jobs::updateOptionalListeners);
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPluginDisable(PluginDisableEvent event) {
+		// Listeners of the disabled plugin are unregistered after this event
+		CMIScheduler.runTask(plugin, Jobs::updateOptionalListeners);
+	}
+
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
 	public void onSignInteract(PlayerInteractEvent event) {
 		if (!Jobs.getGCManager().SignsEnabled || event.getAction() != Action.RIGHT_CLICK_BLOCK)
@@ -418,24 +411,6 @@ public class JobsListener implements Listener {
 		}
 	}
 
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void onCropGrown(final BlockGrowEvent event) {
-		if (Jobs.getGCManager().canPerformActionInWorld(event.getBlock().getWorld())) {
-			CMIScheduler.runAtLocationLater(plugin, event.getBlock().getLocation(), () -> {
-				Jobs.getExploitManager().remove(event.getBlock());
-			}, 1L);
-		}
-	}
-
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	public void onTreeGrown(final StructureGrowEvent event) {
-		if (!event.getBlocks().isEmpty() && Jobs.getGCManager().canPerformActionInWorld(event.getBlocks().get(0).getWorld())) {
-			CMIScheduler.runAtLocationLater(plugin, event.getBlocks().get(0).getLocation(), () -> event.getBlocks().forEach(blockState -> {
-				Jobs.getExploitManager().remove(blockState.getBlock());
-			}), 1L);
-		}
-	}
-
 	private static boolean usingLimitedItem(ItemStack iih, JobsPlayer jPlayer) {
 		CMINBT nbt = new CMINBT(iih);
 		Integer i = nbt.getInt("JobsLimited");
@@ -574,33 +549,6 @@ public class JobsListener implements Listener {
 		return true;
 	}
 
-	@EventHandler(ignoreCancelled = true)
-	public void onChunkChangeMove(PlayerMoveEvent event) {
-		if (!event.getPlayer().isOnline() || event.getTo() == null || !Jobs.getGCManager().canPerformActionInWorld(event.getTo().getWorld()))
-			return;
-
-		final Player player = event.getPlayer();
-		final Location toLoc = event.getTo().clone();
-		final Location fromLoc = event.getFrom().clone();
-
-		CMIScheduler.runAtLocationLater(plugin, toLoc, () -> {
-			final Chunk to = toLoc.getChunk();
-			final int toX = to.getX();
-			final int toZ = to.getZ();
-			final World toWorld = to.getWorld();
-
-			CMIScheduler.runAtLocationLater(plugin, fromLoc, () -> {
-				final Chunk from = fromLoc.getChunk();
-
-				final boolean changed = from.getWorld() != toWorld || from.getX() != toX || from.getZ() != toZ;
-
-				if (changed) {
-					plugin.getServer().getPluginManager().callEvent(new JobsChunkChangeEvent(player, from, to));
-				}
-			}, 1L);
-		}, 1L);
-	}
-
 	@EventHandler(ignoreCancelled = true)
 	public void onInventoryClick(InventoryClickEvent event) {
 
@@ -0,0 +1,94 @@
+package com.gamingmesh.jobs.listeners;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPhysicsEvent;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.actions.BlockActionInfo;
+import com.gamingmesh.jobs.container.ActionType;
+import com.gamingmesh.jobs.container.JobsPlayer;
+
+import net.Zrips.CMILib.Container.CMILocation;
+import net.Zrips.CMILib.Items.CMIMaterial;
+
+/**
+ * Pays for sugar cane, bamboo, kelp and weeping vines broken together with the
+ * block the player broke.
+ * <p>
+ * Registered only when pay-for-above is enabled and a job pays for breaking
+ * blocks, as physics updates are one of the most frequent events.
+ */
+public class JobsPayForAboveListener implements Listener {
+
+    private static final int MAX_ENTRIES = 50;
+    private static final LinkedHashMap<String, UUID> breakCache = new LinkedHashMap<String, UUID>(MAX_ENTRIES + 1, .75F, false) {
+        protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Remembers the player who broke the given block, so the blocks above it
+     * can be paid to the same player.
+     *
+     * @param block the broken {@link Block}
+     * @param uuid the player's {@link UUID}
+     */
+    public static void cacheBreak(Block block, UUID uuid) {
+        if (!Jobs.getGCManager().payForAbove)
+            return;
+
+        breakCache.put(CMILocation.toString(block.getLocation(), ":", true, true), uuid);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEvent(BlockPhysicsEvent event) {
+        if (!Jobs.getGCManager().payForAbove)
+            return;
+        if (event.getBlock().getType().equals(Material.AIR))
+            return;
+        final Block block = event.getBlock();
+
+        CMIMaterial mat = CMIMaterial.get(block);
+
+        if (!mat.equals(CMIMaterial.SUGAR_CANE) && !mat.equals(CMIMaterial.BAMBOO) && !mat.equals(CMIMaterial.KELP_PLANT) && !mat.equals(CMIMaterial.WEEPING_VINES) && !mat.equals(
+            CMIMaterial.WEEPING_VINES_PLANT))
+            return;
+
+        if (!Jobs.getGCManager().canPerformActionInWorld(block.getWorld()))
+            return;
+
+        if (event.getSourceBlock().equals(event.getBlock()))
+            return;
+
+        if ((mat.equals(CMIMaterial.SUGAR_CANE) || mat.equals(CMIMaterial.BAMBOO) || mat.equals(CMIMaterial.KELP_PLANT)) &&
+            event.getBlock().getLocation().getBlockY() <= event.getSourceBlock().getLocation().getBlockY())
+            return;
+
+        if ((mat.equals(CMIMaterial.WEEPING_VINES) || mat.equals(CMIMaterial.WEEPING_VINES_PLANT)) &&
+            event.getBlock().getLocation().getBlockY() >= event.getSourceBlock().getLocation().getBlockY())
+            return;
+
+        Location loc = event.getSourceBlock().getLocation().clone();
+        UUID uuid = breakCache.get(CMILocation.toString(loc, ":", true, true));
+        if (uuid == null)
+            return;
+
+        JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(uuid);
+        if (jPlayer == null || !jPlayer.isOnline())
+            return;
+
+        // Repeated breaks of the same block type are paid from the fast payment cache
+        Jobs.action(jPlayer, new BlockActionInfo(block, ActionType.BREAK), block);
+        breakCache.put(CMILocation.toString(block.getLocation(), ":", true, true), uuid);
+    }
+}
@@ -18,11 +18,13 @@
 
 package com.gamingmesh.jobs.listeners;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -31,8 +33,6 @@ import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
-import org.bukkit.block.BrewingStand;
-import org.bukkit.block.Furnace;
 import org.bukkit.block.data.Ageable;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Damageable;
@@ -50,7 +50,6 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.block.BlockPhysicsEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.enchantment.EnchantItemEvent;
 import org.bukkit.event.entity.CreatureSpawnEvent;
@@ -68,7 +67,6 @@ import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.inventory.FurnaceSmeltEvent;
 import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.inventory.InventoryType.SlotType;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
@@ -103,7 +101,6 @@ import com.gamingmesh.jobs.actions.PotionItemActionInfo;
 import com.gamingmesh.jobs.api.JobsChunkChangeEvent;
 import com.gamingmesh.jobs.container.ActionType;
 import com.gamingmesh.jobs.container.ExploreRespond;
-import com.gamingmesh.jobs.container.FastPayment;
 import com.gamingmesh.jobs.container.JobItems;
 import com.gamingmesh.jobs.container.JobProgression;
 import com.gamingmesh.jobs.container.JobsMobSpawner;
@@ -126,7 +123,6 @@ import net.Zrips.CMILib.Entities.CMIEntityType;
 import net.Zrips.CMILib.Items.CMIItemStack;
 import net.Zrips.CMILib.Items.CMIMC;
 import net.Zrips.CMILib.Items.CMIMaterial;
-import net.Zrips.CMILib.Locale.LC;
 import net.Zrips.CMILib.Logs.CMIDebug;
 import net.Zrips.CMILib.Messages.CMIMessages;
 import net.Zrips.CMILib.PersistentData.CMIPersistentDataContainer;
@@ -136,6 +132,10 @@ import uk.antiperson.stackmob.entity.StackEntity;
 
 public final class JobsPaymentListener implements Listener {
 
+    private static final Set<ActionType> CRAFT_ACTIONS = EnumSet.of(ActionType.CRAFT, ActionType.REPAIR, ActionType.DYE);
+    private static final Set<ActionType> REPAIR_ACTIONS = EnumSet.of(ActionType.CRAFT, ActionType.REPAIR, ActionType.ENCHANT);
+    private static final Set<ActionType> KILL_ACTIONS = EnumSet.of(ActionType.KILL, ActionType.CUSTOMKILL);
+
     private final Jobs plugin;
     private final String blockMetadata = "BlockOwner";
 
@@ -188,6 +188,9 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = (Player) event.getWhoClicked();
+        if (!hasAction(player, ActionType.VTRADE))
+            return;
+
         //Check if inventory is full and using shift click, possible money dupping fix
         if (player.getInventory().firstEmpty() == -1 && event.isShiftClick()) {
             player.sendMessage(Jobs.getLanguage().getMessage("message.crafting.fullinventory"));
@@ -257,6 +260,8 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = event.getPlayer();
+        if (!hasAction(player, ActionType.MILK))
+            return;
 
         ItemStack itemInHand = CMIItemStack.getItemInMainHand(player);
         if (itemInHand.getType() != Material.BUCKET && itemInHand.getType() != Material.BOWL) {
@@ -314,6 +319,9 @@ public final class JobsPaymentListener implements Listener {
         if (!(event.getEntity() instanceof Sheep) && !(event.getEntity() instanceof MushroomCow) || !Jobs.getGCManager().canPerformActionInWorld(player.getWorld()))
             return;
 
+        if (!hasAction(player, ActionType.SHEAR))
+            return;
+
         Entity entity = event.getEntity();
 
         if (!(entity instanceof LivingEntity))
@@ -353,11 +361,11 @@ public final class JobsPaymentListener implements Listener {
             typeString = CMIEntityType.get(entity).toString();
         }
 
+        int amount = 1;
+
         if (Jobs.getGCManager().payForStackedEntities) {
             if (JobsHook.WildStacker.isEnabled() && !StackSplit.SHEEP_SHEAR.isEnabled()) {
-                for (int i = 0; i < JobsHook.getWildStackerManager().getEntityAmount((LivingEntity) entity) - 1; i++) {
-                    Jobs.action(jDamager, new CustomKillInfo(typeString, ActionType.SHEAR));
-                }
+                amount = JobsHook.getWildStackerManager().getEntityAmount((LivingEntity) entity);
             } else if (JobsHook.StackMob.isEnabled() && JobsHook.getStackMobManager().isStacked((LivingEntity) entity)) {
                 StackEntity stack = JobsHook.getStackMobManager().getStackEntity((LivingEntity) entity);
                 if (stack != null) {
@@ -367,7 +375,7 @@ public final class JobsPaymentListener implements Listener {
             }
         }
 
-        Jobs.action(jDamager, new CustomKillInfo(typeString, ActionType.SHEAR));
+        Jobs.action(jDamager, new CustomKillInfo(typeString, ActionType.SHEAR).setCount(amount));
 
     }
 
@@ -412,7 +420,7 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(uuid);
-        if (jPlayer == null)
+        if (jPlayer == null || !jPlayer.hasAction(ActionType.BREW))
             return;
 
         Player player = jPlayer.getPlayer();
@@ -466,22 +474,11 @@ public final class JobsPaymentListener implements Listener {
 
         BlockActionInfo bInfo = new BlockActionInfo(block, ActionType.BREAK);
 
-        FastPayment fp = Jobs.FASTPAYMENT.get(player.getUniqueId());
-        if (fp != null) {
-            if (fp.getTime() > System.currentTimeMillis() && (fp.getInfo().getName().equalsIgnoreCase(bInfo.getName()) ||
-                fp.getInfo().getNameWithSub().equalsIgnoreCase(bInfo.getNameWithSub()))) {
-                Jobs.perform(fp.getPlayer(), fp.getInfo(), fp.getPayment(), fp.getJob(), block, null, null);
-                return;
-            }
-
-            Jobs.FASTPAYMENT.remove(player.getUniqueId());
-        }
-
         if (!payForItemDurabilityLoss(player))
             return;
 
         // Protection for block break with silktouch
-        if (Jobs.getGCManager().useSilkTouchProtection) {
+        if (Jobs.getGCManager().useSilkTouchProtection && hasAction(player, ActionType.BREAK)) {
             ItemStack item = CMIItemStack.getItemInMainHand(player);
 
             if (item.getType() != Material.AIR && Jobs.getExploitManager().isInProtection(block)) {
@@ -503,7 +500,7 @@ public final class JobsPaymentListener implements Listener {
         }*/
 
         Jobs.action(Jobs.getPlayerManager().getJobsPlayer(player), bInfo, block);
-        breakCache.put(CMILocation.toString(block.getLocation(), ":", true, true), player.getUniqueId());
+        JobsPayForAboveListener.cacheBreak(block, player.getUniqueId());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -559,7 +556,7 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = (Player) event.getOwner();
-        if (!player.isOnline())
+        if (!player.isOnline() || !hasAction(player, ActionType.TAME))
             return;
 
         // check if in creative
@@ -578,11 +575,11 @@ public final class JobsPaymentListener implements Listener {
         if (jDamager == null)
             return;
 
+        int amount = 1;
+
         if (Jobs.getGCManager().payForStackedEntities) {
             if (JobsHook.WildStacker.isEnabled()) {
-                for (int i = 0; i < JobsHook.getWildStackerManager().getEntityAmount(animal) - 1; i++) {
-                    Jobs.action(jDamager, new EntityActionInfo(animal, ActionType.TAME));
-                }
+                amount = JobsHook.getWildStackerManager().getEntityAmount(animal);
             } else if (JobsHook.StackMob.isEnabled() && JobsHook.getStackMobManager().isStacked(animal)) {
 
                 StackEntity stack = JobsHook.getStackMobManager().getStackEntity(animal);
@@ -593,7 +590,7 @@ public final class JobsPaymentListener implements Listener {
             }
         }
 
-        Jobs.action(jDamager, new EntityActionInfo(animal, ActionType.TAME));
+        Jobs.action(jDamager, new EntityActionInfo(animal, ActionType.TAME).setCount(amount));
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -624,6 +621,8 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = (Player) event.getWhoClicked();
+        if (!hasAction(player, CRAFT_ACTIONS))
+            return;
 
         //Check if inventory is full and using shift click, possible money dupping fix
         if (player.getInventory().firstEmpty() == -1 && event.isShiftClick()) {
@@ -875,7 +874,7 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = (Player) event.getWhoClicked();
-        if (!Jobs.getGCManager().canPerformActionInWorld(player.getWorld()))
+        if (!Jobs.getGCManager().canPerformActionInWorld(player.getWorld()) || !hasAction(player, REPAIR_ACTIONS))
             return;
 
         Inventory inv = event.getInventory();
@@ -1021,6 +1020,9 @@ public final class JobsPaymentListener implements Listener {
 
         Player player = event.getEnchanter();
 
+        if (!hasAction(player, ActionType.ENCHANT))
+            return;
+
         if (!Jobs.getPermissionHandler().hasWorldPermission(player, player.getLocation().getWorld().getName()))
             return;
 
@@ -1063,77 +1065,6 @@ public final class JobsPaymentListener implements Listener {
         Jobs.action(jPlayer, new ItemActionInfo(resultStack, ActionType.ENCHANT));
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onInventoryMoveItemEventToFurnace(InventoryMoveItemEvent event) {
-        if (!Jobs.getGCManager().PreventHopperFillUps || event.getItem().getType() == Material.AIR)
-            return;
-
-        Block block = null;
-
-        switch (event.getDestination().getType().toString().toLowerCase()) {
-        case "furnace":
-            block = ((Furnace) event.getDestination().getHolder()).getBlock();
-            break;
-        case "smoker":
-            // This should be done in this way to have backwards compatibility
-            block = ((org.bukkit.block.Smoker) event.getDestination().getHolder()).getBlock();
-            break;
-        case "blast_furnace":
-            // This should be done in this way to have backwards compatibility
-            block = ((org.bukkit.block.BlastFurnace) event.getDestination().getHolder()).getBlock();
-            break;
-        default:
-            return;
-        }
-
-        if (block == null || !Jobs.getGCManager().canPerformActionInWorld(block.getWorld()))
-            return;
-
-        processItemMove(block);
-    }
-
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onInventoryMoveItemEventToBrewingStand(InventoryMoveItemEvent event) {
-        if (!Jobs.getGCManager().PreventBrewingStandFillUps || event.getDestination().getType() != InventoryType.BREWING)
-            return;
-
-        if (event.getItem().getType() == Material.AIR)
-            return;
-
-        final BrewingStand stand = (BrewingStand) event.getDestination().getHolder();
-
-        if (!Jobs.getGCManager().canPerformActionInWorld(stand.getWorld()))
-            return;
-
-        processItemMove(stand.getBlock());
-    }
-
-    private void processItemMove(Block block) {
-        if (Jobs.getGCManager().blockOwnershipDisabled)
-            return;
-
-        plugin.getBlockOwnerShip(CMIMaterial.get(block)).ifPresent(os -> {
-            if (!os.disable(block) || !Jobs.getGCManager().informOnPaymentDisable)
-                return;
-
-            UUID uuid = plugin.getBlockOwnerShip(CMIMaterial.get(block)).get().getOwnerByLocation(block.getLocation());
-            Player player = Bukkit.getPlayer(uuid);
-            if (player == null || !player.isOnline())
-                return;
-
-            JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(player);
-            String lc = CMILocation.toString(block.getLocation());
-
-            if (jPlayer.hasBlockOwnerShipInform(lc))
-                return;
-
-            CMIMessages.sendMessage(player, Jobs.getLanguage().getMessage("general.error.blockDisabled",
-                "[type]", Jobs.getNameTranslatorManager().translate(CMIMaterial.get(block)),
-                "[location]", LC.Location_Full.getLocale(block.getLocation())));
-            jPlayer.addBlockOwnerShipInform(lc);
-        });
-    }
-
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onFurnaceSmelt(FurnaceSmeltEvent event) {
         Block block = event.getBlock();
@@ -1172,7 +1103,7 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = Bukkit.getPlayer(uuid);
-        if (player == null || !player.isOnline())
+        if (player == null || !player.isOnline() || !hasAction(player, ActionType.SMELT))
             return;
 
         if (bos.isDisabled(uuid, block.getLocation()))
@@ -1338,7 +1269,7 @@ public final class JobsPaymentListener implements Listener {
                 pDamager = (Player) t.getOwner();
         }
 
-        if (pDamager == null)
+        if (pDamager == null || !hasAction(pDamager, KILL_ACTIONS))
             return;
 
         // Prevent payment for killing mobs with pet by denying permission
@@ -1373,11 +1304,11 @@ public final class JobsPaymentListener implements Listener {
         if (notNpc && jDamager.getName().equalsIgnoreCase(((Player) lVictim).getName()))
             return;
 
+        int amount = 1;
+
         if (Jobs.getGCManager().payForStackedEntities) {
             if (JobsHook.WildStacker.isEnabled()) {
-                for (int i = 0; i < JobsHook.getWildStackerManager().getEntityAmount(lVictim) - 1; i++) {
-                    Jobs.action(jDamager, new EntityActionInfo(lVictim, ActionType.KILL), killer, lVictim);
-                }
+                amount = JobsHook.getWildStackerManager().getEntityAmount(lVictim);
             } else if (JobsHook.StackMob.isEnabled() && JobsHook.getStackMobManager().isStacked(lVictim)) {
                 StackEntity stack = JobsHook.getStackMobManager().getStackEntity(lVictim);
                 if (stack != null) {
@@ -1387,7 +1318,7 @@ public final class JobsPaymentListener implements Listener {
             }
         }
 
-        Jobs.action(jDamager, new EntityActionInfo(lVictim, ActionType.KILL), killer, lVictim);
+        Jobs.action(jDamager, new EntityActionInfo(lVictim, ActionType.KILL).setCount(amount), killer, lVictim);
 
         // Payment for killing player with particular job, except NPC's
         if (notNpc) {
@@ -1412,7 +1343,7 @@ public final class JobsPaymentListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onHangingPlaceEvent(HangingPlaceEvent event) {
         Player player = event.getPlayer();
-        if (player == null || !player.isOnline())
+        if (player == null || !player.isOnline() || !hasAction(player, ActionType.PLACE))
             return;
 
         if (!Jobs.getGCManager().canPerformActionInWorld(event.getEntity().getWorld()))
@@ -1438,7 +1369,7 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player player = (Player) event.getRemover();
-        if (!player.isOnline())
+        if (!player.isOnline() || !hasAction(player, ActionType.BREAK))
             return;
 
         // check if in creative
@@ -1486,7 +1417,7 @@ public final class JobsPaymentListener implements Listener {
             }
         }
 
-        if (player == null || !player.isOnline())
+        if (player == null || !player.isOnline() || !hasAction(player, ActionType.PLACE))
             return;
 
         // check if in creative
@@ -1523,6 +1454,8 @@ public final class JobsPaymentListener implements Listener {
             return;
 
         Player pDamager = (Player) e.getDamager();
+        if (!hasAction(pDamager, ActionType.BREAK))
+            return;
 
         // check if in creative
         if (!payIfCreative(pDamager))
@@ -1575,7 +1508,7 @@ public final class JobsPaymentListener implements Listener {
 
         Player player = Util.getClosestPlayer(animal.getLocation());
 
-        if (player == null)
+        if (player == null || !hasAction(player, ActionType.BREED))
             return;
 
         // check if in creative
@@ -1600,7 +1533,7 @@ public final class JobsPaymentListener implements Listener {
         if (!Jobs.getGCManager().canPerformActionInWorld(player.getWorld()) || player.hasMetadata("NPC"))
             return;
 
-        if (!player.isOnline())
+        if (!player.isOnline() || !hasAction(player, ActionType.EAT))
             return;
 
         // check if in creative
@@ -1645,21 +1578,8 @@ public final class JobsPaymentListener implements Listener {
         if (!Jobs.getGCManager().isUseTntFinder() && type != CMIEntityType.ENDER_CRYSTAL)
             return;
 
-        double closest = 60.0;
-        Player player = null;
-        Location loc = e.getLocation();
-        for (Player i : Bukkit.getOnlinePlayers()) {
-            if (loc.getWorld() != i.getWorld())
-                continue;
-
-            double dist = i.getLocation().distance(loc);
-            if (closest > dist) {
-                closest = dist;
-                player = i;
-            }
-        }
-
-        if (player == null || closest == 60.0 || !player.isOnline())
+        Player player = Jobs.getPlayerLocationIndex().getClosestPlayer(e.getLocation(), 60);
+        if (player == null || !player.isOnline())
             return;
 
         // check if in creative
@@ -1685,6 +1605,7 @@ public final class JobsPaymentListener implements Listener {
             }
         }
 
+        List<Block> blocks = new ArrayList<>(event.blockList().size());
         for (final Block block : event.blockList()) {
             if (block == null)
                 continue;
@@ -1692,10 +1613,26 @@ public final class JobsPaymentListener implements Listener {
             plugin.removeBlockOwnerShip(block);
 
             if (Jobs.getGCManager().useBlockProtection && block.getState().hasMetadata(blockMetadata))
-                return;
+                break;
 
-            Jobs.action(jPlayer, new BlockActionInfo(block, ActionType.TNTBREAK), block);
+            blocks.add(block);
         }
+
+        Jobs.actionBatch(jPlayer, ActionType.TNTBREAK, blocks);
+    }
+
+    /**
+     * Checks if any job or quest of the player pays for the given action, so
+     * events which can not pay are skipped before doing any other work.
+     */
+    private static boolean hasAction(Player player, ActionType type) {
+        JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(player);
+        return jPlayer != null && jPlayer.hasAction(type);
+    }
+
+    private static boolean hasAction(Player player, Set<ActionType> types) {
+        JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(player);
+        return jPlayer != null && jPlayer.hasAnyAction(types);
     }
 
     private boolean holdsItem(Player player) {
@@ -1721,7 +1658,7 @@ public final class JobsPaymentListener implements Listener {
 
         if (event.useInteractedBlock() != org.bukkit.event.Event.Result.DENY &&
             event.getAction() == Action.RIGHT_CLICK_BLOCK &&
-            jPlayer != null &&
+            jPlayer != null && jPlayer.hasAction(ActionType.COLLECT) &&
             (!p.isSneaking() || !holdsItem(p))) {
             if (Version.isCurrentEqualOrHigher(Version.v1_14_R1)) {
                 if (cmat == CMIMaterial.COMPOSTER) {
@@ -1809,7 +1746,7 @@ public final class JobsPaymentListener implements Listener {
             BlockOwnerShip.saveDelay();
 
         } else if (!block.getType().toString().startsWith("STRIPPED_") &&
-            event.getAction() == Action.RIGHT_CLICK_BLOCK && jPlayer != null && hand.toString().endsWith("_AXE")) {
+            event.getAction() == Action.RIGHT_CLICK_BLOCK && jPlayer != null && hand.toString().endsWith("_AXE") && jPlayer.hasAction(ActionType.STRIPLOGS)) {
             // check if player is riding
             if (Jobs.getGCManager().disablePaymentIfRiding && p.isInsideVehicle())
                 return;
@@ -1931,59 +1868,4 @@ public final class JobsPaymentListener implements Listener {
 
         return true;
     }
-
-    private static final int MAX_ENTRIES = 50;
-    LinkedHashMap<String, UUID> breakCache = new LinkedHashMap<String, UUID>(MAX_ENTRIES + 1, .75F, false) {
-        protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
-            return size() > MAX_ENTRIES;
-        }
-    };
-
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onEvent(BlockPhysicsEvent event) {
-        if (!Jobs.getGCManager().payForAbove)
-            return;
-        if (event.getBlock().getType().equals(Material.AIR))
-            return;
-        final Block block = event.getBlock();
-
-        CMIMaterial mat = CMIMaterial.get(block);
-
-        if (!mat.equals(CMIMaterial.SUGAR_CANE) && !mat.equals(CMIMaterial.BAMBOO) && !mat.equals(CMIMaterial.KELP_PLANT) && !mat.equals(CMIMaterial.WEEPING_VINES) && !mat.equals(
-            CMIMaterial.WEEPING_VINES_PLANT))
-            return;
-
-        if (!Jobs.getGCManager().canPerformActionInWorld(block.getWorld()))
-            return;
-
-        if (event.getSourceBlock().equals(event.getBlock()))
-            return;
-
-        if ((mat.equals(CMIMaterial.SUGAR_CANE) || mat.equals(CMIMaterial.BAMBOO) || mat.equals(CMIMaterial.KELP_PLANT)) &&
-            event.getBlock().getLocation().getBlockY() <= event.getSourceBlock().getLocation().getBlockY())
-            return;
-
-        if ((mat.equals(CMIMaterial.WEEPING_VINES) || mat.equals(CMIMaterial.WEEPING_VINES_PLANT)) &&
-            event.getBlock().getLocation().getBlockY() >= event.getSourceBlock().getLocation().getBlockY())
-            return;
-
-        Location loc = event.getSourceBlock().getLocation().clone();
-        UUID uuid = breakCache.get(CMILocation.toString(loc, ":", true, true));
-        if (uuid == null)
-            return;
-
-        BlockActionInfo bInfo = new BlockActionInfo(block, ActionType.BREAK);
-        FastPayment fp = Jobs.FASTPAYMENT.get(uuid);
-        if (fp == null)
-            return;
-        if (!fp.getInfo().getType().equals(ActionType.BREAK) || !fp.getInfo().getNameWithSub().equals(bInfo.getNameWithSub()))
-            return;
-
-        if (fp.getTime() > System.currentTimeMillis() - 50L && (fp.getInfo().getName().equalsIgnoreCase(bInfo.getName()) ||
-            fp.getInfo().getNameWithSub().equalsIgnoreCase(bInfo.getNameWithSub()))) {
-            Jobs.perform(fp.getPlayer(), fp.getInfo(), fp.getPayment(), fp.getJob(), block, null, null);
-            breakCache.put(CMILocation.toString(block.getLocation(), ":", true, true), uuid);
-            fp.setTime(System.currentTimeMillis() + 45);
-        }
-    }
 }
@@ -0,0 +1,68 @@
+package com.gamingmesh.jobs.listeners;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+import com.gamingmesh.jobs.Jobs;
+
+/**
+ * Keeps {@link com.gamingmesh.jobs.stuff.PlayerLocationIndex} up to date when
+ * players join, move into another chunk, teleport or respawn. Players riding a
+ * vehicle get no move events, so the vehicle moves are used for them.
+ * <p>
+ * Registered only while the index is active, as it has to handle every player
+ * move.
+ */
+public class JobsPlayerLocationListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Jobs.getPlayerLocationIndex().update(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+
+        if (to == null || isSameChunk(event.getFrom(), to))
+            return;
+
+        Jobs.getPlayerLocationIndex().update(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        Location to = event.getTo();
+
+        if (isSameChunk(event.getFrom(), to))
+            return;
+
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player)
+                Jobs.getPlayerLocationIndex().update((Player) passenger, to);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Jobs.getPlayerLocationIndex().update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        Jobs.getPlayerLocationIndex().update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    private static boolean isSameChunk(Location from, Location to) {
+        return from.getBlockX() >> 4 == to.getBlockX() >> 4 && from.getBlockZ() >> 4 == to.getBlockZ() >> 4 && from.getWorld() == to.getWorld();
+    }
+}
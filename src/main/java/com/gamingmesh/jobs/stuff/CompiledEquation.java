@@ -0,0 +1,437 @@
+package com.gamingmesh.jobs.stuff;
+
+import net.Zrips.CMILib.Equations.ParseError;
+import net.Zrips.CMILib.Equations.Parser;
+
+/**
+ * Immutable evaluator of a configured equation.
+ * <p>
+ * The expression is compiled once into a tree of closures which takes up to
+ * four variables as primitive arguments, in the order they were declared on
+ * {@link #compile(String, String...)}. Evaluating it does not touch any shared
+ * state, so it can be used from several threads at once.
+ * <p>
+ * The compiled tree is checked against the CMILib {@link Parser} on a few
+ * sample values. If the expression uses something which is not supported here,
+ * or the results differ, evaluation falls back to the {@link Parser} guarded by
+ * a lock, so results are always the same as before.
+ */
+public final class CompiledEquation {
+
+    private static final int MAX_VARIABLES = 4;
+
+    private static final double[][] SAMPLES = {
+        { 1, 1, 2, 1 },
+        { 2, 3, 4, 0.5 },
+        { 17, 2, 5, 12.25 },
+        { 150, 4, 7, 1000 }
+    };
+
+    private final String expression;
+    private final String[] variables;
+    private final Parser parser;
+    private final Node root;
+    private final int usedVariables;
+
+    private CompiledEquation(String expression, String[] variables, Parser parser, Node root, int usedVariables) {
+        this.expression = expression;
+        this.variables = variables;
+        this.parser = parser;
+        this.root = root;
+        this.usedVariables = usedVariables;
+    }
+
+    /**
+     * Compiles the given expression.
+     *
+     * @param expression the equation, for example <code>10*(joblevel)+(joblevel*joblevel*4)</code>
+     * @param variables variable names in the order they are passed to <code>getValue</code>
+     * @return {@link CompiledEquation}
+     * @throws ParseError if the expression is not a valid equation
+     */
+    public static CompiledEquation compile(String expression, String... variables) throws ParseError {
+        if (variables.length > MAX_VARIABLES)
+            throw new IllegalArgumentException("Equation can have up to " + MAX_VARIABLES + " variables");
+
+        Parser parser = new Parser(expression);
+
+        Node root = null;
+        int used = (1 << variables.length) - 1;
+        try {
+            Compiler compiler = new Compiler(expression, variables);
+            Node compiled = compiler.parse();
+
+            // Sampled on its own parser, the shared one keeps the values its callers set
+            if (matchesParser(compiled, new Parser(expression), variables)) {
+                root = compiled;
+                used = compiler.used;
+            }
+        } catch (RuntimeException e) {
+            // Not supported by the compiler, evaluated by the parser instead
+        }
+
+        return new CompiledEquation(expression, variables.clone(), parser, root, used);
+    }
+
+    /**
+     * Wraps an already created {@link Parser} which expression is unknown. Evaluation
+     * is delegated to the parser under a lock.
+     *
+     * @param parser {@link Parser}
+     * @param variables variable names in the order they are passed to <code>getValue</code>
+     * @return {@link CompiledEquation} or null if parser is null
+     */
+    public static CompiledEquation of(Parser parser, String... variables) {
+        if (parser == null)
+            return null;
+
+        if (variables.length > MAX_VARIABLES)
+            throw new IllegalArgumentException("Equation can have up to " + MAX_VARIABLES + " variables");
+
+        return new CompiledEquation(null, variables.clone(), parser, null, (1 << variables.length) - 1);
+    }
+
+    public double getValue(double a) {
+        return getValue(a, 0, 0, 0);
+    }
+
+    public double getValue(double a, double b) {
+        return getValue(a, b, 0, 0);
+    }
+
+    public double getValue(double a, double b, double c) {
+        return getValue(a, b, c, 0);
+    }
+
+    /**
+     * Evaluates this equation with the given variable values, in the order of
+     * declaration.
+     *
+     * @return the result
+     */
+    public double getValue(double a, double b, double c, double d) {
+        if (root != null)
+            return root.eval(a, b, c, d);
+
+        synchronized (parser) {
+            for (int i = 0; i < variables.length; i++) {
+                parser.setVariable(variables[i], i == 0 ? a : i == 1 ? b : i == 2 ? c : d);
+            }
+            return parser.getValue();
+        }
+    }
+
+    /**
+     * Sets the variables of the underlying {@link Parser}, for callers of
+     * {@link #getParser()} which only set some of them.
+     *
+     * @param values variable values in the order of declaration
+     * @return this equation
+     */
+    public CompiledEquation setParserVariables(double... values) {
+        synchronized (parser) {
+            for (int i = 0; i < variables.length && i < values.length; i++) {
+                parser.setVariable(variables[i], values[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return true if this equation was compiled, false if it is evaluated by {@link Parser}
+     */
+    public boolean isCompiled() {
+        return root != null;
+    }
+
+    /**
+     * Checks if the result of this equation depends on the variable at the given
+     * position. Equations evaluated by the {@link Parser} depend on every variable.
+     *
+     * @param index variable position
+     * @return true if the variable is used
+     */
+    public boolean dependsOn(int index) {
+        return (usedVariables & (1 << index)) != 0;
+    }
+
+    /**
+     * @return the source expression, or null if it is unknown
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the underlying {@link Parser}. Its variables should not be changed
+     * outside of this class as it can be shared between threads.
+     *
+     * @return {@link Parser}
+     */
+    public Parser getParser() {
+        return parser;
+    }
+
+    private static boolean matchesParser(Node compiled, Parser parser, String[] variables) {
+        for (double[] sample : SAMPLES) {
+            double expected;
+            try {
+                for (int i = 0; i < variables.length; i++) {
+                    parser.setVariable(variables[i], sample[i]);
+                }
+                expected = parser.getValue();
+            } catch (Throwable e) {
+                return false;
+            }
+
+            double actual = compiled.eval(sample[0], sample[1], sample[2], sample[3]);
+            if (Double.compare(expected, actual) != 0 && Math.abs(expected - actual) > 1e-9 * Math.max(1D, Math.abs(expected)))
+                return false;
+        }
+
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        double eval(double a, double b, double c, double d);
+    }
+
+    private static final class Constant implements Node {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double eval(double a, double b, double c, double d) {
+            return value;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operator {
+        double apply(double left, double right);
+    }
+
+    /**
+     * Recursive descent parser for <code>+ - * / % ^</code>, parentheses, numbers,
+     * variables and a few common functions.
+     */
+    private static final class Compiler {
+        private final String source;
+        private final String[] variables;
+        private int pos = 0;
+        private int used = 0;
+
+        private Compiler(String source, String[] variables) {
+            this.source = source;
+            this.variables = variables;
+        }
+
+        private Node parse() {
+            Node node = expression();
+            skipSpaces();
+
+            if (pos < source.length())
+                throw new IllegalArgumentException("Unexpected character at " + pos);
+
+            return node;
+        }
+
+        private Node expression() {
+            Node left = term();
+
+            while (true) {
+                if (eat('+'))
+                    left = binary(left, term(), (l, r) -> l + r);
+                else if (eat('-'))
+                    left = binary(left, term(), (l, r) -> l - r);
+                else
+                    return left;
+            }
+        }
+
+        private Node term() {
+            Node left = unary();
+
+            while (true) {
+                if (eat('*'))
+                    left = binary(left, unary(), (l, r) -> l * r);
+                else if (eat('/'))
+                    left = binary(left, unary(), (l, r) -> l / r);
+                else if (eat('%'))
+                    left = binary(left, unary(), (l, r) -> l % r);
+                else
+                    return left;
+            }
+        }
+
+        private Node unary() {
+            if (eat('-')) {
+                Node node = unary();
+                if (node instanceof Constant)
+                    return new Constant(-((Constant) node).value);
+                return (a, b, c, d) -> -node.eval(a, b, c, d);
+            }
+
+            if (eat('+'))
+                return unary();
+
+            return power();
+        }
+
+        private Node power() {
+            Node base = primary();
+
+            if (eat('^'))
+                return binary(base, unary(), Math::pow);
+
+            return base;
+        }
+
+        private Node primary() {
+            skipSpaces();
+
+            if (eat('(')) {
+                Node node = expression();
+                expect(')');
+                return node;
+            }
+
+            if (pos >= source.length())
+                throw new IllegalArgumentException("Unexpected end of equation");
+
+            char ch = source.charAt(pos);
+            if (Character.isDigit(ch) || ch == '.')
+                return number();
+
+            if (Character.isLetter(ch) || ch == '_')
+                return identifier();
+
+            throw new IllegalArgumentException("Unexpected character at " + pos);
+        }
+
+        private Node number() {
+            int start = pos;
+            while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.'))
+                pos++;
+
+            return new Constant(Double.parseDouble(source.substring(start, pos)));
+        }
+
+        private Node identifier() {
+            int start = pos;
+            while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_'))
+                pos++;
+
+            String name = source.substring(start, pos);
+
+            skipSpaces();
+            if (pos < source.length() && source.charAt(pos) == '(')
+                return function(name.toLowerCase());
+
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].equalsIgnoreCase(name))
+                    return variable(i);
+            }
+
+            switch (name.toLowerCase()) {
+            case "pi":
+                return new Constant(Math.PI);
+            case "e":
+                return new Constant(Math.E);
+            default:
+                throw new IllegalArgumentException("Unknown variable " + name);
+            }
+        }
+
+        private Node variable(int index) {
+            used |= 1 << index;
+
+            switch (index) {
+            case 0:
+                return (a, b, c, d) -> a;
+            case 1:
+                return (a, b, c, d) -> b;
+            case 2:
+                return (a, b, c, d) -> c;
+            default:
+                return (a, b, c, d) -> d;
+            }
+        }
+
+        private Node function(String name) {
+            expect('(');
+            Node first = expression();
+
+            if (eat(',')) {
+                Node second = expression();
+                expect(')');
+
+                switch (name) {
+                case "min":
+                    return binary(first, second, Math::min);
+                case "max":
+                    return binary(first, second, Math::max);
+                case "pow":
+                    return binary(first, second, Math::pow);
+                default:
+                    throw new IllegalArgumentException("Unknown function " + name);
+                }
+            }
+
+            expect(')');
+
+            switch (name) {
+            case "abs":
+                return (a, b, c, d) -> Math.abs(first.eval(a, b, c, d));
+            case "sqrt":
+                return (a, b, c, d) -> Math.sqrt(first.eval(a, b, c, d));
+            case "floor":
+                return (a, b, c, d) -> Math.floor(first.eval(a, b, c, d));
+            case "ceil":
+                return (a, b, c, d) -> Math.ceil(first.eval(a, b, c, d));
+            case "round":
+                return (a, b, c, d) -> Math.round(first.eval(a, b, c, d));
+            case "exp":
+                return (a, b, c, d) -> Math.exp(first.eval(a, b, c, d));
+            case "ln":
+                return (a, b, c, d) -> Math.log(first.eval(a, b, c, d));
+            case "log":
+                return (a, b, c, d) -> Math.log10(first.eval(a, b, c, d));
+            default:
+                throw new IllegalArgumentException("Unknown function " + name);
+            }
+        }
+
+        private static Node binary(Node left, Node right, Operator op) {
+            if (left instanceof Constant && right instanceof Constant)
+                return new Constant(op.apply(((Constant) left).value, ((Constant) right).value));
+
+            return (a, b, c, d) -> op.apply(left.eval(a, b, c, d), right.eval(a, b, c, d));
+        }
+
+        private boolean eat(char ch) {
+            skipSpaces();
+
+            if (pos < source.length() && source.charAt(pos) == ch) {
+                pos++;
+                return true;
+            }
+
+            return false;
+        }
+
+        private void expect(char ch) {
+            if (!eat(ch))
+                throw new IllegalArgumentException("Expected '" + ch + "' at " + pos);
+        }
+
+        private void skipSpaces() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos)))
+                pos++;
+        }
+    }
+}
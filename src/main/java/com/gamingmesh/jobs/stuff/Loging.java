@@ -7,6 +7,7 @@ import com.gamingmesh.jobs.container.ActionInfo;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.JobsPlayer;
 import com.gamingmesh.jobs.container.Log;
+import com.gamingmesh.jobs.container.PaymentVector;
 
 import net.Zrips.CMILib.Time.CMITimeManager;
 
@@ -16,17 +17,33 @@ public class Loging {
 	recordToLog(jPlayer, info.getType().getName(), info.getNameWithSub(), amounts);
     }
 
+    public void recordToLog(JobsPlayer jPlayer, ActionInfo info, PaymentVector amounts) {
+	recordToLog(jPlayer, info.getType().getName(), info.getNameWithSub(), amounts, 1);
+    }
+
+    public void recordToLog(JobsPlayer jPlayer, ActionInfo info, PaymentVector amounts, int times) {
+	recordToLog(jPlayer, info.getType().getName(), info.getNameWithSub(), amounts, times);
+    }
+
     public void recordToLog(JobsPlayer jPlayer, String actionName, String item, Map<CurrencyType, Double> amounts) {
+	recordToLog(jPlayer, actionName, item, PaymentVector.of(amounts));
+    }
+
+    public void recordToLog(JobsPlayer jPlayer, String actionName, String item, PaymentVector amounts) {
+	recordToLog(jPlayer, actionName, item, amounts, 1);
+    }
+
+    private void recordToLog(JobsPlayer jPlayer, String actionName, String item, PaymentVector amounts, int times) {
 	Map<String, Log> logList = jPlayer.getLog();
-	Log l = logList.values().stream().findFirst().orElse(null);
-	if (l != null && CMITimeManager.timeInInt() != l.getDate()) {
+	if (!logList.isEmpty() && CMITimeManager.timeInInt() != logList.values().iterator().next().getDate()) {
 	    Jobs.getJobsDAO().saveLog(jPlayer);
 	    jPlayer.getLog().clear();
 	}
 
-	Log log = logList.getOrDefault(actionName, new Log(actionName));
-	log.add(item, amounts);
-	logList.put(actionName, log);
+	Log log = logList.get(actionName);
+	if (log == null)
+	    logList.put(actionName, log = new Log(actionName));
+	log.add(item, amounts, times);
     }
 
     public void loadToLog(JobsPlayer jPlayer, String actionName, String item, int count, Map<CurrencyType, Double> amounts) {
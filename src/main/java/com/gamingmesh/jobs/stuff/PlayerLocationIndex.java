@@ -0,0 +1,226 @@
+package com.gamingmesh.jobs.stuff;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import com.gamingmesh.jobs.Jobs;
+
+import net.Zrips.CMILib.Version.Schedulers.CMIScheduler;
+import net.Zrips.CMILib.Version.Schedulers.CMITask;
+
+/**
+ * Online players grouped by world and chunk, to find players near a location
+ * without checking the distance to every online player.
+ * <p>
+ * The index is only kept while a feature reads it, see
+ * {@link #setActive(boolean)}. Joins, chunk changes, teleports and respawns are
+ * picked up by {@link com.gamingmesh.jobs.listeners.JobsPlayerLocationListener}.
+ * A sweep every {@link #SWEEP_PERIOD} ticks moves every online player to the
+ * chunk the player is in, for moves without a player event such as riding
+ * passengers of other passengers, and drops players who left without being
+ * removed.
+ * While the index is not active, lookups check the players of the world
+ * directly.
+ */
+public final class PlayerLocationIndex {
+
+    private static final long SWEEP_PERIOD = 200L;
+
+    private final Map<UUID, Map<Long, Set<Player>>> worlds = new ConcurrentHashMap<>();
+    private final Map<UUID, Cell> cells = new ConcurrentHashMap<>();
+
+    private volatile boolean active = false;
+    private CMITask task;
+
+    private static final class Cell {
+        private final UUID world;
+        private final long key;
+
+        private Cell(UUID world, long key) {
+            this.world = world;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Starts or stops keeping the index. Needs to be called on the main
+     * thread.
+     *
+     * @param active true if any feature reads the index
+     */
+    public void setActive(boolean active) {
+        if (this.active == active)
+            return;
+
+        if (!active) {
+            stop();
+            return;
+        }
+
+        Bukkit.getOnlinePlayers().forEach(this::update);
+        task = CMIScheduler.scheduleSyncRepeatingTask(Jobs.getInstance(), this::sweep, SWEEP_PERIOD, SWEEP_PERIOD);
+        this.active = true;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void stop() {
+        active = false;
+
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        worlds.clear();
+        cells.clear();
+    }
+
+    private void sweep() {
+        Bukkit.getOnlinePlayers().forEach(this::update);
+
+        // Players who quit without being removed
+        for (Iterator<Map.Entry<UUID, Cell>> it = cells.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<UUID, Cell> one = it.next();
+            if (Bukkit.getPlayer(one.getKey()) == null) {
+                it.remove();
+                removeFromCell(one.getValue(), one.getKey());
+            }
+        }
+    }
+
+    /**
+     * Moves the player to the cell of the chunk the player is in.
+     *
+     * @param player {@link Player}
+     */
+    public void update(Player player) {
+        update(player, player.getLocation());
+    }
+
+    /**
+     * Moves the player to the cell of the chunk of the given location, for
+     * events which fire before the player is moved.
+     *
+     * @param player {@link Player}
+     * @param loc the new {@link Location} of the player
+     */
+    public void update(Player player, Location loc) {
+        if (loc == null || loc.getWorld() == null)
+            return;
+
+        Cell cell = new Cell(loc.getWorld().getUID(), toKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4));
+        Cell old = cells.put(player.getUniqueId(), cell);
+
+        if (old != null) {
+            if (old.world.equals(cell.world) && old.key == cell.key)
+                return;
+
+            removeFromCell(old, player.getUniqueId());
+        }
+
+        worlds.computeIfAbsent(cell.world, k -> new ConcurrentHashMap<>()).computeIfAbsent(cell.key, k -> ConcurrentHashMap.newKeySet()).add(player);
+    }
+
+    public void remove(Player player) {
+        Cell old = cells.remove(player.getUniqueId());
+        if (old != null)
+            removeFromCell(old, player.getUniqueId());
+    }
+
+    private void removeFromCell(Cell cell, UUID uuid) {
+        Map<Long, Set<Player>> world = worlds.get(cell.world);
+        if (world == null)
+            return;
+
+        world.computeIfPresent(cell.key, (k, players) -> {
+            players.removeIf(p -> p.getUniqueId().equals(uuid));
+            return players.isEmpty() ? null : players;
+        });
+    }
+
+    /**
+     * @see #getClosestPlayer(Location, double, Predicate)
+     */
+    public Player getClosestPlayer(Location loc, double radius) {
+        return getClosestPlayer(loc, radius, null);
+    }
+
+    /**
+     * Finds the closest online player in the same world which is nearer to
+     * the given location than the radius.
+     *
+     * @param loc {@link Location}
+     * @param radius distance in blocks
+     * @param filter players to consider, or null for everyone
+     * @return {@link Player} or null if there is no player in range
+     */
+    public Player getClosestPlayer(Location loc, double radius, Predicate<Player> filter) {
+        World world = loc.getWorld();
+        if (world == null || radius <= 0)
+            return null;
+
+        if (!active)
+            return getClosestPlayer(world.getPlayers(), loc, radius * radius, filter);
+
+        Map<Long, Set<Player>> grid = worlds.get(world.getUID());
+        if (grid == null)
+            return null;
+
+        int cx = loc.getBlockX() >> 4;
+        int cz = loc.getBlockZ() >> 4;
+        int range = (int) Math.ceil(radius / 16D);
+
+        double closest = radius * radius;
+        Player player = null;
+
+        for (int x = cx - range; x <= cx + range; x++) {
+            for (int z = cz - range; z <= cz + range; z++) {
+                Set<Player> players = grid.get(toKey(x, z));
+                if (players == null)
+                    continue;
+
+                Player one = getClosestPlayer(players, loc, closest, filter);
+                if (one != null) {
+                    closest = one.getLocation().distanceSquared(loc);
+                    player = one;
+                }
+            }
+        }
+
+        return player;
+    }
+
+    private static Player getClosestPlayer(Iterable<Player> players, Location loc, double closest, Predicate<Player> filter) {
+        World world = loc.getWorld();
+        Player player = null;
+
+        for (Player one : players) {
+            if (!one.isOnline() || one.getWorld() != world || (filter != null && !filter.test(one)))
+                continue;
+
+            double dist = one.getLocation().distanceSquared(loc);
+            if (dist < closest) {
+                closest = dist;
+                player = one;
+            }
+        }
+
+        return player;
+    }
+
+    private static long toKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
@@ -73,19 +73,7 @@ public final class Util {
     }
 
     public static Player getClosestPlayer(Location loc) {
-        double closest = 30.0;
-        Player player = null;
-        for (Player i : Bukkit.getOnlinePlayers()) {
-            if (!i.getWorld().getName().equals(loc.getWorld().getName()))
-                continue;
-
-            double dist = i.getLocation().distance(loc);
-            if (closest > dist) {
-                closest = dist;
-                player = i;
-            }
-        }
-        return closest > 30 ? null : player;
+        return Jobs.getPlayerLocationIndex().getClosestPlayer(loc, 30);
     }
 
     public static String getRealType(Entity entity) {
@@ -0,0 +1,146 @@
+package com.gamingmesh.jobs.tasks;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.bukkit.Bukkit;
+
+import com.gamingmesh.jobs.api.JobsInstancePaymentEvent;
+
+import net.Zrips.CMILib.Messages.CMIMessages;
+
+/**
+ * Fires {@link JobsInstancePaymentEvent}s in the order they were queued.
+ * <p>
+ * Instead of scheduling a new async task for every payment, events are put on
+ * a lock-free queue which is drained by this thread once per tick, or sooner
+ * if the queue grows over {@link #WAKE_THRESHOLD}. Events are dropped while
+ * the queue holds {@link #MAX_QUEUED} of them.
+ */
+public class InstancePaymentEventThread extends Thread {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long DROP_REPORT_INTERVAL = 60 * 1000L;
+
+    private static final int WAKE_THRESHOLD = 256;
+    private static final int MAX_QUEUED = 20000;
+
+    private final ConcurrentLinkedQueue<JobsInstancePaymentEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    private long reportedDrops = 0;
+    private long lastDropReport = 0;
+
+    public InstancePaymentEventThread() {
+        super("Jobs-InstancePaymentEventThread");
+        setDaemon(true);
+    }
+
+    /**
+     * Queues the given event to be fired on this thread.
+     *
+     * @param event {@link JobsInstancePaymentEvent}
+     * @return false if the event was dropped because the queue is full or the
+     *         thread was shut down
+     */
+    public boolean offer(JobsInstancePaymentEvent event) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        int size = depth.incrementAndGet();
+        if (size > MAX_QUEUED) {
+            depth.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        queue.offer(event);
+
+        if (size == WAKE_THRESHOLD)
+            LockSupport.unpark(this);
+
+        return true;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            LockSupport.parkNanos(this, TICK_NANOS);
+
+            if (interrupted()) {
+                running = false;
+            }
+
+            drain();
+            reportDrops(false);
+        }
+
+        // Fire what was queued before the shutdown
+        drain();
+        reportDrops(true);
+    }
+
+    private void drain() {
+        JobsInstancePaymentEvent event;
+        while ((event = queue.poll()) != null) {
+            depth.decrementAndGet();
+
+            try {
+                Bukkit.getServer().getPluginManager().callEvent(event);
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+
+            dispatched.incrementAndGet();
+        }
+    }
+
+    private void reportDrops(boolean force) {
+        long drops = dropped.get();
+        if (drops == reportedDrops)
+            return;
+
+        long now = System.currentTimeMillis();
+        if (!force && now - lastDropReport < DROP_REPORT_INTERVAL)
+            return;
+
+        CMIMessages.consoleMessage("&c[Jobs] Payment event queue was full, dropped " + (drops - reportedDrops) + " JobsInstancePaymentEvent(s)");
+        reportedDrops = drops;
+        lastDropReport = now;
+    }
+
+    /**
+     * @return the amount of events waiting to be fired
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return the amount of events fired by this thread
+     */
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    /**
+     * @return the amount of events which were not queued
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void shutdown() {
+        this.running = false;
+        interrupt();
+    }
+}
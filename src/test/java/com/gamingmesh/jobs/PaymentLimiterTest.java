@@ -0,0 +1,171 @@
+package com.gamingmesh.jobs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.gamingmesh.jobs.container.CurrencyType;
+
+public class PaymentLimiterTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static final Collection<CurrencyType> NONE = Collections.emptySet();
+
+    @Test
+    public void paysEverythingUnderTheLimit() {
+        PaymentLimiter limiter = new PaymentLimiter();
+        limiter.limit(CurrencyType.MONEY, 10, 100, NONE);
+
+        double[] unit = { 2, 3, 1 };
+        assertFalse(limiter.clamps(unit, 5));
+        assertArrayEquals(new double[] { 10, 15, 5 }, limiter.pay(unit, 5), DELTA);
+        assertEquals(10D, limiter.getAdded(CurrencyType.MONEY), DELTA);
+        assertFalse(limiter.isReached(CurrencyType.MONEY));
+    }
+
+    @Test
+    public void stopsAtTheLimit() {
+        PaymentLimiter limiter = new PaymentLimiter();
+        limiter.limit(CurrencyType.MONEY, 7, 10, NONE);
+
+        double[] unit = { 1, 0, 0 };
+        assertTrue(limiter.clamps(unit, 5));
+        assertArrayEquals(new double[] { 3, 0, 0 }, limiter.pay(unit, 5), DELTA);
+        assertEquals(3D, limiter.getAdded(CurrencyType.MONEY), DELTA);
+        assertTrue(limiter.isReached(CurrencyType.MONEY));
+    }
+
+    @Test
+    public void lastPaymentCanGoOverTheLimit() {
+        PaymentLimiter limiter = new PaymentLimiter();
+        limiter.limit(CurrencyType.EXP, 9, 10, NONE);
+
+        assertArrayEquals(new double[] { 0, 5, 0 }, limiter.pay(new double[] { 0, 5, 0 }, 3), DELTA);
+        assertEquals(5D, limiter.getAdded(CurrencyType.EXP), DELTA);
+    }
+
+    @Test
+    public void stopsOtherCurrencies() {
+        PaymentLimiter limiter = new PaymentLimiter();
+        limiter.limit(CurrencyType.MONEY, 8, 10, EnumSet.of(CurrencyType.EXP));
+
+        // Exp is paid with the two money payments under the limit only, points are not stopped
+        assertArrayEquals(new double[] { 2, 4, 4 }, limiter.pay(new double[] { 1, 2, 1 }, 4), DELTA);
+        assertFalse(limiter.isLimited(CurrencyType.EXP));
+    }
+
+    @Test
+    public void noneJobPaysMoneyAndPoints() {
+        // Players without a job are paid money and points only, stacked actions come with a count
+        PaymentLimiter limiter = new PaymentLimiter();
+        limiter.limit(CurrencyType.MONEY, 8, 10, EnumSet.of(CurrencyType.POINTS));
+        limiter.limit(CurrencyType.POINTS, 0, 100, NONE);
+
+        double[] unit = { 1, 0, 0.5 };
+        assertTrue(limiter.clamps(unit, 5));
+        assertArrayEquals(new double[] { 2, 0, 1 }, limiter.pay(unit, 5), DELTA);
+        assertEquals(1D, limiter.getAdded(CurrencyType.POINTS), DELTA);
+        assertTrue(limiter.isReached(CurrencyType.MONEY));
+        assertFalse(limiter.isLimited(CurrencyType.EXP));
+    }
+
+    @Test
+    public void noLimitsPaysAll() {
+        PaymentLimiter limiter = new PaymentLimiter();
+        double[] unit = { 1.5, 2, 0.25 };
+
+        assertFalse(limiter.clamps(unit, 1000));
+        assertArrayEquals(new double[] { 1500, 2000, 250 }, limiter.pay(unit, 1000), DELTA);
+    }
+
+    @Test
+    public void matchesSinglePayments() {
+        Random random = new Random(1);
+        CurrencyType[] types = CurrencyType.values();
+
+        for (int run = 0; run < 500; run++) {
+            int count = 1 + random.nextInt(40);
+            double[] unit = new double[types.length];
+            double[] current = new double[types.length];
+            int[] limit = new int[types.length];
+            boolean[] limited = new boolean[types.length];
+            Collection<CurrencyType>[] stopWith = newStopWith(types.length);
+
+            PaymentLimiter limiter = new PaymentLimiter();
+            for (CurrencyType type : types) {
+                int t = type.ordinal();
+                unit[t] = random.nextInt(4) == 0 ? 0D : random.nextDouble() * 5;
+                limited[t] = random.nextBoolean();
+                current[t] = random.nextDouble() * 50;
+                limit[t] = random.nextInt(80);
+                stopWith[t] = EnumSet.noneOf(CurrencyType.class);
+                for (CurrencyType other : types) {
+                    if (other != type && random.nextBoolean())
+                        stopWith[t].add(other);
+                }
+
+                if (limited[t])
+                    limiter.limit(type, current[t], limit[t], stopWith[t]);
+            }
+
+            double[] collected = current.clone();
+            double[] expected = new double[types.length];
+            for (int i = 0; i < count; i++) {
+                double[] paid = paySingle(types, unit.clone(), collected, limit, limited, stopWith);
+                for (int t = 0; t < types.length; t++)
+                    expected[t] += paid[t];
+            }
+
+            assertArrayEquals("run " + run, expected, limiter.pay(unit, count), DELTA);
+
+            for (CurrencyType type : types) {
+                int t = type.ordinal();
+                if (limited[t])
+                    assertEquals("run " + run, collected[t] - current[t], limiter.getAdded(type), DELTA);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<CurrencyType>[] newStopWith(int length) {
+        return new Collection[length];
+    }
+
+    /**
+     * One payment checked the way Jobs.applyLimits checks it, currency by
+     * currency with JobsPlayer.isUnderLimit adding to the collected amount.
+     */
+    private static double[] paySingle(CurrencyType[] types, double[] pay, double[] collected, int[] limit, boolean[] limited,
+        Collection<CurrencyType>[] stopWith) {
+        for (int t = 0; t < types.length; t++) {
+            if (isUnderLimit(t, pay[t], collected, limit, limited))
+                continue;
+
+            pay[t] = 0D;
+            for (CurrencyType other : stopWith[t])
+                pay[other.ordinal()] = 0D;
+        }
+
+        return pay;
+    }
+
+    private static boolean isUnderLimit(int t, double amount, double[] collected, int[] limit, boolean[] limited) {
+        if (amount == 0D || !limited[t])
+            return true;
+
+        if (collected[t] >= limit[t])
+            return false;
+
+        collected[t] += amount;
+        return true;
+    }
+}
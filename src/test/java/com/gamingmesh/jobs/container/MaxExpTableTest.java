@@ -0,0 +1,69 @@
+package com.gamingmesh.jobs.container;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.gamingmesh.jobs.stuff.CompiledEquation;
+
+import net.Zrips.CMILib.Equations.ParseError;
+
+public class MaxExpTableTest {
+
+    private static CompiledEquation compile(String expression) throws ParseError {
+        return CompiledEquation.compile(expression, "joblevel", "numjobs", "maxjobs");
+    }
+
+    private static void assertMatches(String expression) throws ParseError {
+        CompiledEquation equation = compile(expression);
+        MaxExpTable table = new MaxExpTable(equation);
+
+        for (int numjobs = 0; numjobs <= 3; numjobs++) {
+            for (int maxjobs = 1; maxjobs <= 3; maxjobs++) {
+                for (int level = 0; level <= 300; level++) {
+                    double expected = equation.getValue(level, numjobs, maxjobs);
+                    assertEquals(expression, expected, table.get(level, numjobs, maxjobs), 0D);
+                    // Cached value
+                    assertEquals(expression, expected, table.get(level, numjobs, maxjobs), 0D);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesEquationByLevel() throws ParseError {
+        assertMatches("10*(joblevel)+(joblevel*joblevel*4)");
+    }
+
+    @Test
+    public void keepsRowsByJobAmounts() throws ParseError {
+        assertMatches("joblevel*100*numjobs");
+        assertMatches("joblevel*100/maxjobs");
+        assertMatches("joblevel*numjobs+maxjobs");
+    }
+
+    @Test
+    public void matchesInAnyOrder() throws ParseError {
+        CompiledEquation equation = compile("joblevel^2+numjobs");
+        MaxExpTable table = new MaxExpTable(equation);
+        Random random = new Random(1);
+
+        for (int i = 0; i < 5000; i++) {
+            int level = random.nextInt(3000);
+            int numjobs = random.nextInt(4);
+            assertEquals(equation.getValue(level, numjobs, 2), table.get(level, numjobs, 2), 0D);
+        }
+    }
+
+    @Test
+    public void calculatesLevelsOutsideTheTable() throws ParseError {
+        CompiledEquation equation = compile("10*(joblevel)+(joblevel*joblevel*4)");
+        MaxExpTable table = new MaxExpTable(equation);
+
+        assertEquals(equation.getValue(-1, 1, 2), table.get(-1, 1, 2), 0D);
+        assertEquals(equation.getValue(10001, 1, 2), table.get(10001, 1, 2), 0D);
+        assertEquals(equation.getValue(10000, 1, 2), table.get(10000, 1, 2), 0D);
+    }
+}
@@ -0,0 +1,114 @@
+package com.gamingmesh.jobs.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class RankedTreeTest {
+
+    private static final Comparator<Integer> DESCENDING = Comparator.reverseOrder();
+
+    @Test
+    public void emptyTree() {
+        RankedTree<Integer> tree = new RankedTree<>(DESCENDING);
+
+        assertEquals(0, tree.size());
+        assertNull(tree.get(0));
+        assertEquals(-1, tree.indexOf(1));
+        assertFalse(tree.remove(1));
+        assertTrue(tree.getRange(0, 10).isEmpty());
+    }
+
+    @Test
+    public void keepsOrder() {
+        RankedTree<Integer> tree = new RankedTree<>(DESCENDING);
+        for (int value : new int[] { 5, 1, 9, 3, 7 }) {
+            tree.add(value);
+        }
+
+        assertEquals(5, tree.size());
+        assertEquals(Integer.valueOf(9), tree.get(0));
+        assertEquals(Integer.valueOf(1), tree.get(4));
+        assertNull(tree.get(5));
+        assertNull(tree.get(-1));
+        assertEquals(2, tree.indexOf(5));
+        assertEquals(-1, tree.indexOf(4));
+        assertEquals(Arrays.asList(7, 5, 3), tree.getRange(1, 3));
+        assertEquals(Arrays.asList(3, 1), tree.getRange(3, 10));
+        assertTrue(tree.getRange(5, 10).isEmpty());
+        assertTrue(tree.getRange(-1, 10).isEmpty());
+        assertTrue(tree.getRange(0, 0).isEmpty());
+    }
+
+    @Test
+    public void replacesEqualElements() {
+        // Elements with the same name are equal, the newer one is kept
+        Comparator<String[]> byName = Comparator.comparing(one -> one[0]);
+        RankedTree<String[]> tree = new RankedTree<>(byName);
+
+        tree.add(new String[] { "a", "1" });
+        tree.add(new String[] { "a", "2" });
+
+        assertEquals(1, tree.size());
+        assertEquals("2", tree.get(0)[1]);
+    }
+
+    @Test
+    public void matchesSortedList() {
+        RankedTree<Integer> tree = new RankedTree<>(DESCENDING);
+        TreeSet<Integer> expected = new TreeSet<>(DESCENDING);
+        Random random = new Random(1);
+
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(2000);
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(value), tree.remove(value));
+            else {
+                expected.add(value);
+                tree.add(value);
+            }
+
+            if (i % 500 != 0)
+                continue;
+
+            List<Integer> list = new ArrayList<>(expected);
+            assertEquals(list.size(), tree.size());
+
+            for (int index = 0; index < list.size(); index++) {
+                assertEquals(list.get(index), tree.get(index));
+                assertEquals(index, tree.indexOf(list.get(index)));
+            }
+
+            int from = list.isEmpty() ? 0 : random.nextInt(list.size());
+            int amount = random.nextInt(50);
+            assertEquals(list.subList(from, Math.min(list.size(), from + amount)), tree.getRange(from, amount));
+        }
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        RankedTree<Integer> tree = new RankedTree<>(DESCENDING);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(1));
+        values.forEach(tree::add);
+
+        tree.clear();
+
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.indexOf(50));
+    }
+}
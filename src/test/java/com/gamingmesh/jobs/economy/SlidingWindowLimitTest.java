@@ -0,0 +1,98 @@
+package com.gamingmesh.jobs.economy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SlidingWindowLimitTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void sumsAmountsInTheWindow() {
+        SlidingWindowLimit limit = new SlidingWindowLimit(3600);
+        long now = System.currentTimeMillis();
+
+        limit.add(5);
+        limit.add(2.5, now - 10 * 60 * 1000L);
+        limit.add(1, now - 59 * 60 * 1000L);
+
+        assertEquals(8.5, limit.getAmount(), DELTA);
+        assertEquals(3600, limit.getWindow());
+    }
+
+    @Test
+    public void ignoresAmountsOlderThanTheWindow() {
+        SlidingWindowLimit limit = new SlidingWindowLimit(3600);
+        long now = System.currentTimeMillis();
+
+        limit.add(4, now - 2 * 3600 * 1000L);
+        limit.add(3, now - 3601 * 1000L);
+
+        assertEquals(0D, limit.getAmount(), DELTA);
+        assertEquals(0L, limit.getLeftTime());
+    }
+
+    @Test
+    public void futureAmountsCountNow() {
+        SlidingWindowLimit limit = new SlidingWindowLimit(3600);
+
+        limit.add(2, System.currentTimeMillis() + 3600 * 1000L);
+        assertEquals(2D, limit.getAmount(), DELTA);
+    }
+
+    @Test
+    public void leftTimeFollowsTheOldestAmount() {
+        SlidingWindowLimit limit = new SlidingWindowLimit(3600);
+        long now = System.currentTimeMillis();
+
+        limit.add(1, now - 30 * 60 * 1000L);
+        limit.add(1);
+
+        // The oldest amount leaves the window in about 30 minutes, give or take one bucket
+        long left = limit.getLeftTime();
+        long bucket = 3600 * 1000L / SlidingWindowLimit.BUCKETS;
+        assertTrue(String.valueOf(left), left > 30 * 60 * 1000L - bucket && left <= 30 * 60 * 1000L + bucket);
+        assertTrue(limit.getOldestTime() <= now - 30 * 60 * 1000L);
+    }
+
+    @Test
+    public void remainingIsNeverNegative() {
+        SlidingWindowLimit limit = new SlidingWindowLimit(3600);
+
+        limit.add(7);
+        assertEquals(3D, limit.getRemaining(10), DELTA);
+
+        limit.add(7);
+        assertEquals(0D, limit.getRemaining(10), DELTA);
+    }
+
+    @Test
+    public void amountsExpireGradually() throws InterruptedException {
+        // 60 buckets of about 16 milliseconds
+        SlidingWindowLimit limit = new SlidingWindowLimit(1);
+        long now = System.currentTimeMillis();
+
+        limit.add(1, now - 900);
+        limit.add(2);
+        assertEquals(3D, limit.getAmount(), DELTA);
+
+        Thread.sleep(300);
+        assertEquals(2D, limit.getAmount(), DELTA);
+
+        Thread.sleep(1100);
+        assertEquals(0D, limit.getAmount(), DELTA);
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        SlidingWindowLimit limit = new SlidingWindowLimit(3600);
+
+        limit.add(5);
+        limit.clear();
+
+        assertEquals(0D, limit.getAmount(), DELTA);
+        assertEquals(0L, limit.getLeftTime());
+    }
+}
@@ -0,0 +1,95 @@
+package com.gamingmesh.jobs.stuff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.Zrips.CMILib.Equations.ParseError;
+import net.Zrips.CMILib.Equations.Parser;
+
+public class CompiledEquationTest {
+
+    private static final String[] VARIABLES = { "joblevel", "numjobs", "maxjobs", "baseincome" };
+
+    // Default equations of the example job and a few other forms
+    private static final String[] EQUATIONS = {
+        "10*(joblevel)+(joblevel*joblevel*4)",
+        "baseincome+(baseincome*(joblevel-1)*0.01)-((baseincome+(joblevel-1)*0.01) * ((numjobs-1)*0.05))",
+        "baseincome-(baseincome*((numjobs-1) *0.01))",
+        "0",
+        "-joblevel + numjobs * 2.5",
+        "joblevel^2/maxjobs - (joblevel - 1) / 3",
+        "2^3^2",
+        "((baseincome))*-1"
+    };
+
+    private static double parse(String expression, double... values) throws ParseError {
+        Parser parser = new Parser(expression);
+        for (int i = 0; i < VARIABLES.length; i++) {
+            parser.setVariable(VARIABLES[i], values[i]);
+        }
+        return parser.getValue();
+    }
+
+    private static void assertSame(String expression, double expected, double actual) {
+        assertEquals(expression, expected, actual, 1e-9 * Math.max(1D, Math.abs(expected)));
+    }
+
+    @Test
+    public void matchesParser() throws ParseError {
+        for (String expression : EQUATIONS) {
+            CompiledEquation equation = CompiledEquation.compile(expression, VARIABLES);
+
+            for (int level = 0; level <= 200; level += 7) {
+                for (int numjobs = 1; numjobs <= 3; numjobs++) {
+                    double base = level * 0.37 + numjobs;
+                    assertSame(expression, parse(expression, level, numjobs, 2, base), equation.getValue(level, numjobs, 2, base));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compilesDefaultEquations() throws ParseError {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(EQUATIONS[i], CompiledEquation.compile(EQUATIONS[i], VARIABLES).isCompiled());
+        }
+    }
+
+    @Test
+    public void tracksUsedVariables() throws ParseError {
+        CompiledEquation equation = CompiledEquation.compile("10*(joblevel)+(joblevel*joblevel*4)", "joblevel", "numjobs", "maxjobs");
+
+        assertTrue(equation.dependsOn(0));
+        assertFalse(equation.dependsOn(1));
+        assertFalse(equation.dependsOn(2));
+    }
+
+    @Test
+    public void sharedParserKeepsItsVariables() throws ParseError {
+        CompiledEquation equation = CompiledEquation.compile("joblevel*100+maxjobs", "joblevel", "numjobs", "maxjobs").setParserVariables(1, 1, 2);
+
+        equation.getValue(17, 3, 7);
+        assertSame("joblevel*100+maxjobs", 102D, equation.getParser().getValue());
+    }
+
+    @Test
+    public void wrappedParserUsesEveryVariable() throws ParseError {
+        Parser parser = new Parser("joblevel*numjobs");
+        CompiledEquation equation = CompiledEquation.of(parser, "joblevel", "numjobs");
+
+        assertFalse(equation.isCompiled());
+        assertTrue(equation.dependsOn(0));
+        assertTrue(equation.dependsOn(1));
+        assertSame("joblevel*numjobs", 12D, equation.getValue(3, 4));
+        assertNull(CompiledEquation.of(null, "joblevel"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyVariables() throws ParseError {
+        CompiledEquation.compile("a", "a", "b", "c", "d", "e");
+    }
+}